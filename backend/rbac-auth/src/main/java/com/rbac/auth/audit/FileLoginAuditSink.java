@@ -0,0 +1,67 @@
+package com.rbac.auth.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rbac.common.core.config.RbacProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 登入審計事件寫入本地檔案
+ *
+ * <p>dev 環境沒有資料庫，每批事件以 JSON Lines 附加到 rbac.audit.spool-file</p>
+ *
+ * <p>rbac.audit.async 停用時會在請求執行緒上寫入，以 {@link ReentrantLock} 而非 synchronized 互斥，
+ * 虛擬執行緒等待鎖時不會佔住載體執行緒</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Component
+@Profile("dev")
+public class FileLoginAuditSink implements LoginAuditSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path spoolFile;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FileLoginAuditSink(ObjectMapper objectMapper, RbacProperties rbacProperties) {
+        this.objectMapper = objectMapper;
+        this.spoolFile = Paths.get(rbacProperties.getAudit().getSpoolFile());
+        log.info("Login audit events are spooled to {}", spoolFile.toAbsolutePath());
+    }
+
+    @Override
+    public void write(List<LoginAuditEvent> events) {
+        lock.lock();
+        try {
+            Path parent = spoolFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(spoolFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (LoginAuditEvent event : events) {
+                    writer.write(objectMapper.writeValueAsString(event));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
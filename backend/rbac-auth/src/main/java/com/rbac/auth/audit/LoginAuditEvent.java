@@ -0,0 +1,109 @@
+package com.rbac.auth.audit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 登入審計事件
+ *
+ * <p>登入成功、失敗與帳號鎖定時建立，建立後不可變，由 {@link LoginAuditPublisher} 非同步寫入</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Getter
+@RequiredArgsConstructor
+public final class LoginAuditEvent {
+
+    /**
+     * 失敗原因：帳號不存在
+     */
+    public static final String USER_NOT_FOUND = "USER_NOT_FOUND";
+
+    /**
+     * 失敗原因：密碼錯誤
+     */
+    public static final String BAD_CREDENTIALS = "BAD_CREDENTIALS";
+
+    /**
+     * 失敗原因：帳號鎖定中
+     */
+    public static final String ACCOUNT_LOCKED = "ACCOUNT_LOCKED";
+
+    /**
+     * 失敗原因：帳號已停用或被管理員鎖定（sys_user.status 非啟用）
+     */
+    public static final String ACCOUNT_DISABLED = "ACCOUNT_DISABLED";
+
+    /**
+     * 失敗原因：本次密碼錯誤觸發鎖定
+     */
+    public static final String LOCKOUT = "LOCKOUT";
+
+    /**
+     * 事件類型
+     */
+    private final Type type;
+
+    /**
+     * 租戶 ID，無法判斷時為 null
+     */
+    private final Long tenantId;
+
+    /**
+     * 使用者 ID，帳號不存在時為 null
+     */
+    private final Long userId;
+
+    /**
+     * 使用者名稱
+     */
+    private final String username;
+
+    /**
+     * 來源 IP，非 HTTP 請求時為 null
+     */
+    private final String ip;
+
+    /**
+     * 失敗原因，成功時為 null
+     */
+    private final String reason;
+
+    /**
+     * 事件時間
+     */
+    private final LocalDateTime occurredAt;
+
+    /**
+     * 是否為成功登入
+     *
+     * @return 成功返回 true
+     */
+    public boolean isSuccess() {
+        return type == Type.SUCCESS;
+    }
+
+    /**
+     * 事件類型
+     */
+    public enum Type {
+
+        /**
+         * 登入成功
+         */
+        SUCCESS,
+
+        /**
+         * 登入失敗（帳號不存在、密碼錯誤或帳號鎖定中）
+         */
+        FAILURE,
+
+        /**
+         * 本次失敗觸發帳號鎖定
+         */
+        LOCKOUT
+    }
+}
@@ -0,0 +1,229 @@
+package com.rbac.auth.audit;
+
+import com.rbac.auth.model.entity.User;
+import com.rbac.common.core.config.RbacProperties;
+import com.rbac.common.database.context.TenantContextHolder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登入審計事件發布器
+ *
+ * <p>rbac.audit.async 啟用時（預設），事件放入固定容量的環形緩衝（{@link ArrayBlockingQueue}），
+ * 登入執行緒只做一次不阻塞的 offer；單一背景執行緒取出事件，每批最多 rbac.audit.batch-size 筆
+ * 交給 {@link LoginAuditSink} 寫入。緩衝已滿時丟棄事件並計數，審計不會拖慢或阻擋登入</p>
+ *
+ * <p>rbac.audit.async 停用時於呼叫執行緒直接寫入；rbac.audit.enabled 停用時不記錄</p>
+ *
+ * <p>指標：auth.audit.dropped（緩衝已滿丟棄）、auth.audit.write.failed（寫入失敗的事件數）、
+ * auth.audit.buffer（緩衝中的事件數）</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Component
+public class LoginAuditPublisher {
+
+    /**
+     * 背景執行緒等待事件的最長時間，用於檢查是否已關閉
+     */
+    private static final long POLL_TIMEOUT_MS = 500L;
+
+    /**
+     * 關閉時等待緩衝寫完的最長時間
+     */
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000L;
+
+    private final LoginAuditSink sink;
+    private final boolean enabled;
+    private final boolean async;
+    private final int batchSize;
+    private final ArrayBlockingQueue<LoginAuditEvent> buffer;
+    private final Thread consumer;
+
+    private final Counter droppedCounter;
+    private final Counter writeFailedCounter;
+
+    private volatile boolean running = true;
+
+    public LoginAuditPublisher(LoginAuditSink sink, RbacProperties rbacProperties, MeterRegistry meterRegistry) {
+        RbacProperties.AuditProperties config = rbacProperties.getAudit();
+        this.sink = sink;
+        this.enabled = config.isEnabled();
+        this.async = config.isAsync();
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, config.getBufferSize()));
+
+        this.droppedCounter = Counter.builder("auth.audit.dropped")
+                .description("Login audit events dropped because the buffer was full")
+                .register(meterRegistry);
+        this.writeFailedCounter = Counter.builder("auth.audit.write.failed")
+                .description("Login audit events that could not be persisted")
+                .register(meterRegistry);
+        Gauge.builder("auth.audit.buffer", buffer, ArrayBlockingQueue::size)
+                .description("Login audit events waiting to be persisted")
+                .register(meterRegistry);
+
+        if (enabled && async) {
+            this.consumer = new Thread(this::consume, "login-audit");
+            this.consumer.setDaemon(true);
+            this.consumer.start();
+        } else {
+            this.consumer = null;
+        }
+        log.info("LoginAuditPublisher initialized: enabled={}, async={}, bufferSize={}, batchSize={}",
+                enabled, async, buffer.remainingCapacity(), batchSize);
+    }
+
+    /**
+     * 記錄登入成功
+     *
+     * @param user 登入的使用者
+     */
+    public void success(User user) {
+        publish(LoginAuditEvent.Type.SUCCESS, user.getUsername(), user, null);
+    }
+
+    /**
+     * 記錄登入失敗
+     *
+     * @param username 嘗試登入的使用者名稱
+     * @param user 對應的使用者，帳號不存在或尚未查詢時為 null
+     * @param reason 失敗原因（見 {@link LoginAuditEvent} 常數）
+     */
+    public void failure(String username, User user, String reason) {
+        publish(LoginAuditEvent.Type.FAILURE, username, user, reason);
+    }
+
+    /**
+     * 記錄本次失敗觸發帳號鎖定
+     *
+     * @param username 使用者名稱
+     * @param user 對應的使用者，帳號不存在時為 null
+     */
+    public void lockout(String username, User user) {
+        publish(LoginAuditEvent.Type.LOCKOUT, username, user, LoginAuditEvent.LOCKOUT);
+    }
+
+    /**
+     * 緩衝中等待寫入的事件數
+     *
+     * @return 事件數
+     */
+    public int pendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * 停止背景執行緒，等待緩衝中的事件寫完
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (consumer == null) {
+            return;
+        }
+        try {
+            consumer.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("Login audit shut down with {} unwritten events", buffer.size());
+        }
+    }
+
+    private void publish(LoginAuditEvent.Type type, String username, User user, String reason) {
+        if (!enabled) {
+            return;
+        }
+        LoginAuditEvent event = new LoginAuditEvent(
+                type,
+                user != null ? user.getTenantId() : currentTenantId(),
+                user != null ? user.getUserId() : null,
+                username,
+                currentIp(),
+                reason,
+                LocalDateTime.now());
+
+        if (!async) {
+            write(List.of(event));
+            return;
+        }
+        if (!buffer.offer(event)) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * 背景執行緒：等待第一筆事件後取出目前緩衝中的事件（最多 batchSize 筆）一併寫入
+     */
+    private void consume() {
+        List<LoginAuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                LoginAuditEvent first = buffer.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<LoginAuditEvent> events) {
+        try {
+            sink.write(events);
+        } catch (Exception e) {
+            writeFailedCounter.increment(events.size());
+            log.error("Failed to write {} login audit events: {}", events.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 取得數值租戶 ID，租戶上下文不存在或非數值時返回 null
+     */
+    private static Long currentTenantId() {
+        String tenantId = TenantContextHolder.getTenantId();
+        if (tenantId == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(tenantId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 取得目前 HTTP 請求的來源 IP，非 HTTP 請求時返回 null
+     */
+    private static String currentIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.rbac.auth.audit;
+
+import java.util.List;
+
+/**
+ * 登入審計事件的持久化目的地
+ *
+ * <p>由 {@link LoginAuditPublisher} 的背景執行緒以批次呼叫，實作不需處理並發</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public interface LoginAuditSink {
+
+    /**
+     * 寫入一批事件
+     *
+     * @param events 事件（依發生順序，不為空）
+     */
+    void write(List<LoginAuditEvent> events);
+}
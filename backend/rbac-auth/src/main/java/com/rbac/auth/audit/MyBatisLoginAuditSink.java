@@ -0,0 +1,29 @@
+package com.rbac.auth.audit;
+
+import com.rbac.auth.repository.mapper.LoginLogMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 登入審計事件寫入 sys_login_log
+ *
+ * <p>非 dev 環境的審計目的地，每批事件為一次多列 INSERT</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Component
+@Profile("!dev")
+@RequiredArgsConstructor
+public class MyBatisLoginAuditSink implements LoginAuditSink {
+
+    private final LoginLogMapper loginLogMapper;
+
+    @Override
+    public void write(List<LoginAuditEvent> events) {
+        loginLogMapper.insertBatch(events);
+    }
+}
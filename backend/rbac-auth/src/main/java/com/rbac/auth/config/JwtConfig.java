@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * JWT 配置類
  *
@@ -24,10 +27,10 @@ public class JwtConfig {
     private String secret;
 
     /**
-     * JWT Token 有效期（秒）
-     * 預設 86400 秒（24 小時）
+     * JWT Access Token 有效期（秒）
+     * 預設 900 秒（15 分鐘），逾期後以 Refresh Token 換發
      */
-    private Long expiration = 86400L;
+    private Long expiration = 900L;
 
     /**
      * JWT Token 發行者
@@ -40,7 +43,200 @@ public class JwtConfig {
     private String subject = "rbac-user";
 
     /**
-     * JWT Token 演算法
+     * JWT Token 演算法：HS256（共用密鑰）、ES256 或 EdDSA（金鑰環）
      */
     private String algorithm = "HS256";
-}
\ No newline at end of file
+
+    /**
+     * 是否啟用 HS256 Token 快速解碼（無法處理的格式自動改用 jjwt）
+     */
+    private boolean fastDecoderEnabled = true;
+
+    /**
+     * 非對稱簽章金鑰環配置（algorithm 為 ES256 / EdDSA 時使用）
+     */
+    private KeyRing keyRing = new KeyRing();
+
+    /**
+     * 非對稱簽章金鑰環配置
+     */
+    @Data
+    public static class KeyRing {
+        /**
+         * 簽章使用的 kid，未設定時使用第一把具私鑰的金鑰
+         */
+        private String activeKid;
+
+        /**
+         * 金鑰清單，僅含公鑰的金鑰只用於驗證（輪替期間的新舊金鑰）
+         */
+        private List<KeyEntry> keys = new ArrayList<>();
+
+        /**
+         * 未配置金鑰時是否產生節點本地的臨時金鑰（僅限開發，多節點部署必須關閉）
+         */
+        private boolean generateIfMissing = false;
+
+        /**
+         * 是否接受不帶 kid 的 HS256 舊 Token（以 rbac.auth.jwt.secret 驗證），僅供由 HS256 遷移期間使用；
+         * 超過 Token 最長有效期後應關閉
+         */
+        private boolean acceptLegacyHmac = true;
+
+        /**
+         * JWKS 端點 Cache-Control max-age（秒）
+         */
+        private long jwksMaxAge = 300L;
+    }
+
+    /**
+     * 金鑰環中的單一金鑰
+     */
+    @Data
+    public static class KeyEntry {
+        /**
+         * 金鑰 ID，寫入 Token 的 kid 標頭
+         */
+        private String kid;
+
+        /**
+         * 演算法，未設定時沿用 rbac.auth.jwt.algorithm
+         */
+        private String algorithm;
+
+        /**
+         * 公鑰（X.509 DER 的 Base64 或 PEM）
+         */
+        private String publicKey;
+
+        /**
+         * 私鑰（PKCS#8 DER 的 Base64 或 PEM），僅簽章節點需要
+         */
+        private String privateKey;
+    }
+
+    /**
+     * 已驗證 Token 快取配置
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * 已驗證 Token 快取配置
+     */
+    @Data
+    public static class Cache {
+        /**
+         * 是否啟用已驗證 Token 快取
+         */
+        private boolean enabled = true;
+
+        /**
+         * 快取最大條目數
+         */
+        private long maxSize = 10000L;
+
+        /**
+         * 快取條目最長存活時間（秒），實際存活時間不超過 Token 的 exp
+         */
+        private long maxTtl = 600L;
+    }
+
+    /**
+     * 本地撤銷過濾配置
+     */
+    private Revocation revocation = new Revocation();
+
+    /**
+     * 本地撤銷過濾配置
+     */
+    @Data
+    public static class Revocation {
+        /**
+         * 是否啟用本地撤銷過濾（停用時每次請求皆查詢 Redis 黑名單）
+         */
+        private boolean localFilterEnabled = true;
+
+        /**
+         * Bloom Filter 預期撤銷數量
+         */
+        private long expectedInsertions = 100000L;
+
+        /**
+         * Bloom Filter 誤判率，誤判時回查 Redis
+         */
+        private double falsePositiveRate = 0.001;
+
+        /**
+         * 撤銷事件 pub/sub 頻道
+         */
+        private String channel = "auth:revocation";
+
+        /**
+         * 由 Redis 重新同步的間隔（ISO-8601，例如 PT5M）
+         */
+        private String resyncInterval = "PT5M";
+
+        /**
+         * Token 世代變更 pub/sub 頻道
+         */
+        private String epochChannel = "auth:epoch";
+
+        /**
+         * Token 世代本地值的背景重新讀取間隔（秒），不阻塞請求；pub/sub 遺失訊息時的最長延遲
+         */
+        private long epochRefreshInterval = 300L;
+
+        /**
+         * Token 世代本地快取最大條目數
+         */
+        private long epochCacheMaxSize = 100000L;
+    }
+
+    /**
+     * Refresh Token 配置
+     */
+    private Refresh refresh = new Refresh();
+
+    /**
+     * Refresh Token 配置
+     */
+    @Data
+    public static class Refresh {
+        /**
+         * 是否簽發 Refresh Token（停用時登入回應不含 refreshToken）
+         */
+        private boolean enabled = true;
+
+        /**
+         * Refresh Token 家族有效期（秒），自登入起算，輪替不延長
+         * 預設 1209600 秒（14 天）
+         */
+        private long ttl = 1209600L;
+    }
+
+    /**
+     * 角色遮罩配置
+     */
+    private CompactRoles compactRoles = new CompactRoles();
+
+    /**
+     * 角色遮罩配置
+     */
+    @Data
+    public static class CompactRoles {
+        /**
+         * 是否以租戶角色字典的位元遮罩（rb Claim）取代角色名稱清單（roles Claim）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 租戶角色字典本地快取存活時間（秒）
+         */
+        private long cacheTtl = 300L;
+
+        /**
+         * 租戶角色字典本地快取最大租戶數
+         */
+        private long cacheMaxSize = 10000L;
+    }
+}
@@ -0,0 +1,96 @@
+package com.rbac.auth.config;
+
+import com.rbac.auth.password.BCryptCostCalibrator;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 密碼驗證配置類
+ *
+ * <p>從 application.yml 載入密碼雜湊、成本校準與驗證執行緒池配置，並提供共用的 {@link PasswordEncoder}</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rbac.auth.password")
+@Data
+public class PasswordConfig {
+
+    /**
+     * BCrypt 雜湊成本（log2 rounds），停用成本校準時使用
+     */
+    private int bcryptStrength = 10;
+
+    /**
+     * BCrypt 成本校準配置
+     */
+    private Calibration calibration = new Calibration();
+
+    /**
+     * 密碼驗證執行緒池配置
+     */
+    private Verifier verifier = new Verifier();
+
+    /**
+     * 密碼驗證執行緒池配置
+     */
+    @Data
+    public static class Verifier {
+        /**
+         * 驗證執行緒數，0 表示使用 CPU 核心數
+         */
+        private int threads = 0;
+
+        /**
+         * 等待佇列上限，佇列已滿時立即拒絕（429）
+         */
+        private int queueCapacity = 64;
+
+        /**
+         * 單次驗證最長等待時間（毫秒），包含排隊時間，逾時返回 503
+         */
+        private long timeoutMs = 2000L;
+    }
+
+    /**
+     * BCrypt 成本校準配置
+     */
+    @Data
+    public static class Calibration {
+        /**
+         * 是否於啟動時依目前硬體校準成本
+         */
+        private boolean enabled = true;
+
+        /**
+         * 目標單次驗證時間（毫秒），選擇不超過此時間的最高成本
+         */
+        private long targetMs = 250L;
+
+        /**
+         * 成本下限，硬體再慢也不低於此值
+         */
+        private int minStrength = 10;
+
+        /**
+         * 成本上限
+         */
+        private int maxStrength = 14;
+    }
+
+    /**
+     * 密碼編碼器
+     *
+     * @param calibrator BCrypt 成本校準器
+     * @return 以校準後成本產生雜湊的 BCrypt 密碼編碼器
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(BCryptCostCalibrator calibrator) {
+        return new BCryptPasswordEncoder(calibrator.getStrength());
+    }
+}
@@ -0,0 +1,19 @@
+package com.rbac.auth.config;
+
+import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * 持久層配置
+ *
+ * <p>非 dev 環境註冊認證模組的 MyBatis Mapper；dev 環境使用 MockUserRepository，不建立 Mapper</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Configuration
+@Profile("!dev")
+@MapperScan("com.rbac.auth.repository.mapper")
+public class PersistenceConfig {
+}
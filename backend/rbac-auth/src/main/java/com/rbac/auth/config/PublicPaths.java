@@ -0,0 +1,112 @@
+package com.rbac.auth.config;
+
+import com.rbac.auth.controller.JwksController;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+
+/**
+ * 公開路徑清單
+ *
+ * <p>允許匿名存取的路徑只在此定義一次：{@link SecurityConfig} 依此產生 permitAll 規則，
+ * JwtAuthenticationFilter 依此略過 Token 擷取與驗證，
+ * 登入、健康檢查等高頻公開請求不再執行任何 JWT 運算</p>
+ *
+ * <p>路徑樣式於建構時預先編譯為 {@link PathPattern}，比對時不再解析樣式字串</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Component
+public class PublicPaths {
+
+    /**
+     * 公開路徑規則，method 為 null 表示所有 HTTP 方法
+     */
+    private static final List<Rule> RULES = List.of(
+            // 登入與換發以帳密或 Refresh Token 認證，Access Token 可能不存在或已過期
+            new Rule(null, "/api/v1/auth/login"),
+            new Rule(HttpMethod.POST, "/api/v1/auth/refresh"),
+            // JWKS 公鑰端點，供下游服務離線驗證 Token
+            new Rule(HttpMethod.GET, JwksController.JWKS_PATH),
+            // 基礎設施：健康檢查與 API 文件
+            new Rule(HttpMethod.GET, "/actuator/health"),
+            new Rule(HttpMethod.GET, "/actuator/health/**"),
+            new Rule(HttpMethod.GET, "/swagger-ui.html"),
+            new Rule(HttpMethod.GET, "/swagger-ui/**"),
+            new Rule(HttpMethod.GET, "/v3/api-docs/**")
+    );
+
+    private final List<CompiledRule> compiledRules;
+
+    public PublicPaths() {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        this.compiledRules = RULES.stream()
+                .map(rule -> new CompiledRule(rule.getMethod(), parser.parse(rule.getPattern())))
+                .toList();
+    }
+
+    /**
+     * 取得公開路徑規則，供 {@link SecurityConfig} 產生 permitAll 規則
+     *
+     * @return 公開路徑規則
+     */
+    public List<Rule> getRules() {
+        return RULES;
+    }
+
+    /**
+     * 判斷請求是否為公開路徑
+     *
+     * @param request HTTP 請求
+     * @return 如果為公開路徑返回 true
+     */
+    public boolean matches(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (contextPath != null && !contextPath.isEmpty() && uri.startsWith(contextPath)) {
+            uri = uri.substring(contextPath.length());
+        }
+        PathContainer path = PathContainer.parsePath(uri);
+        String method = request.getMethod();
+        for (CompiledRule rule : compiledRules) {
+            if ((rule.getMethod() == null || rule.getMethod().matches(method)) && rule.getPattern().matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 公開路徑規則
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Rule {
+
+        /**
+         * HTTP 方法，null 表示所有方法
+         */
+        private final HttpMethod method;
+
+        /**
+         * 路徑樣式
+         */
+        private final String pattern;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static final class CompiledRule {
+
+        private final HttpMethod method;
+        private final PathPattern pattern;
+    }
+}
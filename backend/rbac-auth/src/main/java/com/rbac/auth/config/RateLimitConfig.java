@@ -0,0 +1,76 @@
+package com.rbac.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 登入頻率限制配置類
+ *
+ * <p>從 application.yml 載入登入端點的來源 IP 與租戶頻率限制，
+ * 每個維度包含本地 Token Bucket（單節點）與 Redis 滑動視窗（整個叢集）兩層</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rbac.auth.rate-limit")
+@Data
+public class RateLimitConfig {
+
+    /**
+     * 是否啟用登入頻率限制
+     */
+    private boolean enabled = true;
+
+    /**
+     * 本地 Token Bucket 數量上限（每個 IP / 租戶一個）
+     */
+    private long localMaxKeys = 100000L;
+
+    /**
+     * 來源 IP 限制
+     */
+    private Limit ip = new Limit(10, 1.0, 60, 60);
+
+    /**
+     * 租戶限制
+     */
+    private Limit tenant = new Limit(200, 50.0, 3000, 60);
+
+    /**
+     * 單一維度的限制
+     */
+    @Data
+    public static class Limit {
+        /**
+         * 本地 Token Bucket 容量（允許的瞬間突發數量）
+         */
+        private int burst;
+
+        /**
+         * 本地 Token Bucket 每秒補充數量
+         */
+        private double refillPerSecond;
+
+        /**
+         * Redis 滑動視窗內允許的請求數，0 表示不啟用叢集限制
+         */
+        private int windowLimit;
+
+        /**
+         * Redis 滑動視窗長度（秒）
+         */
+        private long windowSeconds;
+
+        public Limit() {
+        }
+
+        public Limit(int burst, double refillPerSecond, int windowLimit, long windowSeconds) {
+            this.burst = burst;
+            this.refillPerSecond = refillPerSecond;
+            this.windowLimit = windowLimit;
+            this.windowSeconds = windowSeconds;
+        }
+    }
+}
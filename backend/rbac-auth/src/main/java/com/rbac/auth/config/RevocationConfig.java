@@ -0,0 +1,36 @@
+package com.rbac.auth.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Token 撤銷同步配置
+ *
+ * <p>提供 Redis pub/sub 監聽容器並啟用排程，供 RevocationSyncService 訂閱撤銷頻道與定期重新同步</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Configuration
+@EnableScheduling
+public class RevocationConfig {
+
+    /**
+     * Redis 訊息監聽容器
+     *
+     * <p>容器為 SmartLifecycle，隨應用啟動；各服務於應用就緒後才註冊監聽器，註冊時才建立訂閱。
+     * Redis 暫時無法連線時由容器依恢復間隔自動重試訂閱，不影響應用啟動</p>
+     *
+     * @param connectionFactory Redis 連線工廠
+     * @return 訊息監聽容器
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+}
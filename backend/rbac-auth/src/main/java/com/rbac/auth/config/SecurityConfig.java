@@ -1,6 +1,9 @@
 package com.rbac.auth.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rbac.auth.filter.JwtAuthenticationFilter;
+import com.rbac.auth.filter.LoginRateLimitFilter;
+import com.rbac.auth.ratelimit.LoginRateLimiter;
 import com.rbac.auth.service.JwtTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -23,6 +26,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtTokenService jwtTokenService;
+    private final PublicPaths publicPaths;
+    private final LoginRateLimiter loginRateLimiter;
+    private final ObjectMapper objectMapper;
 
     /**
      * 配置安全過濾鏈
@@ -38,18 +44,27 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
 
             // 配置授權規則
-            .authorizeHttpRequests(authz -> authz
-                // 登入端點允許匿名存取
-                .requestMatchers("/api/v1/auth/login").permitAll()
+            .authorizeHttpRequests(authz -> {
+                // 公開路徑允許匿名存取（登入、換發、JWKS、健康檢查、API 文件），JWT 過濾器同樣略過
+                for (PublicPaths.Rule rule : publicPaths.getRules()) {
+                    if (rule.getMethod() == null) {
+                        authz.requestMatchers(rule.getPattern()).permitAll();
+                    } else {
+                        authz.requestMatchers(rule.getMethod(), rule.getPattern()).permitAll();
+                    }
+                }
                 // 其他所有請求需要認證
-                .anyRequest().authenticated()
-            )
+                authz.anyRequest().authenticated();
+            })
 
             // 配置會話管理 - 無狀態，因為使用 JWT
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
 
+            // 登入頻率限制：在密碼驗證之前依 IP 與租戶拒絕過量請求
+            .addFilterBefore(loginRateLimitFilter(), UsernamePasswordAuthenticationFilter.class)
+
             // 添加 JWT 認證過濾器
             .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
 
@@ -63,6 +78,16 @@ public class SecurityConfig {
      */
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtTokenService);
+        return new JwtAuthenticationFilter(jwtTokenService, publicPaths);
+    }
+
+    /**
+     * 登入頻率限制過濾器 Bean
+     *
+     * @return 登入頻率限制過濾器
+     */
+    @Bean
+    public LoginRateLimitFilter loginRateLimitFilter() {
+        return new LoginRateLimitFilter(loginRateLimiter, objectMapper);
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.rbac.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 租戶登錄表配置類
+ *
+ * <p>從 application.yml 載入租戶存在性與狀態驗證的本地快取、Bloom Filter 與同步配置</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rbac.auth.tenant-registry")
+@Data
+public class TenantRegistryConfig {
+
+    /**
+     * 是否啟用租戶驗證，停用時只驗證租戶 ID 格式
+     */
+    private boolean enabled = true;
+
+    /**
+     * Bloom Filter 預期鍵數量（每個租戶包含 ID 與編碼兩個鍵）
+     */
+    private long expectedInsertions = 20000L;
+
+    /**
+     * Bloom Filter 誤判率，誤判時回查資料庫一次並以負向快取記住
+     */
+    private double falsePositiveRate = 0.001;
+
+    /**
+     * 租戶狀態本地快取容量上限
+     */
+    private long cacheMaxSize = 20000L;
+
+    /**
+     * 租戶狀態本地快取存活時間（秒），應大於重新同步間隔，正常情況下條目由同步覆寫而不會過期
+     */
+    private long cacheTtl = 1800L;
+
+    /**
+     * 租戶變更 pub/sub 頻道，訊息內容為租戶 ID
+     */
+    private String channel = "auth:tenant:changed";
+
+    /**
+     * 由資料庫重新載入的間隔（ISO-8601，例如 PT10M）
+     */
+    private String resyncInterval = "PT10M";
+}
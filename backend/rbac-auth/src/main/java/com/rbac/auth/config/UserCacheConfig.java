@@ -0,0 +1,52 @@
+package com.rbac.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 使用者快取配置類
+ *
+ * <p>從 application.yml 載入使用者資料兩層快取（本地 L1 + Redis L2）與負向快取配置</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rbac.auth.user-cache")
+@Data
+public class UserCacheConfig {
+
+    /**
+     * 是否啟用使用者快取，停用時每次查詢直接存取底層儲存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 本地快取容量上限
+     */
+    private long localMaxSize = 10000L;
+
+    /**
+     * 本地快取存活時間（秒），其他節點的變更最遲於此時間後生效（pub/sub 遺失訊息時）
+     */
+    private long localTtl = 30L;
+
+    /**
+     * Redis 快取存活時間（秒）
+     *
+     * <p>條目含帳號狀態與角色；變更未呼叫 CachingUserRepository.evict 時，
+     * 停用帳號或移除角色最遲於 remote-ttl + local-ttl 後生效，因此預設值保持較短</p>
+     */
+    private long remoteTtl = 60L;
+
+    /**
+     * 不存在帳號的負向快取存活時間（秒），同時適用本地與 Redis
+     */
+    private long negativeTtl = 60L;
+
+    /**
+     * 失效廣播的 Redis pub/sub 頻道
+     */
+    private String channel = "auth:user:invalidate";
+}
@@ -1,11 +1,13 @@
 package com.rbac.auth.context;
 
+import com.rbac.common.core.context.RequestContext;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * UserContext 持有者
  *
- * <p>使用 ThreadLocal 管理 UserContext，提供跨模組的當前使用者資訊存取</p>
+ * <p>UserContext 存於 {@link RequestContext}，提供跨模組的當前使用者資訊存取；
+ * 與租戶、Trace ID 等請求上下文共用一次 ThreadLocal 查詢</p>
  *
  * @author CHANG SHOU-WEN, AI-Enhanced
  * @since 2025/11/25
@@ -13,11 +15,6 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class UserContextHolder {
 
-    /**
-     * ThreadLocal 儲存 UserContext
-     */
-    private static final ThreadLocal<UserContext> CONTEXT_HOLDER = new ThreadLocal<>();
-
     /**
      * 設定當前執行緒的 UserContext
      *
@@ -29,7 +26,11 @@ public class UserContextHolder {
         } else {
             log.debug("Clearing UserContext");
         }
-        CONTEXT_HOLDER.set(context);
+        if (context != null) {
+            RequestContext.current().setUser(context);
+        } else {
+            clearUser();
+        }
     }
 
     /**
@@ -38,7 +39,8 @@ public class UserContextHolder {
      * @return UserContext 物件，如果不存在返回 null
      */
     public static UserContext getContext() {
-        return CONTEXT_HOLDER.get();
+        RequestContext context = RequestContext.peek();
+        return context != null ? (UserContext) context.getUser() : null;
     }
 
     /**
@@ -112,7 +114,15 @@ public class UserContextHolder {
         if (context != null) {
             log.debug("Clearing UserContext for user: {}", context.getUsername());
         }
-        CONTEXT_HOLDER.remove();
+        clearUser();
+    }
+
+    private static void clearUser() {
+        RequestContext context = RequestContext.peek();
+        if (context != null) {
+            context.setUser(null);
+            RequestContext.releaseIfEmpty();
+        }
     }
 
     /**
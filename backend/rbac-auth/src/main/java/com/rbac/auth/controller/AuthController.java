@@ -2,6 +2,7 @@ package com.rbac.auth.controller;
 
 import com.rbac.auth.model.dto.LoginRequest;
 import com.rbac.auth.model.dto.LoginResponse;
+import com.rbac.auth.model.dto.RefreshTokenRequest;
 import com.rbac.auth.model.dto.UserInfoResponse;
 import com.rbac.auth.model.entity.User;
 import com.rbac.auth.repository.UserRepository;
@@ -46,14 +47,30 @@ public class AuthController {
         return Result.success(response);
     }
 
+    /**
+     * 換發 Access Token
+     *
+     * <p>每次換發都會輪替 Refresh Token，舊的 Refresh Token 立即失效；
+     * 已輪替的 Refresh Token 再次使用時撤銷整個家族</p>
+     *
+     * @param request Refresh Token 請求
+     * @return 新的 Access Token 與 Refresh Token
+     */
+    @PostMapping("/refresh")
+    public Result<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return Result.success(authService.refresh(request.getRefreshToken()));
+    }
+
     /**
      * 使用者登出
      *
      * @param authorization Authorization header
+     * @param request 可選的 Refresh Token，一併撤銷
      * @return 登出結果
      */
     @PostMapping("/logout")
-    public Result<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+    public Result<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                               @RequestBody(required = false) RefreshTokenRequest request) {
         if (authorization == null || !authorization.startsWith("Bearer ")) {
             return Result.error(401, "無效的授權標頭");
         }
@@ -62,11 +79,35 @@ public class AuthController {
 
         // 實作登出邏輯
         authService.logout(token);
+        if (request != null && request.getRefreshToken() != null) {
+            authService.revokeRefreshToken(request.getRefreshToken());
+        }
 
         log.info("User logged out successfully");
         return Result.success(null);
     }
 
+    /**
+     * 登出所有裝置
+     *
+     * <p>撤銷當前使用者所有已簽發的 Token，包含本次請求使用的 Token</p>
+     *
+     * @return 登出結果
+     */
+    @PostMapping("/logout-all")
+    public Result<Void> logoutAll() {
+        com.rbac.auth.context.UserContext userContext = com.rbac.auth.context.UserContextHolder.getContext();
+
+        if (userContext == null) {
+            return Result.error(401, "未認證的使用者");
+        }
+
+        authService.logoutAll(userContext.getUserId());
+
+        log.info("User logged out from all devices: {}", userContext.getUsername());
+        return Result.success(null);
+    }
+
     /**
      * 取得當前使用者資訊
      *
@@ -0,0 +1,46 @@
+package com.rbac.auth.controller;
+
+import com.rbac.auth.config.JwtConfig;
+import com.rbac.auth.key.JwtKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * JWKS 端點
+ *
+ * <p>公開金鑰環中所有驗證用公鑰（RFC 7517 JWK Set），下游服務快取後即可離線驗證 Token。
+ * 文件於金鑰載入時預先序列化，請求只回傳快取字串；依 JWKS 慣例直接回傳 JSON，不包裝 Result</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    /**
+     * JWKS 路徑
+     */
+    public static final String JWKS_PATH = "/.well-known/jwks.json";
+
+    private final JwtKeyRing jwtKeyRing;
+    private final JwtConfig jwtConfig;
+
+    /**
+     * 取得 JWK Set
+     *
+     * @return JWKS JSON
+     */
+    @GetMapping(value = JWKS_PATH, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(jwtConfig.getKeyRing().getJwksMaxAge())).cachePublic())
+                .body(jwtKeyRing.getJwksJson());
+    }
+}
@@ -0,0 +1,38 @@
+package com.rbac.auth.exception;
+
+import com.rbac.common.core.exception.RbacException;
+
+/**
+ * 服務暫時無法使用異常
+ *
+ * <p>依賴的資源逾時或暫時無法處理請求時拋出，對應 HTTP 503</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public class ServiceUnavailableException extends RbacException {
+
+    /**
+     * Error code for service unavailable exceptions.
+     */
+    private static final String ERROR_CODE = "503";
+
+    /**
+     * Constructor with message.
+     *
+     * @param message the error message
+     */
+    public ServiceUnavailableException(String message) {
+        super(ERROR_CODE, message);
+    }
+
+    /**
+     * Constructor with message and cause.
+     *
+     * @param message the error message
+     * @param cause the cause of this exception
+     */
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(ERROR_CODE, message, cause);
+    }
+}
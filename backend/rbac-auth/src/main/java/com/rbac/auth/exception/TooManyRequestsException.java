@@ -0,0 +1,28 @@
+package com.rbac.auth.exception;
+
+import com.rbac.common.core.exception.RbacException;
+
+/**
+ * 請求過多異常
+ *
+ * <p>登入請求超過處理能力或頻率限制時拋出，對應 HTTP 429</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public class TooManyRequestsException extends RbacException {
+
+    /**
+     * Error code for too many requests exceptions.
+     */
+    private static final String ERROR_CODE = "429";
+
+    /**
+     * Constructor with message.
+     *
+     * @param message the error message
+     */
+    public TooManyRequestsException(String message) {
+        super(ERROR_CODE, message);
+    }
+}
@@ -1,7 +1,9 @@
 package com.rbac.auth.filter;
 
+import com.rbac.auth.config.PublicPaths;
 import com.rbac.auth.context.UserContext;
 import com.rbac.auth.context.UserContextHolder;
+import com.rbac.auth.model.VerifiedToken;
 import com.rbac.auth.service.JwtTokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,11 +14,14 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * JWT 認證過濾器
  *
- * <p>驗證 JWT Token 並將 UserContext 注入到 ThreadLocal</p>
+ * <p>驗證 JWT Token 並將 UserContext 注入到 ThreadLocal；
+ * {@link PublicPaths} 定義的公開路徑直接略過，不擷取也不驗證 Token。
+ * TenantFilter 已透過 {@link JwtTokenTenantResolver} 驗證同一個 Token 時沿用其結果</p>
  *
  * @author CHANG SHOU-WEN, AI-Enhanced
  * @since 2025/11/25
@@ -26,24 +31,36 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenService jwtTokenService;
+    private final PublicPaths publicPaths;
 
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
 
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return publicPaths.matches(request);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
         try {
-            String token = extractToken(request);
+            // RequestPreambleFilter 已驗證並設定 UserContext 時不再重複驗證
+            String token = UserContextHolder.hasContext() ? null : extractToken(request);
 
-            if (token != null && jwtTokenService.validateToken(token)) {
-                UserContext userContext = jwtTokenService.extractUserContext(token);
-                UserContextHolder.setContext(userContext);
+            if (token != null) {
+                // 單次驗證：簽章、過期、黑名單檢查與 Claims 解析一次完成；TenantFilter 已驗證時直接沿用
+                Optional<VerifiedToken> verified = sharedVerification(request)
+                        .or(() -> jwtTokenService.verifyToken(token));
+                if (verified.isPresent()) {
+                    UserContext userContext = verified.get().getUserContext();
+                    UserContextHolder.setContext(userContext);
 
-                log.debug("JWT token validated successfully for user: {}", userContext.getUsername());
-            } else if (token != null) {
-                log.debug("Invalid JWT token provided");
+                    log.debug("JWT token validated successfully for user: {}", userContext.getUsername());
+                } else {
+                    log.debug("Invalid JWT token provided");
+                }
             }
         } catch (Exception e) {
             log.warn("Error processing JWT token: {}", e.getMessage());
@@ -58,6 +75,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * 取得本次請求已由 TenantFilter 驗證的 Token
+     *
+     * @param request HTTP 請求
+     * @return 已驗證的 Token，未驗證時為空
+     */
+    private Optional<VerifiedToken> sharedVerification(HttpServletRequest request) {
+        Object attribute = request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE);
+        return attribute instanceof VerifiedToken verifiedToken ? Optional.of(verifiedToken) : Optional.empty();
+    }
+
     /**
      * 從請求中提取 JWT Token
      *
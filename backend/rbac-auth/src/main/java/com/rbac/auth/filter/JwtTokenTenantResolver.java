@@ -0,0 +1,52 @@
+package com.rbac.auth.filter;
+
+import com.rbac.auth.config.PublicPaths;
+import com.rbac.auth.model.VerifiedToken;
+import com.rbac.auth.service.JwtTokenService;
+import com.rbac.common.web.filter.TokenTenantResolver;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * JWT 租戶解析器
+ *
+ * <p>供 TenantFilter 決定已登入請求的租戶：以 {@link JwtTokenService#verifyToken(String)} 驗證 Token，
+ * 返回 UserContext 的 tenant_id，並將 {@link VerifiedToken} 存入請求屬性
+ * {@link VerifiedToken#REQUEST_ATTRIBUTE}，{@link JwtAuthenticationFilter} 直接沿用，不再重新驗證</p>
+ *
+ * <p>{@link PublicPaths} 的公開路徑不驗證 Token，與 JwtAuthenticationFilter 一致</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwtTokenTenantResolver implements TokenTenantResolver {
+
+    private final JwtTokenService jwtTokenService;
+    private final PublicPaths publicPaths;
+
+    @Override
+    public String resolveTenantId(HttpServletRequest request, String token) {
+        if (publicPaths.matches(request)) {
+            return null;
+        }
+        try {
+            Optional<VerifiedToken> verified = jwtTokenService.verifyToken(token);
+            if (verified.isEmpty()) {
+                return null;
+            }
+            request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verified.get());
+            Long tenantId = verified.get().getTenantId();
+            return tenantId != null ? String.valueOf(tenantId) : null;
+        } catch (Exception e) {
+            log.warn("Error resolving tenant from JWT token: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.rbac.auth.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rbac.auth.ratelimit.LoginRateLimiter;
+import com.rbac.common.core.result.Result;
+import com.rbac.common.database.context.TenantContextHolder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 登入頻率限制過濾器
+ *
+ * <p>只作用於 POST /api/v1/auth/login，在請求進入 Controller（與 BCrypt 驗證）之前
+ * 依來源 IP 與租戶檢查 {@link LoginRateLimiter}，超過限制直接返回 429 與 Retry-After</p>
+ *
+ * <p>租戶取自 TenantFilter 已驗證的租戶上下文；未解析租戶的請求只套用 IP 限制，
+ * 不歸入共用的租戶視窗</p>
+ *
+ * <p>來源 IP 取自 {@link HttpServletRequest#getRemoteAddr()}；部署於反向代理之後時
+ * 應設定 server.forward-headers-strategy，而非直接信任 X-Forwarded-For</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * 登入端點路徑
+     */
+    public static final String LOGIN_PATH = "/api/v1/auth/login";
+
+    private final LoginRateLimiter loginRateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!loginRateLimiter.isEnabled() || !HttpMethod.POST.matches(request.getMethod())) {
+            return true;
+        }
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (contextPath != null && !contextPath.isEmpty() && uri.startsWith(contextPath)) {
+            uri = uri.substring(contextPath.length());
+        }
+        return !LOGIN_PATH.equals(uri);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String ip = request.getRemoteAddr();
+        String tenantId = TenantContextHolder.getTenantId();
+        long retryAfterMillis = loginRateLimiter.tryAcquire(ip, tenantId);
+
+        if (retryAfterMillis > 0) {
+            log.warn("Login rate limit exceeded: ip={}, tenantId={}", ip, tenantId);
+            writeTooManyRequests(response, retryAfterMillis);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * 寫入 429 回應，格式與 GlobalExceptionHandler 一致
+     */
+    private void writeTooManyRequests(HttpServletResponse response, long retryAfterMillis) throws IOException {
+        long retryAfterSeconds = Math.max(1L, (retryAfterMillis + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(),
+                Result.error(HttpStatus.TOO_MANY_REQUESTS.value(), "429", "登入請求過於頻繁，請稍後再試"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.rbac.auth.filter;
+
+import com.rbac.auth.config.PublicPaths;
+import com.rbac.auth.context.UserContext;
+import com.rbac.auth.context.UserContextHolder;
+import com.rbac.auth.model.VerifiedToken;
+import com.rbac.auth.service.JwtTokenService;
+import com.rbac.common.core.exception.TenantException;
+import com.rbac.common.database.context.TenantContextHolder;
+import com.rbac.common.web.context.TraceContext;
+import com.rbac.common.web.filter.TenantResolver;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 請求前置過濾器（合併式）
+ *
+ * <p>rbac.web.preamble-filter 啟用時取代 TenantFilter、TraceIdFilter、RequestLogFilter 與 RequestLogAspect，
+ * 在單一過濾器內一次讀取 X-Trace-Id、租戶標頭與 Authorization，依序完成：</p>
+ *
+ * <ol>
+ *   <li>Trace ID：沿用格式有效的 X-Trace-Id，否則生成，寫入 MDC 與響應標頭</li>
+ *   <li>Token 驗證：非公開路徑的 Bearer Token 驗證一次，結果設定到 UserContextHolder，
+ *       後續的 {@link JwtAuthenticationFilter} 不再重複驗證</li>
+ *   <li>租戶解析：依 {@link TenantResolver} 的規則，已驗證 Token 的 tenant_id 優先，
+ *       與之不一致的租戶標頭返回 403；沒有 Token 租戶時才使用標頭與子網域</li>
+ *   <li>計時：請求結束時記錄一行方法、URI、狀態碼與耗時，不包裝請求與響應</li>
+ * </ol>
+ *
+ * <p>預設停用，可與既有過濾器鏈以 FilterChainBenchmark 比較</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "rbac.web", name = "preamble-filter", havingValue = "true")
+@RequiredArgsConstructor
+public class RequestPreambleFilter extends OncePerRequestFilter {
+
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TenantResolver tenantResolver;
+    private final JwtTokenService jwtTokenService;
+    private final PublicPaths publicPaths;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        long startNanos = System.nanoTime();
+
+        // 一次讀取所有需要的標頭
+        String traceHeader = request.getHeader(TraceContext.TRACE_ID_HEADER);
+        String tenantHeader = request.getHeader(tenantResolver.getHeaderName());
+        String authHeader = request.getHeader(AUTHORIZATION_HEADER);
+
+        String traceId = TraceContext.resolveTraceId(traceHeader);
+        TraceContext.setTraceId(traceId);
+        response.setHeader(TraceContext.TRACE_ID_HEADER, traceId);
+
+        try {
+            UserContext userContext = authenticate(request, authHeader);
+
+            String tenantId;
+            try {
+                String tokenTenantId = userContext != null && userContext.getTenantId() != null
+                        ? String.valueOf(userContext.getTenantId()) : null;
+                tenantId = tenantResolver.resolve(tenantHeader, tokenTenantId, request.getServerName());
+                tenantId = tenantResolver.validate(tenantId);
+            } catch (TenantException e) {
+                log.warn("Tenant validation failed: {}", e.getMessage());
+                tenantResolver.writeError(response, e);
+                return;
+            }
+
+            TenantContextHolder.setTenantId(tenantId);
+            if (userContext != null) {
+                UserContextHolder.setContext(userContext);
+            }
+
+            chain.doFilter(request, response);
+        } finally {
+            logCompletion(request, response, startNanos);
+            UserContextHolder.clear();
+            TenantContextHolder.clear();
+            TraceContext.clear();
+        }
+    }
+
+    /**
+     * 驗證 Bearer Token；公開路徑、沒有 Token 或驗證失敗時返回 null，請求繼續以匿名處理
+     */
+    private UserContext authenticate(HttpServletRequest request, String authHeader) {
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX) || publicPaths.matches(request)) {
+            return null;
+        }
+        try {
+            Optional<VerifiedToken> verified = jwtTokenService.verifyToken(authHeader.substring(BEARER_PREFIX.length()));
+            if (verified.isPresent()) {
+                return verified.get().getUserContext();
+            }
+            log.debug("Invalid JWT token provided");
+        } catch (Exception e) {
+            log.warn("Error processing JWT token: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private void logCompletion(HttpServletRequest request, HttpServletResponse response, long startNanos) {
+        int status = response.getStatus();
+        if (status >= 400) {
+            log.warn("REQUEST COMPLETE | {} {} | Status: {} | Duration: {}ms",
+                    request.getMethod(), request.getRequestURI(), status, elapsedMillis(startNanos));
+        } else if (log.isInfoEnabled()) {
+            log.info("REQUEST COMPLETE | {} {} | Status: {} | Duration: {}ms",
+                    request.getMethod(), request.getRequestURI(), status, elapsedMillis(startNanos));
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,343 @@
+package com.rbac.auth.key;
+
+import com.rbac.auth.config.JwtConfig;
+import com.rbac.common.core.util.JsonUtil;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JWT 金鑰環
+ *
+ * <p>管理 Token 簽章與驗證金鑰，支援三種演算法：</p>
+ * <ul>
+ *   <li>HS256：共用密鑰（預設，相容既有部署），不對外公開任何金鑰</li>
+ *   <li>ES256 / EdDSA：非對稱簽章，以 kid 標頭標示簽章金鑰，公鑰以 JWKS 對外公開，
+ *       下游服務可離線驗證 Token</li>
+ * </ul>
+ *
+ * <p>輪替流程（不停機）：</p>
+ * <ol>
+ *   <li>將新金鑰加入 rbac.auth.jwt.key-ring.keys，active-kid 維持舊金鑰，逐台部署；
+ *       此時所有節點皆可驗證新金鑰，JWKS 同時公開新舊公鑰</li>
+ *   <li>將 active-kid 切換為新金鑰並逐台部署，開始以新金鑰簽章</li>
+ *   <li>超過 Token 最長有效期後移除舊金鑰</li>
+ * </ol>
+ *
+ * <p>由 HS256 遷移：將 algorithm 改為 ES256 / EdDSA 並配置金鑰環，保留 secret 與
+ * key-ring.accept-legacy-hmac=true，遷移前簽發的舊 Token 仍可驗證；
+ * 超過 Token 最長有效期後設定 accept-legacy-hmac=false（或移除 secret），不帶 kid 的 Token 即一律拒絕</p>
+ *
+ * <p>金鑰狀態以不可變快照保存，{@link #reload(List, String)} 原子切換，驗證中的請求不受影響</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    /**
+     * HS256 演算法名稱
+     */
+    public static final String HS256 = "HS256";
+
+    private static final String EMPTY_JWKS = "{\"keys\":[]}";
+
+    private final JwtConfig jwtConfig;
+
+    /**
+     * 可重複使用的 JwtParser，依 kid 由目前快照取得驗證金鑰
+     */
+    private final JwtParser jwtParser;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public JwtKeyRing(JwtConfig jwtConfig) {
+        this.jwtConfig = jwtConfig;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new KeyRingLocator())
+                .build();
+    }
+
+    /**
+     * 依配置初始化金鑰環
+     */
+    @PostConstruct
+    public void init() {
+        JwtConfig.KeyRing keyRing = jwtConfig.getKeyRing();
+        reload(keyRing.getKeys(), keyRing.getActiveKid());
+    }
+
+    /**
+     * 重新載入金鑰並原子切換
+     *
+     * @param keys 金鑰清單
+     * @param activeKid 簽章使用的 kid，為空時使用第一把具私鑰的金鑰
+     */
+    public synchronized void reload(List<JwtConfig.KeyEntry> keys, String activeKid) {
+        String algorithm = jwtConfig.getAlgorithm();
+        SecretKey hmacKey = null;
+        if (jwtConfig.getSecret() != null && !jwtConfig.getSecret().isEmpty()) {
+            hmacKey = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+        }
+
+        if (HS256.equalsIgnoreCase(algorithm)) {
+            if (hmacKey == null) {
+                log.warn("JWT secret is not configured, token operations will fail until it is set");
+            }
+            this.snapshot = new Snapshot(hmacKey, null, null, null, Collections.emptyMap(), EMPTY_JWKS);
+            return;
+        }
+
+        List<ResolvedKey> resolved = new ArrayList<>();
+        if (keys != null) {
+            for (JwtConfig.KeyEntry entry : keys) {
+                resolved.add(resolve(entry, algorithm));
+            }
+        }
+        if (resolved.isEmpty() && jwtConfig.getKeyRing().isGenerateIfMissing()) {
+            resolved.add(generateEphemeral(algorithm));
+        }
+
+        Map<String, PublicKey> verificationKeys = new LinkedHashMap<>();
+        List<PublicJwk<?>> jwks = new ArrayList<>();
+        ResolvedKey signing = null;
+        for (ResolvedKey key : resolved) {
+            verificationKeys.put(key.kid, key.publicKey);
+            jwks.add(Jwks.builder()
+                    .key(key.publicKey)
+                    .id(key.kid)
+                    .algorithm(key.algorithm.getId())
+                    .publicKeyUse("sig")
+                    .build());
+
+            boolean isActive = activeKid != null ? activeKid.equals(key.kid) : signing == null;
+            if (key.privateKey != null && isActive) {
+                signing = key;
+            }
+        }
+
+        if (signing == null) {
+            throw new IllegalStateException("No signing key found in JWT key ring (active-kid: " + activeKid + ")");
+        }
+
+        if (!jwtConfig.getKeyRing().isAcceptLegacyHmac()) {
+            hmacKey = null;
+        }
+
+        String jwksJson = JsonUtil.toJson(Map.of("keys", jwks));
+        this.snapshot = new Snapshot(hmacKey, signing.kid, signing.privateKey, signing.algorithm,
+                Collections.unmodifiableMap(verificationKeys), jwksJson);
+        log.info("JWT key ring loaded: algorithm={}, activeKid={}, verificationKids={}",
+                algorithm, signing.kid, verificationKeys.keySet());
+    }
+
+    /**
+     * 以目前的簽章金鑰簽署 Token，非對稱模式會加上 kid 標頭
+     *
+     * @param builder JWT 建構器
+     * @return 已設定簽章的建構器
+     */
+    public JwtBuilder sign(JwtBuilder builder) {
+        Snapshot current = snapshot;
+        if (current.signingKey != null) {
+            return builder.header().keyId(current.signingKid).and()
+                    .signWith(current.signingKey, current.signingAlgorithm);
+        }
+        if (current.hmacKey == null) {
+            throw new IllegalStateException("JWT secret is not configured");
+        }
+        return builder.signWith(current.hmacKey, Jwts.SIG.HS256);
+    }
+
+    /**
+     * 取得 JwtParser（執行緒安全，可重複使用）
+     *
+     * @return JwtParser
+     */
+    public JwtParser parser() {
+        return jwtParser;
+    }
+
+    /**
+     * 取得 HMAC 密鑰（僅 HS256 或未設定 kid 的舊 Token 使用）
+     *
+     * @return HMAC 密鑰，未設定或非對稱模式停用 accept-legacy-hmac 時返回 null
+     */
+    public SecretKey getHmacKey() {
+        return snapshot.hmacKey;
+    }
+
+    /**
+     * 取得目前簽章金鑰的 kid
+     *
+     * @return kid，HS256 模式返回 null
+     */
+    public String getActiveKid() {
+        return snapshot.signingKid;
+    }
+
+    /**
+     * 取得預先序列化的 JWKS 文件，HS256 模式為空集合
+     *
+     * @return JWKS JSON
+     */
+    public String getJwksJson() {
+        return snapshot.jwksJson;
+    }
+
+    /**
+     * 解析配置中的金鑰，未提供私鑰的金鑰僅用於驗證
+     */
+    private static ResolvedKey resolve(JwtConfig.KeyEntry entry, String defaultAlgorithm) {
+        String algorithm = entry.getAlgorithm() != null ? entry.getAlgorithm() : defaultAlgorithm;
+        PrivateKey privateKey = entry.getPrivateKey() != null && !entry.getPrivateKey().isEmpty()
+                ? decodePrivateKey(algorithm, entry.getPrivateKey())
+                : null;
+        return new ResolvedKey(entry.getKid(), signatureAlgorithm(algorithm),
+                decodePublicKey(algorithm, entry.getPublicKey()), privateKey);
+    }
+
+    private static SignatureAlgorithm signatureAlgorithm(String algorithm) {
+        if ("ES256".equalsIgnoreCase(algorithm)) {
+            return Jwts.SIG.ES256;
+        }
+        if ("EdDSA".equalsIgnoreCase(algorithm)) {
+            return Jwts.SIG.EdDSA;
+        }
+        throw new IllegalArgumentException("Unsupported JWT key ring algorithm: " + algorithm);
+    }
+
+    private static String keyFactoryAlgorithm(String algorithm) {
+        return "ES256".equalsIgnoreCase(algorithm) ? "EC" : "EdDSA";
+    }
+
+    private static PublicKey decodePublicKey(String algorithm, String base64) {
+        try {
+            byte[] der = Base64.getMimeDecoder().decode(stripPem(base64));
+            return KeyFactory.getInstance(keyFactoryAlgorithm(algorithm)).generatePublic(new X509EncodedKeySpec(der));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid " + algorithm + " public key", e);
+        }
+    }
+
+    private static PrivateKey decodePrivateKey(String algorithm, String base64) {
+        try {
+            byte[] der = Base64.getMimeDecoder().decode(stripPem(base64));
+            return KeyFactory.getInstance(keyFactoryAlgorithm(algorithm)).generatePrivate(new PKCS8EncodedKeySpec(der));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid " + algorithm + " private key", e);
+        }
+    }
+
+    /**
+     * 允許直接貼上 PEM 內容
+     */
+    private static String stripPem(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("key is empty");
+        }
+        return value.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+    }
+
+    /**
+     * 產生僅存在於本節點記憶體的金鑰（開發用途，多節點部署必須配置固定金鑰）
+     */
+    private static ResolvedKey generateEphemeral(String algorithm) {
+        SignatureAlgorithm sig = signatureAlgorithm(algorithm);
+        KeyPair keyPair = sig.keyPair().build();
+        String kid = "ephemeral-" + UUID.randomUUID();
+        log.warn("No JWT signing keys configured, generated ephemeral {} key: {}", algorithm, kid);
+        return new ResolvedKey(kid, sig, keyPair.getPublic(), keyPair.getPrivate());
+    }
+
+    /**
+     * 依 JWS 標頭選擇驗證金鑰
+     *
+     * <p>帶 kid 的 Token 只接受金鑰環中的公鑰；不帶 kid 的 Token 使用 HMAC 密鑰
+     * （非對稱模式停用 accept-legacy-hmac 時為 null，Token 一律拒絕），
+     * jjwt 會再檢查金鑰型別與 alg 是否相符，避免演算法混淆</p>
+     */
+    private final class KeyRingLocator extends LocatorAdapter<Key> {
+        @Override
+        protected Key locate(JwsHeader header) {
+            Snapshot current = snapshot;
+            String kid = header.getKeyId();
+            if (kid != null) {
+                return current.verificationKeys.get(kid);
+            }
+            return current.hmacKey;
+        }
+    }
+
+    /**
+     * 已解析的金鑰
+     */
+    private static final class ResolvedKey {
+
+        final String kid;
+        final SignatureAlgorithm algorithm;
+        final PublicKey publicKey;
+        final PrivateKey privateKey;
+
+        ResolvedKey(String kid, SignatureAlgorithm algorithm, PublicKey publicKey, PrivateKey privateKey) {
+            this.kid = kid;
+            this.algorithm = algorithm;
+            this.publicKey = publicKey;
+            this.privateKey = privateKey;
+        }
+    }
+
+    /**
+     * 金鑰環不可變快照
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(null, null, null, null, Collections.emptyMap(), EMPTY_JWKS);
+
+        final SecretKey hmacKey;
+        final String signingKid;
+        final PrivateKey signingKey;
+        final SignatureAlgorithm signingAlgorithm;
+        final Map<String, PublicKey> verificationKeys;
+        final String jwksJson;
+
+        Snapshot(SecretKey hmacKey, String signingKid, PrivateKey signingKey, SignatureAlgorithm signingAlgorithm,
+                 Map<String, PublicKey> verificationKeys, String jwksJson) {
+            this.hmacKey = hmacKey;
+            this.signingKid = signingKid;
+            this.signingKey = signingKey;
+            this.signingAlgorithm = signingAlgorithm;
+            this.verificationKeys = verificationKeys;
+            this.jwksJson = jwksJson;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.rbac.auth.model;
+
+import com.rbac.auth.context.UserContext;
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 已驗證的 JWT Token
+ *
+ * <p>一次簽章驗證與解析後的不可變結果，包含 Claims、UserContext、jti 與到期時間，
+ * 供過濾器與服務層共用，避免對同一個 Token 重複驗證與解析</p>
+ *
+ * <p>本物件會被 VerifiedTokenCache 快取並由多個請求共用，因此建構時保存使用者上下文的快照
+ * （角色清單不可修改），{@link #getUserContext()} 每次回傳新的副本，
+ * 呼叫端修改副本或經 ContextSnapshot 交給其他執行緒都不會影響快取內容。
+ * 只需讀取使用者或租戶 ID 時請使用 {@link #getUserId()} 與 {@link #getTenantId()}，不建立副本</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Getter
+@ToString(exclude = "claims")
+public final class VerifiedToken {
+
+    /**
+     * 保存本次請求已驗證 Token 的請求屬性名稱，由 TenantFilter 設定、JwtAuthenticationFilter 沿用
+     */
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    /**
+     * 已驗證的 Claims（由快速解碼路徑產生時為 null，請改用 {@link #getUserContext()}）
+     */
+    private final Claims claims;
+
+    /**
+     * 由 Claims 建立的使用者上下文快照，不對外直接提供
+     */
+    @Getter(AccessLevel.NONE)
+    private final UserContext userContext;
+
+    /**
+     * Token ID (jti)
+     */
+    private final String jti;
+
+    /**
+     * 簽發時間
+     */
+    private final Instant issuedAt;
+
+    /**
+     * 到期時間
+     */
+    private final Instant expiresAt;
+
+    /**
+     * 簽發時的使用者世代
+     */
+    private final long userEpoch;
+
+    /**
+     * 簽發時的租戶世代
+     */
+    private final long tenantEpoch;
+
+    public VerifiedToken(Claims claims, UserContext userContext, String jti, Instant issuedAt, Instant expiresAt,
+                         long userEpoch, long tenantEpoch) {
+        this.claims = claims;
+        this.userContext = userContext != null ? snapshot(userContext) : null;
+        this.jti = jti;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.userEpoch = userEpoch;
+        this.tenantEpoch = tenantEpoch;
+    }
+
+    /**
+     * 取得使用者上下文副本
+     *
+     * <p>副本與快照共用不可修改的角色清單，修改其他欄位不影響本物件</p>
+     *
+     * @return 使用者上下文副本，未攜帶時返回 null
+     */
+    public UserContext getUserContext() {
+        if (userContext == null) {
+            return null;
+        }
+        return new UserContext(userContext.getUserId(), userContext.getUsername(), userContext.getTenantId(),
+                userContext.getRoles(), userContext.getJti());
+    }
+
+    /**
+     * 取得使用者 ID
+     *
+     * @return 使用者 ID，未攜帶時返回 null
+     */
+    public Long getUserId() {
+        return userContext != null ? userContext.getUserId() : null;
+    }
+
+    /**
+     * 取得租戶 ID
+     *
+     * @return 租戶 ID，未攜帶時返回 null
+     */
+    public Long getTenantId() {
+        return userContext != null ? userContext.getTenantId() : null;
+    }
+
+    /**
+     * 檢查 Token 在指定時間點是否已過期
+     *
+     * @param now 目前時間
+     * @return 如果已過期返回 true
+     */
+    public boolean isExpiredAt(Instant now) {
+        return expiresAt == null || !expiresAt.isAfter(now);
+    }
+
+    /**
+     * 計算 Token 剩餘有效期
+     *
+     * @return 剩餘有效期（秒），已過期返回 0
+     */
+    public long getRemainingValiditySeconds() {
+        if (expiresAt == null) {
+            return 0;
+        }
+        return Math.max(0, expiresAt.getEpochSecond() - Instant.now().getEpochSecond());
+    }
+
+    /**
+     * 建立不與呼叫端共用任何可變狀態的快照
+     */
+    private static UserContext snapshot(UserContext source) {
+        List<String> roles = source.getRoles() != null
+                ? Collections.unmodifiableList(new ArrayList<>(source.getRoles()))
+                : null;
+        return new UserContext(source.getUserId(), source.getUsername(), source.getTenantId(), roles,
+                source.getJti());
+    }
+}
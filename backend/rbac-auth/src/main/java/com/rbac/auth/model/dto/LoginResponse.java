@@ -19,6 +19,16 @@ public class LoginResponse {
      */
     private String token;
 
+    /**
+     * Refresh Token，Access Token 到期後以此換發（未啟用時為 null）
+     */
+    private String refreshToken;
+
+    /**
+     * Refresh Token 有效期（秒）
+     */
+    private Long refreshExpiresIn;
+
     /**
      * Token 類型
      */
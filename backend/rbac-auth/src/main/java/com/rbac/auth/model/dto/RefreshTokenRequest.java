@@ -0,0 +1,21 @@
+package com.rbac.auth.model.dto;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Refresh Token 請求 DTO
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Data
+public class RefreshTokenRequest {
+
+    /**
+     * Refresh Token
+     */
+    @NotBlank(message = "Refresh Token 不能為空")
+    private String refreshToken;
+}
@@ -0,0 +1,169 @@
+package com.rbac.auth.password;
+
+import com.rbac.auth.config.PasswordConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt 成本校準器
+ *
+ * <p>以低成本（{@value #PROBE_STRENGTH}）實測目前硬體的雜湊時間，依成本每加一、時間加倍推算，
+ * 選擇估計驗證時間不超過 rbac.auth.password.calibration.target-ms 的最高成本，
+ * 並限制於 min-strength 與 max-strength 之間。停用校準時使用 bcrypt-strength</p>
+ *
+ * <p>成本由整個叢集共用：第一個啟動的節點校準後以 SETNX 寫入 {@value #STRENGTH_KEY}，
+ * 其他節點直接讀取該值，不依各自的啟動時間重新校準。要重新校準時刪除該鍵後重啟；
+ * 啟動時 Redis 無法使用則改用 bcrypt-strength</p>
+ *
+ * <p>成本低於目前成本的既有雜湊由 {@link PasswordRehashService} 於登入成功後重新雜湊；
+ * 成本較高的雜湊保持不變，不會降級，也不會在成本不同的節點之間反覆重新雜湊</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Component
+public class BCryptCostCalibrator {
+
+    /**
+     * 實測使用的成本，約為正式成本的 1/4 至 1/64 時間
+     */
+    static final int PROBE_STRENGTH = 8;
+
+    /**
+     * 叢集共用成本的 Redis 鍵
+     */
+    public static final String STRENGTH_KEY = "auth:password:bcrypt-strength";
+
+    private static final int PROBE_ROUNDS = 3;
+
+    private final int strength;
+
+    public BCryptCostCalibrator(PasswordConfig passwordConfig, StringRedisTemplate stringRedisTemplate) {
+        PasswordConfig.Calibration calibration = passwordConfig.getCalibration();
+        if (calibration.isEnabled()) {
+            this.strength = sharedStrength(stringRedisTemplate, calibration, passwordConfig.getBcryptStrength());
+        } else {
+            this.strength = passwordConfig.getBcryptStrength();
+            log.info("BCrypt cost calibration disabled, using strength={}", strength);
+        }
+    }
+
+    /**
+     * 目前使用的 BCrypt 成本
+     *
+     * @return 成本（log2 rounds）
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * 判斷雜湊的成本是否低於目前成本
+     *
+     * @param passwordHash 密碼雜湊
+     * @return 成本較低返回 true；成本相同或較高、非 BCrypt 雜湊返回 false
+     */
+    public boolean needsRehash(String passwordHash) {
+        int cost = costOf(passwordHash);
+        return cost > 0 && cost < strength;
+    }
+
+    /**
+     * 於本機校準成本，不讀寫叢集共用值
+     *
+     * @param calibration 校準配置
+     * @return 選擇的成本
+     */
+    public static int calibrateLocally(PasswordConfig.Calibration calibration) {
+        return calibrate(calibration, measureProbeNanos());
+    }
+
+    /**
+     * 解析 BCrypt 雜湊的成本，格式：$2a$NN$...
+     *
+     * @param passwordHash 密碼雜湊
+     * @return 成本，非 BCrypt 雜湊返回 -1
+     */
+    static int costOf(String passwordHash) {
+        if (passwordHash == null || passwordHash.length() < 7 || passwordHash.charAt(0) != '$'
+                || passwordHash.charAt(3) != '$' || passwordHash.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = passwordHash.charAt(4);
+        char ones = passwordHash.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(ones)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+
+    /**
+     * 依實測時間選擇成本
+     *
+     * @param calibration 校準配置
+     * @param probeNanos 成本 {@value #PROBE_STRENGTH} 的單次雜湊時間（奈秒）
+     * @return 選擇的成本
+     */
+    static int calibrate(PasswordConfig.Calibration calibration, long probeNanos) {
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(calibration.getTargetMs());
+        int selected = calibration.getMinStrength();
+        for (int cost = calibration.getMaxStrength(); cost > calibration.getMinStrength(); cost--) {
+            if (estimateNanos(probeNanos, cost) <= targetNanos) {
+                selected = cost;
+                break;
+            }
+        }
+        log.info("BCrypt cost calibrated: strength={}, estimated={}ms, target={}ms, probe={}ms at strength {}",
+                selected, TimeUnit.NANOSECONDS.toMillis(estimateNanos(probeNanos, selected)),
+                calibration.getTargetMs(), TimeUnit.NANOSECONDS.toMillis(probeNanos), PROBE_STRENGTH);
+        return selected;
+    }
+
+    /**
+     * 讀取叢集共用成本；尚未設定時由本節點校準並寫入，與其他節點同時寫入時採用先寫入者
+     */
+    private static int sharedStrength(StringRedisTemplate stringRedisTemplate, PasswordConfig.Calibration calibration,
+                                      int fallback) {
+        try {
+            String stored = stringRedisTemplate.opsForValue().get(STRENGTH_KEY);
+            if (stored == null) {
+                String calibrated = String.valueOf(calibrateLocally(calibration));
+                Boolean written = stringRedisTemplate.opsForValue().setIfAbsent(STRENGTH_KEY, calibrated);
+                stored = Boolean.TRUE.equals(written) ? calibrated : stringRedisTemplate.opsForValue().get(STRENGTH_KEY);
+            }
+            int shared = Math.max(calibration.getMinStrength(),
+                    Math.min(calibration.getMaxStrength(), Integer.parseInt(stored)));
+            log.info("Using cluster-wide BCrypt strength={} from {}", shared, STRENGTH_KEY);
+            return shared;
+        } catch (Exception e) {
+            log.warn("Failed to read cluster-wide BCrypt strength, using bcrypt-strength={}: {}",
+                    fallback, e.getMessage());
+            return fallback;
+        }
+    }
+
+    private static long estimateNanos(long probeNanos, int cost) {
+        int shift = cost - PROBE_STRENGTH;
+        return shift >= 0 ? probeNanos << shift : probeNanos >> -shift;
+    }
+
+    /**
+     * 實測成本 {@value #PROBE_STRENGTH} 的雜湊時間，先暖機一次，取多次中最短者以排除雜訊
+     */
+    private static long measureProbeNanos() {
+        String salt = BCrypt.gensalt(PROBE_STRENGTH);
+        BCrypt.hashpw("calibration", salt);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,66 @@
+package com.rbac.auth.password;
+
+import com.rbac.auth.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 密碼重新雜湊服務
+ *
+ * <p>登入驗證成功後，若密碼雜湊的成本低於 {@link BCryptCostCalibrator} 目前成本，
+ * 於驗證執行緒池以目前成本重新雜湊並寫回，讓所有雜湊逐步提升到叢集共用成本；成本較高的雜湊不降級：</p>
+ *
+ * <ul>
+ *   <li>非同步：不延長本次登入，驗證執行緒池忙碌時略過，下次登入再試</li>
+ *   <li>去重：同一帳號同時只排入一次</li>
+ *   <li>寫回以原雜湊為條件，期間密碼已被修改時不覆寫</li>
+ * </ul>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordRehashService {
+
+    private final BCryptCostCalibrator bCryptCostCalibrator;
+    private final PasswordVerifier passwordVerifier;
+    private final UserRepository userRepository;
+
+    /**
+     * 重新雜湊中的帳號
+     */
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 密碼驗證成功後視需要重新雜湊
+     *
+     * @param username 使用者名稱
+     * @param rawPassword 已驗證的原始密碼
+     * @param passwordHash 目前的密碼雜湊
+     */
+    public void rehashIfNeeded(String username, String rawPassword, String passwordHash) {
+        if (!bCryptCostCalibrator.needsRehash(passwordHash) || !inFlight.add(username)) {
+            return;
+        }
+
+        // 租戶上下文由 PasswordVerifier 傳遞到驗證執行緒
+        boolean submitted = passwordVerifier.encodeAsync(rawPassword, newHash -> {
+            try {
+                if (newHash != null && userRepository.replacePasswordHash(username, passwordHash, newHash)) {
+                    log.info("Password rehashed to strength {} for user: {}", bCryptCostCalibrator.getStrength(), username);
+                }
+            } finally {
+                inFlight.remove(username);
+            }
+        });
+        if (!submitted) {
+            inFlight.remove(username);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.rbac.auth.password;
+
+import com.rbac.auth.config.PasswordConfig;
+import com.rbac.auth.exception.ServiceUnavailableException;
+import com.rbac.auth.exception.TooManyRequestsException;
+import com.rbac.common.core.context.ContextSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 有界密碼驗證器
+ *
+ * <p>BCrypt 驗證刻意消耗 CPU，在請求執行緒上執行時，大量登入嘗試會佔滿所有 Tomcat 工作執行緒，
+ * 連帶拖慢已認證的一般請求。此元件將驗證移到專用的固定大小執行緒池：</p>
+ *
+ * <ul>
+ *   <li>執行緒數：rbac.auth.password.verifier.threads（預設 CPU 核心數），限制登入可用的 CPU</li>
+ *   <li>佇列上限：rbac.auth.password.verifier.queue-capacity，已滿時立即拋出 {@link TooManyRequestsException}（429）</li>
+ *   <li>逾時：rbac.auth.password.verifier.timeout-ms，含排隊時間，逾時拋出 {@link ServiceUnavailableException}（503）</li>
+ * </ul>
+ *
+ * <p>指標：auth.password.verify（驗證耗時，不含排隊）、auth.password.verify.queue（佇列深度）、
+ * auth.password.verify.active（執行中數量）、auth.password.verify.rejected（拒絕次數，依 reason 區分）</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Component
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final Timer verifyTimer;
+    private final Counter queueFullCounter;
+    private final Counter timeoutCounter;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder, PasswordConfig passwordConfig, MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        PasswordConfig.Verifier config = passwordConfig.getVerifier();
+        int threads = config.getThreads() > 0 ? config.getThreads() : Runtime.getRuntime().availableProcessors();
+        this.timeoutMs = config.getTimeoutMs();
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verify-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.verifyTimer = Timer.builder("auth.password.verify")
+                .description("Password hash verification time, excluding queueing")
+                .register(meterRegistry);
+        this.queueFullCounter = Counter.builder("auth.password.verify.rejected")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("auth.password.verify.rejected")
+                .tag("reason", "timeout")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.verify.queue", executor, e -> e.getQueue().size())
+                .description("Password verifications waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.verify.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password verifications in progress")
+                .register(meterRegistry);
+
+        log.info("PasswordVerifier initialized: threads={}, queueCapacity={}, timeout={}ms",
+                threads, config.getQueueCapacity(), timeoutMs);
+    }
+
+    /**
+     * 在驗證執行緒池上比對密碼
+     *
+     * @param rawPassword 原始密碼
+     * @param passwordHash 密碼雜湊
+     * @return 如果密碼正確返回 true
+     * @throws TooManyRequestsException 等待佇列已滿
+     * @throws ServiceUnavailableException 等待或驗證逾時
+     */
+    public boolean matches(String rawPassword, String passwordHash) {
+        if (rawPassword == null || passwordHash == null) {
+            return false;
+        }
+
+        Future<Boolean> future;
+        try {
+            future = executor.submit(() -> verifyTimer.recordCallable(() -> passwordEncoder.matches(rawPassword, passwordHash)));
+        } catch (RejectedExecutionException e) {
+            queueFullCounter.increment();
+            log.warn("Password verification rejected, queue full: queued={}", executor.getQueue().size());
+            throw new TooManyRequestsException("登入請求過多，請稍後再試");
+        }
+
+        try {
+            return Boolean.TRUE.equals(future.get(timeoutMs, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutCounter.increment();
+            log.warn("Password verification timed out after {}ms", timeoutMs);
+            throw new ServiceUnavailableException("登入服務忙碌中，請稍後再試");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("登入服務忙碌中，請稍後再試", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        }
+    }
+
+    /**
+     * 在驗證執行緒池上產生新的密碼雜湊，不等待結果
+     *
+     * <p>重新雜湊可延後，只在佇列沒有等待中的驗證時排入，不佔用登入請求的處理能力</p>
+     *
+     * @param rawPassword 原始密碼
+     * @param onEncoded 雜湊完成後於驗證執行緒上以呼叫端的請求上下文呼叫，雜湊失敗時收到 null
+     * @return 已排入返回 true；驗證執行緒池忙碌時返回 false
+     */
+    public boolean encodeAsync(String rawPassword, Consumer<String> onEncoded) {
+        if (!executor.getQueue().isEmpty()) {
+            return false;
+        }
+        try {
+            executor.execute(ContextSnapshot.capture().wrap(() -> {
+                String encoded = null;
+                try {
+                    encoded = passwordEncoder.encode(rawPassword);
+                } catch (Exception e) {
+                    log.warn("Password encoding failed: {}", e.getMessage());
+                }
+                onEncoded.accept(encoded);
+            }));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 關閉驗證執行緒池
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,60 @@
+package com.rbac.auth.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 無鎖 Token Bucket
+ *
+ * <p>以 GCRA（Generic Cell Rate Algorithm）實作：狀態只有一個「理論到達時間」（TAT），
+ * 以 CAS 更新，不需要鎖，也不需要背景補充執行緒。行為等同容量 burst、
+ * 每秒補充 refillPerSecond 的 Token Bucket</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public final class LocalTokenBucket {
+
+    /**
+     * 兩次請求的理想間隔（奈秒）
+     */
+    private final long emissionIntervalNanos;
+
+    /**
+     * 允許的突發容忍量（奈秒）
+     */
+    private final long toleranceNanos;
+
+    /**
+     * 理論到達時間（System.nanoTime 基準）
+     */
+    private final AtomicLong tat;
+
+    public LocalTokenBucket(int burst, double refillPerSecond, long nowNanos) {
+        if (burst < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("burst must be >= 1 and refillPerSecond > 0");
+        }
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.toleranceNanos = emissionIntervalNanos * burst;
+        this.tat = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * 嘗試取得一個 Token
+     *
+     * @param nowNanos 目前時間（System.nanoTime）
+     * @return 0 表示允許；否則為需等待的奈秒數
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = tat.get();
+            long newTat = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long excess = newTat - nowNanos - toleranceNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (tat.compareAndSet(current, newTat)) {
+                return 0L;
+            }
+        }
+    }
+}
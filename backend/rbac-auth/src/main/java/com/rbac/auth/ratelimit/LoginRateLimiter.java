@@ -0,0 +1,201 @@
+package com.rbac.auth.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rbac.auth.config.RateLimitConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登入頻率限制器
+ *
+ * <p>依來源 IP 與租戶兩個維度限制登入請求，在任何密碼雜湊運算之前拒絕：</p>
+ *
+ * <ol>
+ *   <li>本地 {@link LocalTokenBucket}：無鎖、不存取網路，擋下單節點上的突發請求</li>
+ *   <li>Redis 滑動視窗：auth:ratelimit:ip:{ip}、auth:ratelimit:tenant:{tenantId} 兩個 Sorted Set
+ *       以單一 Lua 腳本原子檢查並記錄，限制整個叢集的請求數</li>
+ * </ol>
+ *
+ * <p>Redis 無法使用時只套用本地限制（fail-open），避免 Redis 故障導致無法登入</p>
+ *
+ * <p>租戶維度只套用於已解析的租戶；未帶租戶的登入只受 IP 限制，不共用單一視窗，
+ * 避免少數來源耗盡後所有未帶租戶的登入一併被拒絕。租戶鍵由請求決定，
+ * 以下規則限制攻擊者可消耗的租戶配額：</p>
+ *
+ * <ul>
+ *   <li>兩層皆先檢查 IP：本地 IP 限制未通過時不消耗租戶 Token，
+ *       Redis 腳本在 IP 視窗已滿時拒絕且不記錄任何視窗，單一來源消耗租戶配額的速度不超過其 IP 上限</li>
+ *   <li>租戶於本過濾器之前由 TenantFilter 驗證格式，並由租戶登錄表拒絕不存在或停用的租戶，
+ *       任意租戶值無法產生新的視窗；本地 Token Bucket 數量另以 local-max-keys 為上限，
+ *       Redis 視窗於 window-seconds 後過期</li>
+ * </ul>
+ *
+ * <p>指標：auth.login.rate_limited（依 scope=ip|tenant、layer=local|redis 區分）</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Component
+public class LoginRateLimiter {
+
+    /**
+     * IP 滑動視窗鍵前綴
+     */
+    public static final String IP_PREFIX = "auth:ratelimit:ip:";
+
+    /**
+     * 租戶滑動視窗鍵前綴
+     */
+    public static final String TENANT_PREFIX = "auth:ratelimit:tenant:";
+
+    private static final String METRIC_NAME = "auth.login.rate_limited";
+
+    /**
+     * 本地 Token Bucket 閒置後移除的時間
+     */
+    private static final Duration BUCKET_IDLE_EXPIRY = Duration.ofMinutes(10);
+
+    /**
+     * 滑動視窗檢查與記錄
+     *
+     * <p>KEYS[1] IP 鍵、KEYS[2] 租戶鍵；ARGV[1] 目前時間（毫秒）、ARGV[2] 本次請求成員、
+     * ARGV[3]/ARGV[4] IP 視窗長度（毫秒）與上限、ARGV[5]/ARGV[6] 租戶視窗長度與上限（上限 0 表示不檢查）</p>
+     * <p>返回 {被拒絕的鍵序號（0 表示允許）, 需等待毫秒數}；被拒絕時不記錄本次請求</p>
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> WINDOW_SCRIPT = new DefaultRedisScript<>(
+            "local now = tonumber(ARGV[1])\n"
+            + "for i = 1, 2 do\n"
+            + "  local window = tonumber(ARGV[1 + i * 2])\n"
+            + "  local limit = tonumber(ARGV[2 + i * 2])\n"
+            + "  if limit > 0 then\n"
+            + "    redis.call('ZREMRANGEBYSCORE', KEYS[i], 0, now - window)\n"
+            + "    if redis.call('ZCARD', KEYS[i]) >= limit then\n"
+            + "      local oldest = redis.call('ZRANGE', KEYS[i], 0, 0, 'WITHSCORES')\n"
+            + "      return {i, tonumber(oldest[2]) + window - now}\n"
+            + "    end\n"
+            + "  end\n"
+            + "end\n"
+            + "for i = 1, 2 do\n"
+            + "  if tonumber(ARGV[2 + i * 2]) > 0 then\n"
+            + "    redis.call('ZADD', KEYS[i], now, ARGV[2])\n"
+            + "    redis.call('PEXPIRE', KEYS[i], ARGV[1 + i * 2])\n"
+            + "  end\n"
+            + "end\n"
+            + "return {0, 0}",
+            List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RateLimitConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, LocalTokenBucket> ipBuckets;
+    private final Cache<String, LocalTokenBucket> tenantBuckets;
+
+    public LoginRateLimiter(StringRedisTemplate stringRedisTemplate, RateLimitConfig config, MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.ipBuckets = Caffeine.newBuilder()
+                .maximumSize(config.getLocalMaxKeys())
+                .expireAfterAccess(BUCKET_IDLE_EXPIRY)
+                .build();
+        this.tenantBuckets = Caffeine.newBuilder()
+                .maximumSize(config.getLocalMaxKeys())
+                .expireAfterAccess(BUCKET_IDLE_EXPIRY)
+                .build();
+    }
+
+    /**
+     * 是否啟用登入頻率限制
+     *
+     * @return 啟用返回 true
+     */
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * 嘗試取得一次登入配額
+     *
+     * @param ip 來源 IP
+     * @param tenantId 租戶 ID，null 表示未解析租戶，只套用 IP 限制
+     * @return 0 表示允許；否則為建議的重試等待毫秒數
+     */
+    public long tryAcquire(String ip, String tenantId) {
+        long now = System.nanoTime();
+
+        // 1. 本地 Token Bucket，先檢查較嚴格的 IP 維度
+        long waitNanos = acquireLocal(ipBuckets, ip, config.getIp(), now);
+        if (waitNanos > 0) {
+            return rejected("ip", "local", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        }
+        if (tenantId != null) {
+            waitNanos = acquireLocal(tenantBuckets, tenantId, config.getTenant(), now);
+            if (waitNanos > 0) {
+                return rejected("tenant", "local", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            }
+        }
+
+        // 2. Redis 滑動視窗（叢集層級）
+        return acquireRemote(ip, tenantId);
+    }
+
+    private long acquireLocal(Cache<String, LocalTokenBucket> buckets, String key, RateLimitConfig.Limit limit, long now) {
+        if (limit.getBurst() <= 0 || limit.getRefillPerSecond() <= 0) {
+            return 0L;
+        }
+        LocalTokenBucket bucket = buckets.get(key,
+                k -> new LocalTokenBucket(limit.getBurst(), limit.getRefillPerSecond(), now));
+        return bucket.tryAcquire(now);
+    }
+
+    private long acquireRemote(String ip, String tenantId) {
+        RateLimitConfig.Limit ipLimit = config.getIp();
+        RateLimitConfig.Limit tenantLimit = config.getTenant();
+        // 未解析租戶時租戶上限為 0（腳本不檢查也不記錄），租戶鍵以 IP 鍵代替
+        long tenantWindowLimit = tenantId != null ? tenantLimit.getWindowLimit() : 0L;
+        String tenantKey = tenantId != null ? TENANT_PREFIX + tenantId : IP_PREFIX + ip;
+        if (ipLimit.getWindowLimit() <= 0 && tenantWindowLimit <= 0) {
+            return 0L;
+        }
+        try {
+            List<?> result = stringRedisTemplate.execute(
+                    WINDOW_SCRIPT,
+                    List.of(IP_PREFIX + ip, tenantKey),
+                    String.valueOf(System.currentTimeMillis()),
+                    UUID.randomUUID().toString(),
+                    String.valueOf(TimeUnit.SECONDS.toMillis(ipLimit.getWindowSeconds())),
+                    String.valueOf(ipLimit.getWindowLimit()),
+                    String.valueOf(TimeUnit.SECONDS.toMillis(tenantLimit.getWindowSeconds())),
+                    String.valueOf(tenantWindowLimit));
+            if (result == null) {
+                return 0L;
+            }
+            int rejectedKey = ((Number) result.get(0)).intValue();
+            if (rejectedKey == 0) {
+                return 0L;
+            }
+            long waitMillis = Math.max(1L, ((Number) result.get(1)).longValue());
+            return rejected(rejectedKey == 1 ? "ip" : "tenant", "redis", waitMillis);
+        } catch (Exception e) {
+            log.warn("Login rate limit check failed, applying local limits only: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    private long rejected(String scope, String layer, long waitMillis) {
+        meterRegistry.counter(METRIC_NAME, "scope", scope, "layer", layer).increment();
+        return Math.max(1L, waitMillis);
+    }
+}
@@ -0,0 +1,435 @@
+package com.rbac.auth.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.rbac.auth.config.UserCacheConfig;
+import com.rbac.auth.model.entity.User;
+import com.rbac.auth.model.entity.UserStatus;
+import com.rbac.common.database.context.TenantContextHolder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 快取使用者倉儲
+ *
+ * <p>包裝實際的使用者儲存（標記 {@code @Qualifier(CachingUserRepository.STORE)} 的倉儲），
+ * 以 {@code @Primary} 提供給所有注入 {@link UserRepository} 的元件：</p>
+ *
+ * <ul>
+ *   <li>L1：本地 Caffeine 快取，存活時間 rbac.auth.user-cache.local-ttl</li>
+ *   <li>L2：Redis Hash auth:user:{tenantId|global}:{username}，存活時間 rbac.auth.user-cache.remote-ttl；
+ *       只存放基本資料、狀態與角色，不含密碼雜湊</li>
+ *   <li>負向快取：不存在的帳號也會快取（negative-ttl），對不存在帳號的暴力嘗試不再存取底層儲存</li>
+ *   <li>失效：{@link #evict(Long, String)} 刪除 L1 與 L2，並透過 pub/sub 通知其他節點移除 L1</li>
+ * </ul>
+ *
+ * <p>密碼雜湊只保留於本節點的 L1：由底層儲存載入的條目含雜湊，由 L2 載入的條目不含。
+ * {@link #findForAuthentication} 遇到不含雜湊的條目時重新讀取底層儲存並取代 L1 條目，
+ * 因此每個節點每個帳號於 local-ttl 內最多讀取底層儲存一次。
+ * {@link #findByUsername} 返回的使用者可能不含雜湊。Redis 無法使用時略過 L2，直接查詢底層儲存</p>
+ *
+ * <p>L1 未命中時不在 Caffeine 的 compute 內載入：compute 持有 ConcurrentHashMap 節點的監視器，
+ * 在其中進行 Redis / JDBC I/O 會使虛擬執行緒佔住載體執行緒（JDK 21-23）。
+ * 改為同一鍵同時只有一個請求在鎖外載入，其餘請求等待其結果</p>
+ *
+ * <p>快取鍵包含目前請求的租戶（{@link TenantContextHolder}），同名帳號在不同租戶間不會互相命中；
+ * 無租戶上下文時使用 global。最後登入時間只寫入底層儲存、不使快取失效，
+ * 快取中的 lastLoginAt 最多落後 remote-ttl</p>
+ *
+ * <p>本模組沒有修改使用者的程式碼，新增使用者、停用或鎖定帳號、修改密碼或角色的管理流程
+ * 必須於交易提交後呼叫 {@link #evict(Long, String)}；在其他服務中修改時，刪除 L2 鍵並將
+ * {tenantId|global}:{username} 發布到失效頻道，效果相同。未失效時，登入仍會讀到舊的狀態與角色，
+ * 最長 remote-ttl + local-ttl</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Primary
+@Repository
+public class CachingUserRepository implements UserRepository, MessageListener {
+
+    /**
+     * 實際使用者儲存的 Qualifier
+     */
+    public static final String STORE = "userStore";
+
+    /**
+     * Redis 快取鍵前綴
+     */
+    public static final String KEY_PREFIX = "auth:user:";
+
+    /**
+     * Micrometer 快取名稱
+     */
+    public static final String CACHE_NAME = "user";
+
+    private static final String FIELD_USER_ID = "id";
+    private static final String FIELD_TENANT_ID = "tid";
+    private static final String FIELD_ROLES = "roles";
+    private static final String FIELD_STATUS = "st";
+    private static final String FIELD_EMAIL = "email";
+    private static final String FIELD_CREATED_AT = "ca";
+    private static final String FIELD_LAST_LOGIN_AT = "la";
+    private static final String FIELD_NOT_FOUND = "nx";
+
+    private static final String ROLE_SEPARATOR = ",";
+    private static final String GLOBAL_TENANT = "global";
+
+    /**
+     * 覆寫快取條目並設定存活時間
+     *
+     * <p>KEYS[1] 快取鍵；ARGV[1] 存活時間（秒），其餘為欄位與值交錯排列</p>
+     */
+    private static final RedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1])\n"
+            + "redis.call('HSET', KEYS[1], unpack(ARGV, 2))\n"
+            + "redis.call('EXPIRE', KEYS[1], ARGV[1])\n"
+            + "return 1",
+            Long.class);
+
+    private final UserRepository delegate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final PasswordEncoder passwordEncoder;
+    private final UserCacheConfig config;
+
+    /**
+     * 本地快取，鍵為 {tenantId|global}:{username}，Optional.empty() 表示帳號不存在
+     */
+    private final Cache<String, Optional<User>> localCache;
+
+    /**
+     * 載入中的 L1 鍵；失效時一併移除，使載入完成的結果不再寫入 L1
+     */
+    private final ConcurrentMap<String, CompletableFuture<Optional<User>>> loading = new ConcurrentHashMap<>();
+
+    public CachingUserRepository(@Qualifier(STORE) UserRepository delegate,
+                                 StringRedisTemplate stringRedisTemplate,
+                                 RedisMessageListenerContainer listenerContainer,
+                                 PasswordEncoder passwordEncoder,
+                                 UserCacheConfig config,
+                                 MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.passwordEncoder = passwordEncoder;
+        this.config = config;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(config.getLocalMaxSize())
+                .expireAfter(new LocalExpiry(config.getLocalTtl(), config.getNegativeTtl()))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, CACHE_NAME);
+        log.info("CachingUserRepository initialized: enabled={}, localTtl={}s, remoteTtl={}s, negativeTtl={}s",
+                config.isEnabled(), config.getLocalTtl(), config.getRemoteTtl(), config.getNegativeTtl());
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        if (!config.isEnabled() || username == null) {
+            return delegate.findByUsername(username);
+        }
+        return getOrLoad(cacheKey(username), username);
+    }
+
+    @Override
+    public Optional<User> findForAuthentication(String username) {
+        if (!config.isEnabled() || username == null) {
+            return delegate.findForAuthentication(username);
+        }
+        String key = cacheKey(username);
+        Optional<User> cached = getOrLoad(key, username);
+        if (cached.isEmpty() || cached.get().getPasswordHash() != null) {
+            return cached;
+        }
+        // 由 L2 載入的條目不含雜湊，讀取底層儲存後以完整資料取代 L1 條目
+        Optional<User> user = delegate.findForAuthentication(username);
+        localCache.put(key, user);
+        return user;
+    }
+
+    @Override
+    public boolean validatePassword(String username, String rawPassword) {
+        return findForAuthentication(username)
+                .map(user -> rawPassword != null && user.getPasswordHash() != null
+                        && passwordEncoder.matches(rawPassword, user.getPasswordHash()))
+                .orElse(false);
+    }
+
+    @Override
+    public void updateLastLoginTime(Long userId) {
+        delegate.updateLastLoginTime(userId);
+    }
+
+    @Override
+    public void updateLastLoginTimes(Map<Long, LocalDateTime> lastLoginTimes) {
+        delegate.updateLastLoginTimes(lastLoginTimes);
+    }
+
+    @Override
+    public boolean replacePasswordHash(String username, String expectedHash, String newHash) {
+        boolean replaced = delegate.replacePasswordHash(username, expectedHash, newHash);
+        if (replaced) {
+            evict(null, username);
+        }
+        return replaced;
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return findByUsername(username).isPresent();
+    }
+
+    @Override
+    public UserStatus getUserStatus(String username) {
+        return findByUsername(username).map(User::getStatus).orElse(null);
+    }
+
+    /**
+     * 使用者資料變更後移除快取（含負向快取），並通知其他節點
+     *
+     * <p>新增使用者、修改密碼、狀態或角色後必須呼叫，否則最遲於快取存活時間後生效。
+     * 一律移除 {tenantId}、global 與目前租戶上下文三種鍵，不論條目由哪一種租戶上下文載入</p>
+     *
+     * @param tenantId 使用者所屬租戶 ID，null 表示只移除 global 與目前租戶上下文的條目
+     * @param username 使用者名稱
+     */
+    public void evict(Long tenantId, String username) {
+        Set<String> keys = new LinkedHashSet<>(4);
+        if (tenantId != null) {
+            keys.add(tenantId + ":" + username);
+        }
+        keys.add(GLOBAL_TENANT + ":" + username);
+        keys.add(cacheKey(username));
+
+        keys.forEach(loading::remove);
+        localCache.invalidateAll(keys);
+        try {
+            stringRedisTemplate.delete(keys.stream().map(key -> KEY_PREFIX + key).toList());
+            for (String key : keys) {
+                stringRedisTemplate.convertAndSend(config.getChannel(), key);
+            }
+        } catch (Exception e) {
+            // L2 條目最遲於 remote-ttl 後過期
+            log.warn("Failed to invalidate cached user {}: {}", username, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String key = new String(message.getBody(), StandardCharsets.UTF_8);
+        loading.remove(key);
+        localCache.invalidate(key);
+        log.debug("Received user cache invalidation: {}", key);
+    }
+
+    /**
+     * 啟動完成後訂閱失效頻道
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            listenerContainer.addMessageListener(this, new ChannelTopic(config.getChannel()));
+        } catch (Exception e) {
+            // 其他節點的變更於 local-ttl 後生效
+            log.warn("Failed to subscribe to user cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 快取鍵：{tenantId|global}:{username}
+     */
+    private static String cacheKey(String username) {
+        String tenantId = TenantContextHolder.getTenantId();
+        return (tenantId != null ? tenantId : GLOBAL_TENANT) + ":" + username;
+    }
+
+    /**
+     * 讀取 L1，未命中時由第一個請求載入並寫入 L1，同一鍵的其他請求等待其結果
+     *
+     * <p>載入期間若條目被失效（{@link #evict}、失效通知），結果仍返回給等待中的請求，但不保留於 L1</p>
+     */
+    private Optional<User> getOrLoad(String key, String username) {
+        Optional<User> cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture<Optional<User>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<User>> existing = loading.putIfAbsent(key, created);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            // 前一次載入可能在 getIfPresent 之後才完成；不重複計入未命中統計
+            Optional<User> user = localCache.policy().getIfPresentQuietly(key);
+            if (user != null) {
+                loading.remove(key, created);
+                created.complete(user);
+                return user;
+            }
+            user = loadRemote(key, username);
+            localCache.put(key, user);
+            if (!loading.remove(key, created)) {
+                // 載入期間已失效，捨棄可能過期的結果
+                localCache.invalidate(key);
+            }
+            created.complete(user);
+            return user;
+        } catch (RuntimeException | Error e) {
+            loading.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Optional<User> await(CompletableFuture<Optional<User>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * L1 未命中：先查 Redis，仍未命中才查詢底層儲存並回寫 Redis
+     */
+    private Optional<User> loadRemote(String cacheKey, String username) {
+        String key = KEY_PREFIX + cacheKey;
+        Map<Object, Object> entry = null;
+        try {
+            entry = stringRedisTemplate.opsForHash().entries(key);
+        } catch (Exception e) {
+            log.warn("Failed to read cached user {}, falling back to store: {}", username, e.getMessage());
+        }
+        if (entry != null && !entry.isEmpty()) {
+            return entry.containsKey(FIELD_NOT_FOUND) ? Optional.empty() : Optional.of(fromHash(username, entry));
+        }
+
+        Optional<User> user = delegate.findByUsername(username);
+        try {
+            long ttl = user.isPresent() ? config.getRemoteTtl() : config.getNegativeTtl();
+            List<String> args = new ArrayList<>();
+            args.add(String.valueOf(ttl));
+            args.addAll(user.map(CachingUserRepository::toHash).orElse(List.of(FIELD_NOT_FOUND, "1")));
+            stringRedisTemplate.execute(PUT_SCRIPT, List.of(key), args.toArray());
+        } catch (Exception e) {
+            log.warn("Failed to cache user {}: {}", username, e.getMessage());
+        }
+        return user;
+    }
+
+    /**
+     * 使用者轉為 Hash 欄位與值交錯排列的清單，略過 null 欄位；密碼雜湊不寫入共用快取
+     */
+    private static List<String> toHash(User user) {
+        List<String> fields = new ArrayList<>(16);
+        putField(fields, FIELD_USER_ID, user.getUserId());
+        putField(fields, FIELD_TENANT_ID, user.getTenantId());
+        putField(fields, FIELD_ROLES, user.getRoles() != null ? String.join(ROLE_SEPARATOR, user.getRoles()) : null);
+        putField(fields, FIELD_STATUS, user.getStatus() != null ? user.getStatus().name() : null);
+        putField(fields, FIELD_EMAIL, user.getEmail());
+        putField(fields, FIELD_CREATED_AT, user.getCreatedAt());
+        putField(fields, FIELD_LAST_LOGIN_AT, user.getLastLoginAt());
+        return fields;
+    }
+
+    private static void putField(List<String> fields, String field, Object value) {
+        if (value != null) {
+            fields.add(field);
+            fields.add(value.toString());
+        }
+    }
+
+    private static User fromHash(String username, Map<Object, Object> entry) {
+        User user = new User();
+        user.setUsername(username);
+        user.setUserId(parseLong(entry.get(FIELD_USER_ID)));
+        user.setTenantId(parseLong(entry.get(FIELD_TENANT_ID)));
+        String roles = (String) entry.get(FIELD_ROLES);
+        user.setRoles(roles == null ? null : roles.isEmpty() ? List.of() : Arrays.asList(roles.split(ROLE_SEPARATOR)));
+        String status = (String) entry.get(FIELD_STATUS);
+        user.setStatus(status != null ? UserStatus.valueOf(status) : null);
+        user.setEmail((String) entry.get(FIELD_EMAIL));
+        user.setCreatedAt(parseTime(entry.get(FIELD_CREATED_AT)));
+        user.setLastLoginAt(parseTime(entry.get(FIELD_LAST_LOGIN_AT)));
+        return user;
+    }
+
+    private static Long parseLong(Object value) {
+        return value != null ? Long.valueOf((String) value) : null;
+    }
+
+    private static LocalDateTime parseTime(Object value) {
+        return value != null ? LocalDateTime.parse((String) value) : null;
+    }
+
+    /**
+     * 存在與不存在的帳號使用不同存活時間
+     */
+    private static final class LocalExpiry implements Expiry<String, Optional<User>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private LocalExpiry(long ttlSeconds, long negativeTtlSeconds) {
+            this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+            this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Optional<User> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : Math.min(ttlNanos, negativeTtlNanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<User> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<User> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
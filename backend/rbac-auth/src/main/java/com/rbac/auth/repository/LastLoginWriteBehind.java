@@ -0,0 +1,124 @@
+package com.rbac.auth.repository;
+
+import com.rbac.auth.model.entity.User;
+import jakarta.annotation.PreDestroy;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 最後登入時間寫回緩衝
+ *
+ * <p>登入成功時只記錄於記憶體，同一使用者在一個週期內多次登入只保留最新時間，
+ * 由排程（rbac.auth.last-login.flush-interval）與關閉前以
+ * {@link UserRepository#updateLastLoginTimes(Map)} 批次寫回，登入延遲不再包含資料庫寫入</p>
+ *
+ * <p>條目以已驗證使用者的 (tenantId, userId) 為鍵並依使用者 ID 寫回；
+ * 使用者名稱只在租戶內唯一，不作為鍵</p>
+ *
+ * <p>寫回失敗時條目放回緩衝，於下個週期重試；節點異常終止時最多遺失一個週期的更新</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastLoginWriteBehind {
+
+    private final UserRepository userRepository;
+
+    /**
+     * 待寫回的最後登入時間
+     */
+    private final ConcurrentHashMap<UserKey, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 記錄使用者登入時間
+     *
+     * @param user 已驗證的使用者
+     */
+    public void record(User user) {
+        pending.merge(new UserKey(user.getTenantId(), user.getUserId()), LocalDateTime.now(),
+                LastLoginWriteBehind::latest);
+    }
+
+    /**
+     * 待寫回條目數
+     *
+     * @return 條目數
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 批次寫回緩衝中的最後登入時間
+     */
+    @Scheduled(fixedDelayString = "${rbac.auth.last-login.flush-interval:PT5S}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // 逐一移除已取出的條目；取出後的新登入留待下個週期
+        Map<UserKey, LocalDateTime> taken = new HashMap<>(pending.size() * 2);
+        for (Map.Entry<UserKey, LocalDateTime> entry : pending.entrySet()) {
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                taken.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (taken.isEmpty()) {
+            return;
+        }
+
+        Map<Long, LocalDateTime> batch = new HashMap<>(taken.size() * 2);
+        Set<Long> tenants = new HashSet<>();
+        taken.forEach((key, time) -> {
+            batch.merge(key.getUserId(), time, LastLoginWriteBehind::latest);
+            tenants.add(key.getTenantId());
+        });
+
+        try {
+            userRepository.updateLastLoginTimes(batch);
+            log.debug("Flushed last login times: {} users in {} tenants", batch.size(), tenants.size());
+        } catch (Exception e) {
+            taken.forEach((key, time) -> pending.merge(key, time, LastLoginWriteBehind::latest));
+            log.warn("Failed to flush {} last login times, will retry: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 關閉前寫回剩餘條目
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * 緩衝鍵：使用者所屬租戶與使用者 ID
+     */
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class UserKey {
+
+        private final Long tenantId;
+        private final Long userId;
+    }
+}
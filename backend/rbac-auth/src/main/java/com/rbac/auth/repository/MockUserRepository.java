@@ -5,8 +5,9 @@ import com.rbac.auth.model.entity.User;
 import com.rbac.auth.model.entity.UserStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Profile;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Repository;
 
 import jakarta.annotation.PostConstruct;
@@ -26,11 +27,12 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 @Repository
 @Profile("dev")
+@Qualifier(CachingUserRepository.STORE)
 @RequiredArgsConstructor
 public class MockUserRepository implements UserRepository {
 
     private final MockDataConfig mockDataConfig;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordEncoder passwordEncoder;
 
     /**
      * 記憶體儲存的使用者資料
@@ -77,12 +79,35 @@ public class MockUserRepository implements UserRepository {
     }
 
     @Override
-    public void updateLastLoginTime(String username) {
+    public void updateLastLoginTime(Long userId) {
+        updateLastLoginTimes(Map.of(userId, LocalDateTime.now()));
+    }
+
+    @Override
+    public void updateLastLoginTimes(Map<Long, LocalDateTime> lastLoginTimes) {
+        for (User user : userStore.values()) {
+            LocalDateTime time = lastLoginTimes.get(user.getUserId());
+            if (time != null) {
+                user.setLastLoginAt(time);
+            }
+        }
+        log.debug("Updated last login time for {} users", lastLoginTimes.size());
+    }
+
+    @Override
+    public boolean replacePasswordHash(String username, String expectedHash, String newHash) {
         User user = userStore.get(username);
-        if (user != null) {
-            user.setLastLoginAt(LocalDateTime.now());
-            log.debug("Updated last login time for user: {}", username);
+        if (user == null) {
+            return false;
+        }
+        synchronized (user) {
+            if (!expectedHash.equals(user.getPasswordHash())) {
+                return false;
+            }
+            user.setPasswordHash(newHash);
         }
+        log.debug("Replaced password hash for user: {}", username);
+        return true;
     }
 
     @Override
@@ -0,0 +1,178 @@
+package com.rbac.auth.repository;
+
+import com.rbac.auth.model.entity.User;
+import com.rbac.auth.model.entity.UserStatus;
+import com.rbac.auth.repository.mapper.UserAuthMapper;
+import com.rbac.auth.repository.mapper.UserAuthRow;
+import com.rbac.common.database.context.TenantContextHolder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * MyBatis 使用者倉儲實作
+ *
+ * <p>非 dev 環境的使用者儲存，讀取 sys_user / sys_user_role / sys_role：</p>
+ *
+ * <ul>
+ *   <li>查詢：使用者、密碼雜湊、狀態與角色編碼以單一聯結查詢取得（見 {@link UserAuthMapper}）</li>
+ *   <li>租戶：租戶上下文為數值租戶 ID 時以 (tenant_id, username) 查詢；非數值（例如未轉換的租戶編碼）
+ *       視為帳號不存在，不可退回不限租戶查詢而命中其他租戶的同名帳號；
+ *       只有完全沒有租戶上下文時才不限租戶查詢，同名帳號存在於多個租戶時視為不存在</li>
+ *   <li>最後登入時間：{@link LastLoginWriteBehind} 的批次依使用者 ID 以單一 UPDATE 寫入，每批最多 {@value #UPDATE_BATCH_SIZE} 筆</li>
+ * </ul>
+ *
+ * <p>由 {@link CachingUserRepository} 包裝後提供給其他元件</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Repository
+@Profile("!dev")
+@Qualifier(CachingUserRepository.STORE)
+@RequiredArgsConstructor
+public class MyBatisUserRepository implements UserRepository {
+
+    /**
+     * 單一 UPDATE 語句的最大筆數，避免參數數量超過驅動程式上限
+     */
+    static final int UPDATE_BATCH_SIZE = 500;
+
+    private final UserAuthMapper userAuthMapper;
+    private final PasswordEncoder passwordEncoder;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        if (hasNonNumericTenant()) {
+            log.debug("Tenant context {} is not a tenant ID, user {} not found",
+                    TenantContextHolder.getTenantId(), username);
+            return Optional.empty();
+        }
+        List<UserAuthRow> rows = userAuthMapper.selectByUsername(currentTenantId(), username);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        UserAuthRow first = rows.get(0);
+        List<String> roles = new ArrayList<>(rows.size());
+        for (UserAuthRow row : rows) {
+            if (!first.getUserId().equals(row.getUserId())) {
+                log.warn("Username {} exists in multiple tenants, tenant context required", username);
+                return Optional.empty();
+            }
+            if (row.getRoleCode() != null) {
+                roles.add(row.getRoleCode());
+            }
+        }
+
+        User user = new User();
+        user.setUserId(first.getUserId());
+        user.setUsername(first.getUsername());
+        user.setPasswordHash(first.getPasswordHash());
+        user.setTenantId(first.getTenantId());
+        user.setRoles(roles);
+        user.setStatus(toStatus(first.getStatus()));
+        user.setEmail(first.getEmail());
+        user.setCreatedAt(first.getCreatedAt());
+        user.setLastLoginAt(first.getLastLoginTime());
+        return Optional.of(user);
+    }
+
+    @Override
+    public boolean validatePassword(String username, String rawPassword) {
+        return findByUsername(username)
+                .map(user -> passwordEncoder.matches(rawPassword, user.getPasswordHash()))
+                .orElse(false);
+    }
+
+    @Override
+    public void updateLastLoginTime(Long userId) {
+        updateLastLoginTimes(Map.of(userId, LocalDateTime.now()));
+    }
+
+    @Override
+    public void updateLastLoginTimes(Map<Long, LocalDateTime> lastLoginTimes) {
+        if (lastLoginTimes.isEmpty()) {
+            return;
+        }
+        Map<Long, LocalDateTime> batch = new LinkedHashMap<>();
+        for (Map.Entry<Long, LocalDateTime> entry : lastLoginTimes.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() == UPDATE_BATCH_SIZE) {
+                userAuthMapper.updateLastLoginTimes(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            userAuthMapper.updateLastLoginTimes(batch);
+        }
+        log.debug("Updated last login time for {} users", lastLoginTimes.size());
+    }
+
+    @Override
+    public boolean replacePasswordHash(String username, String expectedHash, String newHash) {
+        if (hasNonNumericTenant()) {
+            return false;
+        }
+        return userAuthMapper.updatePasswordHash(currentTenantId(), username, expectedHash, newHash) > 0;
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return findByUsername(username).isPresent();
+    }
+
+    @Override
+    public UserStatus getUserStatus(String username) {
+        return findByUsername(username).map(User::getStatus).orElse(null);
+    }
+
+    /**
+     * 取得數值租戶 ID，租戶上下文不存在時返回 null；呼叫前須先以 {@link #hasNonNumericTenant()} 排除非數值租戶
+     */
+    private static Long currentTenantId() {
+        String tenantId = TenantContextHolder.getTenantId();
+        return tenantId != null ? Long.valueOf(tenantId) : null;
+    }
+
+    /**
+     * 租戶上下文存在但不是數值租戶 ID，無法限定租戶
+     */
+    private static boolean hasNonNumericTenant() {
+        String tenantId = TenantContextHolder.getTenantId();
+        if (tenantId == null || tenantId.isEmpty() || tenantId.length() > 18) {
+            return tenantId != null;
+        }
+        for (int i = 0; i < tenantId.length(); i++) {
+            if (!Character.isDigit(tenantId.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * sys_user.status 轉換：1-啟用 2-鎖定，其餘視為停用
+     */
+    private static UserStatus toStatus(Integer status) {
+        if (status == null) {
+            return UserStatus.DISABLED;
+        }
+        return switch (status) {
+            case 1 -> UserStatus.ACTIVE;
+            case 2 -> UserStatus.LOCKED;
+            default -> UserStatus.DISABLED;
+        };
+    }
+}
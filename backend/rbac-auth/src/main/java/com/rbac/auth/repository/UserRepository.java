@@ -2,6 +2,8 @@ package com.rbac.auth.repository;
 
 import com.rbac.auth.model.entity.User;
 
+import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -22,6 +24,19 @@ public interface UserRepository {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * 根據使用者名稱查詢登入驗證所需的使用者（含密碼雜湊）
+     *
+     * <p>快取實作的 {@link #findByUsername(String)} 可能返回不含密碼雜湊的使用者，
+     * 驗證密碼時必須使用此方法。預設與 findByUsername 相同</p>
+     *
+     * @param username 使用者名稱
+     * @return 使用者 Optional，如果不存在返回 empty
+     */
+    default Optional<User> findForAuthentication(String username) {
+        return findByUsername(username);
+    }
+
     /**
      * 驗證密碼
      *
@@ -34,9 +49,35 @@ public interface UserRepository {
     /**
      * 更新最後登入時間
      *
+     * <p>以使用者 ID 指定，使用者名稱只在租戶內唯一</p>
+     *
+     * @param userId 使用者 ID
+     */
+    void updateLastLoginTime(Long userId);
+
+    /**
+     * 批次更新最後登入時間
+     *
+     * <p>預設逐筆呼叫 {@link #updateLastLoginTime(Long)}（時間以呼叫當下為準），
+     * 資料庫實作應覆寫為單一批次更新</p>
+     *
+     * @param lastLoginTimes 使用者 ID 與最後登入時間
+     */
+    default void updateLastLoginTimes(Map<Long, LocalDateTime> lastLoginTimes) {
+        lastLoginTimes.keySet().forEach(this::updateLastLoginTime);
+    }
+
+    /**
+     * 以新的密碼雜湊取代目前雜湊（重新雜湊，密碼本身不變）
+     *
+     * <p>僅在目前雜湊仍為 expectedHash 時更新，避免覆寫期間被修改的密碼</p>
+     *
      * @param username 使用者名稱
+     * @param expectedHash 預期的目前雜湊
+     * @param newHash 新的雜湊
+     * @return 已更新返回 true
      */
-    void updateLastLoginTime(String username);
+    boolean replacePasswordHash(String username, String expectedHash, String newHash);
 
     /**
      * 檢查使用者是否存在
@@ -0,0 +1,40 @@
+package com.rbac.auth.repository.mapper;
+
+import com.baomidou.mybatisplus.annotation.InterceptorIgnore;
+import com.rbac.auth.audit.LoginAuditEvent;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 登入日誌 Mapper
+ *
+ * <p>一批審計事件以單一多列 INSERT 寫入 sys_login_log；事件已帶租戶 ID，
+ * 且由背景執行緒寫入（無租戶上下文），因此略過 MyBatis-Plus 租戶攔截器</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public interface LoginLogMapper {
+
+    /**
+     * 批次寫入登入日誌
+     *
+     * <p>status：1-成功 0-失敗（含觸發鎖定）；fail_reason 記錄失敗原因</p>
+     *
+     * @param events 審計事件
+     * @return 寫入筆數
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Insert("<script>"
+            + "INSERT INTO sys_login_log (tenant_id, user_id, username, login_time, login_ip, status, login_type, fail_reason)"
+            + " VALUES "
+            + "<foreach collection='events' item='e' separator=','>"
+            + "(#{e.tenantId}, #{e.userId}, #{e.username}, #{e.occurredAt}, #{e.ip},"
+            + " <choose><when test='e.success'>1</when><otherwise>0</otherwise></choose>, 'PASSWORD',"
+            + " #{e.reason})"
+            + "</foreach>"
+            + "</script>")
+    int insertBatch(@Param("events") List<LoginAuditEvent> events);
+}
@@ -0,0 +1,50 @@
+package com.rbac.auth.repository.mapper;
+
+import com.baomidou.mybatisplus.annotation.InterceptorIgnore;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 租戶狀態 Mapper
+ *
+ * <p>只讀取租戶登錄表所需的 id、tenant_code、status 與 expire_time；
+ * sys_tenant 本身不含 tenant_id，因此略過 MyBatis-Plus 租戶攔截器</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public interface TenantMapper {
+
+    /**
+     * 查詢所有未刪除的租戶
+     *
+     * @return 租戶狀態列
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Select("SELECT id AS tenant_id, tenant_code, status, expire_time FROM sys_tenant WHERE deleted = 0")
+    List<TenantStatusRow> selectAll();
+
+    /**
+     * 依租戶 ID 查詢
+     *
+     * @param tenantId 租戶 ID
+     * @return 租戶狀態列，不存在時返回 null
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Select("SELECT id AS tenant_id, tenant_code, status, expire_time FROM sys_tenant"
+            + " WHERE id = #{tenantId} AND deleted = 0")
+    TenantStatusRow selectById(@Param("tenantId") Long tenantId);
+
+    /**
+     * 依租戶編碼查詢（命中 idx_tenant_code）
+     *
+     * @param tenantCode 租戶編碼
+     * @return 租戶狀態列，不存在時返回 null
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Select("SELECT id AS tenant_id, tenant_code, status, expire_time FROM sys_tenant"
+            + " WHERE tenant_code = #{tenantCode} AND deleted = 0")
+    TenantStatusRow selectByCode(@Param("tenantCode") String tenantCode);
+}
@@ -0,0 +1,31 @@
+package com.rbac.auth.repository.mapper;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 租戶狀態資料列
+ *
+ * <p>{@link TenantMapper} 的單列結果</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Data
+public class TenantStatusRow {
+
+    private Long tenantId;
+
+    private String tenantCode;
+
+    /**
+     * 租戶狀態：1-啟用，其他值視為停用
+     */
+    private Integer status;
+
+    /**
+     * 過期時間，null 表示不過期
+     */
+    private LocalDateTime expireTime;
+}
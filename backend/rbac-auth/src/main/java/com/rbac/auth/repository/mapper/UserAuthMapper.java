@@ -0,0 +1,92 @@
+package com.rbac.auth.repository.mapper;
+
+import com.baomidou.mybatisplus.annotation.InterceptorIgnore;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 使用者認證資料 Mapper
+ *
+ * <p>登入與 /me 所需的使用者、密碼雜湊、狀態與角色編碼以單一聯結查詢取得，
+ * 不再逐一查詢使用者的角色（N+1）。聯結條件皆帶 tenant_id，依序命中：</p>
+ *
+ * <ul>
+ *   <li>sys_user：uk_tenant_username (tenant_id, username)</li>
+ *   <li>sys_user_role：uk_user_role (tenant_id, user_id, role_id)</li>
+ *   <li>sys_role：主鍵</li>
+ * </ul>
+ *
+ * <p>租戶條件由 SQL 明確指定，因此略過 MyBatis-Plus 租戶攔截器；
+ * 登入時租戶上下文可能尚未對應到數值租戶 ID</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public interface UserAuthMapper {
+
+    /**
+     * 查詢使用者與其有效角色
+     *
+     * @param tenantId 租戶 ID，null 表示不限租戶（以 idx_username 查詢）
+     * @param username 使用者名稱
+     * @return 每個角色一列，無角色時返回 roleCode 為 null 的單列
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Select("<script>"
+            + "SELECT u.id AS user_id, u.tenant_id, u.username, u.password AS password_hash, u.email, u.status,"
+            + " u.created_at, u.last_login_time, r.role_code"
+            + " FROM sys_user u"
+            + " LEFT JOIN sys_user_role ur ON ur.tenant_id = u.tenant_id AND ur.user_id = u.id"
+            + "  AND (ur.effective_time IS NULL OR ur.effective_time &lt;= CURRENT_TIMESTAMP)"
+            + "  AND (ur.expire_time IS NULL OR ur.expire_time &gt; CURRENT_TIMESTAMP)"
+            + " LEFT JOIN sys_role r ON r.id = ur.role_id AND r.tenant_id = ur.tenant_id"
+            + "  AND r.status = 1 AND r.deleted = 0"
+            + " WHERE u.username = #{username} AND u.deleted = 0"
+            + "<if test='tenantId != null'> AND u.tenant_id = #{tenantId}</if>"
+            + " ORDER BY u.id, r.sort_order, r.role_code"
+            + "</script>")
+    List<UserAuthRow> selectByUsername(@Param("tenantId") Long tenantId, @Param("username") String username);
+
+    /**
+     * 批次更新最後登入時間（單一 UPDATE ... FROM VALUES）
+     *
+     * <p>以主鍵比對，不依使用者名稱；不同租戶的同名帳號不會互相更新</p>
+     *
+     * @param lastLoginTimes 使用者 ID 與最後登入時間
+     * @return 更新筆數
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Update("<script>"
+            + "UPDATE sys_user AS u SET last_login_time = v.last_login_time"
+            + " FROM (VALUES "
+            + "<foreach collection='lastLoginTimes' index='userId' item='time' separator=','>"
+            + "(CAST(#{userId} AS BIGINT), CAST(#{time} AS TIMESTAMP))"
+            + "</foreach>"
+            + ") AS v(user_id, last_login_time)"
+            + " WHERE u.id = v.user_id AND u.deleted = 0"
+            + "</script>")
+    int updateLastLoginTimes(@Param("lastLoginTimes") Map<Long, LocalDateTime> lastLoginTimes);
+
+    /**
+     * 以原雜湊為條件更新密碼雜湊
+     *
+     * @param tenantId 租戶 ID，null 表示不限租戶
+     * @param username 使用者名稱
+     * @param expectedHash 預期的目前雜湊
+     * @param newHash 新的雜湊
+     * @return 更新筆數
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Update("<script>"
+            + "UPDATE sys_user SET password = #{newHash}, updated_at = CURRENT_TIMESTAMP"
+            + " WHERE username = #{username} AND password = #{expectedHash} AND deleted = 0"
+            + "<if test='tenantId != null'> AND tenant_id = #{tenantId}</if>"
+            + "</script>")
+    int updatePasswordHash(@Param("tenantId") Long tenantId, @Param("username") String username,
+                           @Param("expectedHash") String expectedHash, @Param("newHash") String newHash);
+}
@@ -0,0 +1,39 @@
+package com.rbac.auth.repository.mapper;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 使用者認證資料列
+ *
+ * <p>{@link UserAuthMapper} 聯結查詢的單列結果：使用者欄位重複出現於每個角色，
+ * 無角色時 roleCode 為 null</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Data
+public class UserAuthRow {
+
+    private Long userId;
+
+    private Long tenantId;
+
+    private String username;
+
+    private String passwordHash;
+
+    private String email;
+
+    /**
+     * 帳號狀態：0-停用 1-啟用 2-鎖定
+     */
+    private Integer status;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime lastLoginTime;
+
+    private String roleCode;
+}
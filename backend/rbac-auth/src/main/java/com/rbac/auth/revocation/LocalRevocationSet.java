@@ -0,0 +1,144 @@
+package com.rbac.auth.revocation;
+
+import com.rbac.auth.config.JwtConfig;
+import com.rbac.common.core.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 節點本地 Token 撤銷集合
+ *
+ * <p>由 Bloom Filter 與精確集合（jti → exp）組成，作為 Redis 黑名單的本地副本：</p>
+ * <ul>
+ *   <li>Bloom Filter 未命中：Token 一定未被撤銷，無需存取 Redis</li>
+ *   <li>精確集合命中：Token 已被撤銷</li>
+ *   <li>Bloom Filter 命中但精確集合未命中：誤判或同步延遲，由呼叫端回查 Redis</li>
+ * </ul>
+ *
+ * <p>啟動後、尚未由 Redis 重建前處於未同步狀態，此時所有查詢皆視為可能命中，
+ * 由呼叫端回退到 Redis 檢查。內容由 {@link RevocationSyncService} 維護</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Component
+public class LocalRevocationSet {
+
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    /**
+     * 已撤銷的 jti 與其到期時間（epoch 秒）
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+
+    private volatile boolean synced;
+
+    public LocalRevocationSet(JwtConfig jwtConfig) {
+        JwtConfig.Revocation config = jwtConfig.getRevocation();
+        this.enabled = config.isLocalFilterEnabled();
+        this.expectedInsertions = config.getExpectedInsertions();
+        this.falsePositiveRate = config.getFalsePositiveRate();
+        this.bloomFilter = BloomFilter.create(expectedInsertions, falsePositiveRate);
+    }
+
+    /**
+     * 檢查 jti 是否可能已被撤銷
+     *
+     * @param jti Token ID
+     * @return false 表示一定未撤銷；true 表示需進一步確認
+     */
+    public boolean mightBeRevoked(String jti) {
+        if (!enabled || !synced) {
+            return true;
+        }
+        return bloomFilter.mightContain(jti);
+    }
+
+    /**
+     * 檢查 jti 是否在本地精確集合中且尚未到期
+     *
+     * @param jti Token ID
+     * @return 如果本地已記錄撤銷返回 true
+     */
+    public boolean isRevoked(String jti) {
+        Long exp = revoked.get(jti);
+        return exp != null && exp > Instant.now().getEpochSecond();
+    }
+
+    /**
+     * 記錄撤銷的 jti
+     *
+     * <p>先寫入精確集合再寫入 Bloom Filter，確保 Bloom Filter 命中時精確集合已可見</p>
+     *
+     * @param jti Token ID
+     * @param expEpochSecond 撤銷記錄到期時間（epoch 秒）
+     */
+    public void add(String jti, long expEpochSecond) {
+        if (expEpochSecond <= Instant.now().getEpochSecond()) {
+            return;
+        }
+        revoked.merge(jti, expEpochSecond, Math::max);
+        bloomFilter.put(jti);
+    }
+
+    /**
+     * 以 Redis 的黑名單內容重建本地集合，並標記為已同步
+     *
+     * <p>重建期間經由 pub/sub 新增的條目不會遺失：新 Bloom Filter 切換後會再補上一次精確集合的全部內容</p>
+     *
+     * @param entries jti → exp（epoch 秒）
+     */
+    public void rebuild(Map<String, Long> entries) {
+        entries.forEach(this::add);
+        pruneExpired();
+
+        BloomFilter fresh = BloomFilter.create(Math.max(expectedInsertions, revoked.size() * 2L), falsePositiveRate);
+        revoked.keySet().forEach(fresh::put);
+        this.bloomFilter = fresh;
+        revoked.keySet().forEach(fresh::put);
+
+        if (!synced) {
+            log.info("Local revocation set synced: {} entries", revoked.size());
+        }
+        this.synced = true;
+    }
+
+    /**
+     * 移除已到期的撤銷記錄（Bloom Filter 於下次重建時一併清除）
+     *
+     * @return 移除的條目數
+     */
+    public int pruneExpired() {
+        long now = Instant.now().getEpochSecond();
+        int before = revoked.size();
+        revoked.values().removeIf(exp -> exp <= now);
+        return before - revoked.size();
+    }
+
+    /**
+     * 是否已完成同步
+     *
+     * @return 已同步返回 true
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * 目前撤銷記錄數
+     *
+     * @return 條目數
+     */
+    public int size() {
+        return revoked.size();
+    }
+}
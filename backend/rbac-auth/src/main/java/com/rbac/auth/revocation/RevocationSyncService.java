@@ -0,0 +1,180 @@
+package com.rbac.auth.revocation;
+
+import com.rbac.auth.cache.VerifiedTokenCache;
+import com.rbac.auth.config.JwtConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token 撤銷同步服務
+ *
+ * <p>維持各節點 {@link LocalRevocationSet} 與 Redis 黑名單一致：</p>
+ * <ul>
+ *   <li>撤銷時透過 Redis pub/sub 廣播 "jti:exp"，各節點收到後寫入本地集合並移除已驗證 Token 快取</li>
+ *   <li>啟動完成後以 SCAN 掃描 auth:blacklist:* 重建本地集合</li>
+ *   <li>定期重新同步（rbac.auth.jwt.revocation.resync-interval），補上 pub/sub 斷線期間遺失的訊息</li>
+ * </ul>
+ *
+ * <p>Redis 不可用時本地集合維持未同步狀態，黑名單檢查回退為逐次查詢 Redis</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Service
+public class RevocationSyncService implements MessageListener {
+
+    /**
+     * 黑名單鍵前綴
+     */
+    public static final String BLACKLIST_PREFIX = "auth:blacklist:";
+
+    private static final int SCAN_BATCH_SIZE = 1000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final LocalRevocationSet localRevocationSet;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final JwtConfig.Revocation config;
+    private final long tokenExpiration;
+    private final ChannelTopic topic;
+
+    public RevocationSyncService(StringRedisTemplate stringRedisTemplate,
+                                 RedisMessageListenerContainer listenerContainer,
+                                 LocalRevocationSet localRevocationSet,
+                                 VerifiedTokenCache verifiedTokenCache,
+                                 JwtConfig jwtConfig) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.localRevocationSet = localRevocationSet;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.config = jwtConfig.getRevocation();
+        this.tokenExpiration = jwtConfig.getExpiration();
+        this.topic = new ChannelTopic(config.getChannel());
+    }
+
+    /**
+     * 廣播撤銷事件
+     *
+     * @param jti Token ID
+     * @param expEpochSecond 撤銷記錄到期時間（epoch 秒）
+     */
+    public void publish(String jti, long expEpochSecond) {
+        try {
+            stringRedisTemplate.convertAndSend(config.getChannel(), jti + ":" + expEpochSecond);
+        } catch (Exception e) {
+            // 其他節點將在下次定期同步時補上
+            log.warn("Failed to publish revocation for {}: {}", jti, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed revocation message: {}", body);
+            return;
+        }
+        try {
+            String jti = body.substring(0, separator);
+            long exp = Long.parseLong(body.substring(separator + 1));
+            localRevocationSet.add(jti, exp);
+            verifiedTokenCache.invalidateJti(jti);
+            log.debug("Received revocation: {}", jti);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed revocation message: {}", body);
+        }
+    }
+
+    /**
+     * 啟動完成後訂閱撤銷頻道並重建本地集合
+     *
+     * <p>先註冊監聽器再掃描；訂閱由已啟動的監聽容器建立，Redis 無法連線時由容器自動重試，
+     * 訂閱生效前遺失的撤銷事件由定期重新同步補上</p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!config.isLocalFilterEnabled()) {
+            log.info("Local revocation filter disabled, blacklist checks go to Redis");
+            return;
+        }
+        listenerContainer.addMessageListener(this, topic);
+        resync();
+    }
+
+    /**
+     * 定期由 Redis 重新同步本地集合
+     */
+    @Scheduled(initialDelayString = "${rbac.auth.jwt.revocation.resync-interval:PT5M}",
+            fixedDelayString = "${rbac.auth.jwt.revocation.resync-interval:PT5M}")
+    public void resync() {
+        if (!config.isLocalFilterEnabled()) {
+            return;
+        }
+        try {
+            localRevocationSet.rebuild(loadBlacklist());
+        } catch (Exception e) {
+            log.warn("Failed to sync local revocation set, falling back to Redis lookups: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 以 SCAN 讀取所有黑名單鍵與其剩餘 TTL
+     *
+     * @return jti → exp（epoch 秒）
+     */
+    private Map<String, Long> loadBlacklist() {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(BLACKLIST_PREFIX + "*")
+                .count(SCAN_BATCH_SIZE)
+                .build();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            cursor.forEachRemaining(keys::add);
+        }
+
+        Map<String, Long> entries = new HashMap<>(keys.size() * 2);
+        if (keys.isEmpty()) {
+            return entries;
+        }
+
+        // 以 pipeline 一次取回所有 TTL
+        List<Object> ttls = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.keyCommands().ttl(key.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+
+        long now = Instant.now().getEpochSecond();
+        for (int i = 0; i < keys.size(); i++) {
+            Object ttl = ttls.get(i);
+            if (!(ttl instanceof Long seconds) || seconds == -2L) {
+                continue;
+            }
+            // 未設定 TTL 的黑名單鍵以最長 Token 有效期保守處理
+            long exp = seconds == -1L ? now + tokenExpiration : now + seconds;
+            entries.put(keys.get(i).substring(BLACKLIST_PREFIX.length()), exp);
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,223 @@
+package com.rbac.auth.revocation;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.rbac.auth.config.JwtConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Token 世代（epoch）服務
+ *
+ * <p>每個使用者與租戶各有一個遞增的世代計數器，簽發 Token 時寫入 Claims，
+ * 驗證時與目前計數器比較，Token 世代小於目前世代即視為已撤銷。
+ * 「登出所有裝置」、停用帳號或變更密碼只需一次 INCR，無需逐一將 jti 加入黑名單</p>
+ *
+ * <ul>
+ *   <li>計數器：auth:epoch:user:{userId}、auth:epoch:tenant:{tenantId}</li>
+ *   <li>本地快取：驗證路徑只讀取本地快取，只有節點首次見到的使用者或租戶才讀取 Redis</li>
+ *   <li>同步：遞增後透過 pub/sub 廣播新世代，各節點立即更新本地快取</li>
+ *   <li>補救：寫入 rbac.auth.jwt.revocation.epoch-refresh-interval 秒後於背景重新讀取，
+ *       補上 pub/sub 遺失的訊息，請求沿用舊值不等待</li>
+ * </ul>
+ *
+ * <p>世代只前進不後退。背景重新讀取失敗時保留最後已知的世代；
+ * 首次讀取失敗時該次請求以世代 0 處理且不快取（與黑名單查詢失敗時相同，不阻斷請求），下次請求重試</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Service
+public class TokenEpochService implements MessageListener {
+
+    /**
+     * 使用者世代鍵前綴
+     */
+    public static final String USER_EPOCH_PREFIX = "auth:epoch:user:";
+
+    /**
+     * 租戶世代鍵前綴
+     */
+    public static final String TENANT_EPOCH_PREFIX = "auth:epoch:tenant:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String channel;
+
+    /**
+     * 世代計數器本地快取，鍵為完整 Redis 鍵
+     */
+    private final LoadingCache<String, Long> epochs;
+
+    public TokenEpochService(StringRedisTemplate stringRedisTemplate,
+                             RedisMessageListenerContainer listenerContainer,
+                             JwtConfig jwtConfig) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        JwtConfig.Revocation config = jwtConfig.getRevocation();
+        this.channel = config.getEpochChannel();
+        this.epochs = Caffeine.newBuilder()
+                .maximumSize(config.getEpochCacheMaxSize())
+                .refreshAfterWrite(Duration.ofSeconds(config.getEpochRefreshInterval()))
+                .build(new EpochLoader());
+    }
+
+    /**
+     * 應用就緒後訂閱世代變更頻道
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * 取得使用者目前世代（本地快取）
+     *
+     * @param userId 使用者 ID
+     * @return 世代值，從未撤銷過為 0
+     */
+    public long currentUserEpoch(Long userId) {
+        return userId == null ? 0L : current(USER_EPOCH_PREFIX + userId);
+    }
+
+    /**
+     * 取得租戶目前世代（本地快取）
+     *
+     * @param tenantId 租戶 ID
+     * @return 世代值，從未撤銷過為 0
+     */
+    public long currentTenantEpoch(Long tenantId) {
+        return tenantId == null ? 0L : current(TENANT_EPOCH_PREFIX + tenantId);
+    }
+
+    /**
+     * 讀取使用者最新世代（略過本地快取），供簽發 Token 使用，
+     * 避免其他節點剛遞增而本地快取尚未更新時簽出立即失效的 Token
+     *
+     * @param userId 使用者 ID
+     * @return 世代值
+     */
+    public long freshUserEpoch(Long userId) {
+        return userId == null ? 0L : refresh(USER_EPOCH_PREFIX + userId);
+    }
+
+    /**
+     * 讀取租戶最新世代（略過本地快取），供簽發 Token 使用
+     *
+     * @param tenantId 租戶 ID
+     * @return 世代值
+     */
+    public long freshTenantEpoch(Long tenantId) {
+        return tenantId == null ? 0L : refresh(TENANT_EPOCH_PREFIX + tenantId);
+    }
+
+    /**
+     * 撤銷使用者所有已簽發的 Token
+     *
+     * @param userId 使用者 ID
+     * @return 新的世代值
+     */
+    public long revokeUser(Long userId) {
+        return bump(USER_EPOCH_PREFIX + userId);
+    }
+
+    /**
+     * 撤銷租戶下所有已簽發的 Token
+     *
+     * @param tenantId 租戶 ID
+     * @return 新的世代值
+     */
+    public long revokeTenant(Long tenantId) {
+        return bump(TENANT_EPOCH_PREFIX + tenantId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf('=');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed epoch message: {}", body);
+            return;
+        }
+        try {
+            String key = body.substring(0, separator);
+            long epoch = Long.parseLong(body.substring(separator + 1));
+            // 只前進不後退，避免亂序訊息覆蓋較新的值
+            epochs.asMap().merge(key, epoch, Math::max);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed epoch message: {}", body);
+        }
+    }
+
+    private long bump(String key) {
+        Long epoch = stringRedisTemplate.opsForValue().increment(key);
+        long value = epoch != null ? epoch : 0L;
+        epochs.asMap().merge(key, value, Math::max);
+        try {
+            stringRedisTemplate.convertAndSend(channel, key + "=" + value);
+        } catch (Exception e) {
+            // 其他節點於下次背景重新讀取時取得新值
+            log.warn("Failed to publish epoch change for {}: {}", key, e.getMessage());
+        }
+        log.info("Token epoch bumped: {} -> {}", key, value);
+        return value;
+    }
+
+    private long current(String key) {
+        try {
+            Long epoch = epochs.get(key);
+            return epoch != null ? epoch : 0L;
+        } catch (Exception e) {
+            log.warn("Failed to load token epoch {}: {}", key, e.getMessage());
+            return 0L;
+        }
+    }
+
+    private long refresh(String key) {
+        try {
+            return epochs.asMap().merge(key, read(key), Math::max);
+        } catch (Exception e) {
+            log.warn("Failed to read token epoch {}, using last known value: {}", key, e.getMessage());
+            Long known = epochs.getIfPresent(key);
+            return known != null ? known : 0L;
+        }
+    }
+
+    private long read(String key) {
+        String value = stringRedisTemplate.opsForValue().get(key);
+        return value != null ? Long.parseLong(value) : 0L;
+    }
+
+    /**
+     * 世代載入器：首次讀取失敗時拋出例外（不快取），背景重新讀取失敗時保留舊值
+     */
+    private class EpochLoader implements CacheLoader<String, Long> {
+
+        @Override
+        public Long load(String key) {
+            return read(key);
+        }
+
+        @Override
+        public Long reload(String key, Long oldValue) {
+            try {
+                return Math.max(oldValue, read(key));
+            } catch (Exception e) {
+                log.warn("Failed to refresh token epoch {}, keeping {}: {}", key, oldValue, e.getMessage());
+                return oldValue;
+            }
+        }
+    }
+}
@@ -21,6 +21,21 @@ public interface AuthService {
      */
     LoginResponse login(LoginRequest request);
 
+    /**
+     * 以 Refresh Token 換發 Access Token，同時輪替 Refresh Token
+     *
+     * @param refreshToken Refresh Token
+     * @return 登入回應（含新的 Access Token 與 Refresh Token）
+     */
+    LoginResponse refresh(String refreshToken);
+
+    /**
+     * 撤銷 Refresh Token（登出時使用）
+     *
+     * @param refreshToken Refresh Token
+     */
+    void revokeRefreshToken(String refreshToken);
+
     /**
      * 使用者登出
      */
@@ -33,6 +48,13 @@ public interface AuthService {
      */
     void logout(String token);
 
+    /**
+     * 登出所有裝置：撤銷使用者所有已簽發的 Token
+     *
+     * @param userId 使用者 ID
+     */
+    void logoutAll(Long userId);
+
     /**
      * 驗證密碼
      *
@@ -1,19 +1,30 @@
 package com.rbac.auth.service;
 
+import com.rbac.auth.audit.LoginAuditEvent;
+import com.rbac.auth.audit.LoginAuditPublisher;
+import com.rbac.auth.config.JwtConfig;
 import com.rbac.auth.context.UserContext;
 import com.rbac.auth.exception.AccountLockedException;
 import com.rbac.auth.exception.AuthenticationException;
 import com.rbac.auth.model.dto.LoginRequest;
 import com.rbac.auth.model.dto.LoginResponse;
 import com.rbac.auth.model.entity.User;
+import com.rbac.auth.model.entity.UserStatus;
+import com.rbac.auth.password.PasswordRehashService;
+import com.rbac.auth.password.PasswordVerifier;
+import com.rbac.auth.repository.LastLoginWriteBehind;
 import com.rbac.auth.repository.UserRepository;
-import com.rbac.common.redis.util.CacheService;
+import com.rbac.auth.throttle.LoginThrottleService;
+import com.rbac.auth.token.RefreshTokenService;
+import com.rbac.common.database.context.TenantContextHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * 認證服務實作
@@ -27,61 +38,133 @@ import java.time.LocalDateTime;
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
+    private final LastLoginWriteBehind lastLoginWriteBehind;
     private final JwtTokenService jwtTokenService;
-    private final CacheService cacheService;
-
-    private static final int MAX_FAILED_ATTEMPTS = 5;
-    private static final long LOCK_DURATION_SECONDS = 900; // 15 分鐘
+    private final LoginThrottleService loginThrottleService;
+    private final RefreshTokenService refreshTokenService;
+    private final PasswordVerifier passwordVerifier;
+    private final PasswordRehashService passwordRehashService;
+    private final LoginAuditPublisher loginAuditPublisher;
+    private final JwtConfig jwtConfig;
 
     @Override
     public LoginResponse login(LoginRequest request) {
         String username = request.getUsername();
 
-        // 1. 檢查帳號是否被鎖定
-        if (isAccountLocked(username)) {
-            Long lockUntil = getLockUntil(username);
+        // 1. 雜湊前檢查鎖定：先查本節點快取，未知時以一次 Redis GET 確認，已鎖定帳號不執行 BCrypt
+        long now = System.currentTimeMillis() / 1000;
+        Long lockUntil = loginThrottleService.getKnownLockUntil(username);
+        if (!isLocked(lockUntil, now)) {
+            lockUntil = loginThrottleService.getLockUntil(username);
+        }
+        if (isLocked(lockUntil, now)) {
+            loginAuditPublisher.failure(username, null, LoginAuditEvent.ACCOUNT_LOCKED);
             throw new AccountLockedException("帳號已被鎖定", lockUntil);
         }
 
         // 2. 查詢使用者
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findForAuthentication(username)
                 .orElseThrow(() -> {
-                    recordFailedAttempt(username);
+                    recordFailure(username, null, LoginAuditEvent.USER_NOT_FOUND);
                     return new AuthenticationException("帳號或密碼錯誤");
                 });
 
-        // 3. 驗證密碼
-        if (!userRepository.validatePassword(username, request.getPassword())) {
-            recordFailedAttempt(username);
+        // 停用或被管理員鎖定的帳號不驗證密碼、不簽發 Token；與帳號不存在相同回應，不揭露帳號狀態
+        if (user.getStatus() != UserStatus.ACTIVE) {
+            loginAuditPublisher.failure(username, user, LoginAuditEvent.ACCOUNT_DISABLED);
+            throw new AuthenticationException("帳號或密碼錯誤");
+        }
+
+        // 3. 驗證密碼（於有界驗證執行緒池執行，過載時拋出 429/503）
+        if (!passwordVerifier.matches(request.getPassword(), user.getPasswordHash())) {
+            recordFailure(username, user, LoginAuditEvent.BAD_CREDENTIALS);
             throw new AuthenticationException("帳號或密碼錯誤");
         }
 
-        // 4. 重置失敗嘗試次數（登入成功）
-        resetFailedAttempts(username);
+        // 4. 再次檢查鎖定並重置失敗嘗試次數（單一 Redis 往返；涵蓋驗證期間其他節點設定的鎖定）
+        rejectIfLocked(loginThrottleService.recordSuccess(username), username, user);
+
+        // 5. 雜湊成本低於叢集共用成本時於背景重新雜湊
+        passwordRehashService.rehashIfNeeded(username, request.getPassword(), user.getPasswordHash());
 
-        // 5. 生成 JWT Token
+        // 6. 生成 JWT Token
         UserContext userContext = createUserContext(user);
         String token = jwtTokenService.generateToken(userContext);
+        String refreshToken = refreshTokenService.isEnabled() ? refreshTokenService.issue(userContext) : null;
 
-        // 6. 更新最後登入時間
-        userRepository.updateLastLoginTime(username);
+        // 7. 更新最後登入時間（寫回緩衝，批次寫入）
+        lastLoginWriteBehind.record(user);
 
-        // 7. 記錄登入日誌
+        // 8. 記錄登入日誌與審計事件（非同步寫入）
+        loginAuditPublisher.success(user);
         log.info("User logged in successfully: userId={}, username={}, tenantId={}, ip={}",
                 user.getUserId(), user.getUsername(), user.getTenantId(), "unknown");
 
-        // 8. 建構回應
-        LoginResponse response = new LoginResponse();
-        response.setToken(token);
-        response.setTokenType("Bearer");
-        response.setExpiresIn(86400L); // 24 小時
-        response.setExpiresAt(LocalDateTime.now().plusSeconds(86400));
-        response.setUserId(user.getUserId());
-        response.setUsername(user.getUsername());
-        response.setTenantId(user.getTenantId());
-        response.setRoles(user.getRoles());
+        // 9. 建構回應
+        return createLoginResponse(user, token, refreshToken);
+    }
 
-        return response;
+    @Override
+    public LoginResponse refresh(String refreshToken) {
+        if (!refreshTokenService.isEnabled()) {
+            throw new AuthenticationException("Refresh Token 未啟用");
+        }
+
+        // 1. 輪替 Refresh Token（無效或重複使用時拋出例外）
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+
+        // 2. 於家族所屬租戶重新載入使用者（不採用請求的租戶標頭），角色變更於換發時生效
+        User user = findInTenant(rotation.getTenantId(), rotation.getUsername())
+                .filter(u -> u.getStatus() == UserStatus.ACTIVE)
+                .orElseThrow(() -> {
+                    refreshTokenService.revoke(rotation.getRefreshToken());
+                    return new AuthenticationException("使用者不存在或已停用");
+                });
+
+        // 使用者 ID 或租戶與家族不符（帳號已刪除後重建或租戶錯置）時撤銷家族
+        if (!rotation.getUserId().equals(user.getUserId())
+                || !Objects.equals(rotation.getTenantId(), user.getTenantId())) {
+            refreshTokenService.revoke(rotation.getRefreshToken());
+            log.warn("Refresh token family does not match user: familyUserId={}, familyTenantId={}, userId={}, tenantId={}",
+                    rotation.getUserId(), rotation.getTenantId(), user.getUserId(), user.getTenantId());
+            throw new AuthenticationException("Refresh Token 已失效，請重新登入");
+        }
+
+        // 3. 簽發新的 Access Token
+        String token = jwtTokenService.generateToken(createUserContext(user));
+
+        log.debug("Access token refreshed: userId={}", user.getUserId());
+        return createLoginResponse(user, token, rotation.getRefreshToken());
+    }
+
+    /**
+     * 以指定租戶查詢使用者，查詢後還原目前的租戶上下文
+     *
+     * @param tenantId 租戶 ID，null 表示不限租戶
+     * @param username 使用者名稱
+     * @return 使用者 Optional
+     */
+    private Optional<User> findInTenant(Long tenantId, String username) {
+        String previous = TenantContextHolder.getTenantId();
+        if (tenantId != null) {
+            TenantContextHolder.setTenantId(String.valueOf(tenantId));
+        } else {
+            TenantContextHolder.clear();
+        }
+        try {
+            return userRepository.findByUsername(username);
+        } finally {
+            if (previous != null) {
+                TenantContextHolder.setTenantId(previous);
+            } else {
+                TenantContextHolder.clear();
+            }
+        }
+    }
+
+    @Override
+    public void revokeRefreshToken(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
     }
 
     @Override
@@ -112,6 +195,13 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
+    @Override
+    public void logoutAll(Long userId) {
+        // 遞增使用者世代，無需逐一將 Token 加入黑名單
+        jwtTokenService.revokeAllForUser(userId);
+        log.info("User logged out from all devices: userId={}", userId);
+    }
+
     @Override
     public boolean validatePassword(String username, String rawPassword) {
         return userRepository.validatePassword(username, rawPassword);
@@ -119,62 +209,63 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public void recordFailedAttempt(String username) {
-        String attemptsKey = "auth:attempts:" + username;
-        String lockKey = "auth:lock:" + username;
-
-        // 取得當前失敗次數
-        Integer attempts = cacheService.get(attemptsKey, Integer.class);
-        if (attempts == null) {
-            attempts = 0;
-        }
-
-        attempts++;
-        cacheService.set(attemptsKey, attempts, 3600); // 1 小時過期
-
-        log.debug("Failed login attempt for user: {}, attempts: {}", username, attempts);
-
-        // 如果達到最大失敗次數，鎖定帳號
-        if (attempts >= MAX_FAILED_ATTEMPTS) {
-            long lockUntil = System.currentTimeMillis() / 1000 + LOCK_DURATION_SECONDS;
-            cacheService.set(lockKey, lockUntil, LOCK_DURATION_SECONDS);
-            log.warn("Account locked due to too many failed attempts: {}", username);
-        }
+        loginThrottleService.recordFailure(username);
     }
 
     @Override
     public boolean isAccountLocked(String username) {
-        String lockKey = "auth:lock:" + username;
-        Long lockUntil = cacheService.get(lockKey, Long.class);
-        if (lockUntil == null) {
-            return false;
-        }
-
-        long currentTime = System.currentTimeMillis() / 1000;
-        boolean isLocked = lockUntil > currentTime;
+        return loginThrottleService.getLockUntil(username) != null;
+    }
 
-        if (!isLocked) {
-            // 鎖定已過期，清除鎖定狀態
-            cacheService.delete(lockKey);
-            resetFailedAttempts(username);
+    /**
+     * 記錄登入失敗與審計事件
+     */
+    private void recordFailure(String username, User user, String reason) {
+        LoginThrottleService.Outcome outcome = loginThrottleService.recordFailure(username);
+        rejectIfLocked(outcome, username, user);
+        if (outcome.isLockedNow()) {
+            loginAuditPublisher.lockout(username, user);
+        } else {
+            loginAuditPublisher.failure(username, user, reason);
         }
+    }
 
-        return isLocked;
+    /**
+     * 解鎖時間晚於目前時間才視為鎖定
+     */
+    private static boolean isLocked(Long lockUntil, long now) {
+        return lockUntil != null && lockUntil > now;
     }
 
     /**
-     * 取得鎖定結束時間
+     * 記錄前帳號已被鎖定時拒絕登入（鎖定優先於密碼驗證結果）
      */
-    private Long getLockUntil(String username) {
-        String lockKey = "auth:lock:" + username;
-        return cacheService.get(lockKey, Long.class);
+    private void rejectIfLocked(LoginThrottleService.Outcome outcome, String username, User user) {
+        if (outcome.isAlreadyLocked()) {
+            loginAuditPublisher.failure(username, user, LoginAuditEvent.ACCOUNT_LOCKED);
+            throw new AccountLockedException("帳號已被鎖定", outcome.getLockUntil());
+        }
     }
 
     /**
-     * 重置失敗嘗試次數
+     * 建構登入回應
      */
-    private void resetFailedAttempts(String username) {
-        String attemptsKey = "auth:attempts:" + username;
-        cacheService.delete(attemptsKey);
+    private LoginResponse createLoginResponse(User user, String token, String refreshToken) {
+        long expiresIn = jwtConfig.getExpiration();
+        LoginResponse response = new LoginResponse();
+        response.setToken(token);
+        response.setTokenType("Bearer");
+        response.setExpiresIn(expiresIn);
+        response.setExpiresAt(LocalDateTime.now().plusSeconds(expiresIn));
+        if (refreshToken != null) {
+            response.setRefreshToken(refreshToken);
+            response.setRefreshExpiresIn(refreshTokenService.getTtlSeconds());
+        }
+        response.setUserId(user.getUserId());
+        response.setUsername(user.getUsername());
+        response.setTenantId(user.getTenantId());
+        response.setRoles(user.getRoles());
+        return response;
     }
 
     /**
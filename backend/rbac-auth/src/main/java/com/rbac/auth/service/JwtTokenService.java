@@ -1,6 +1,9 @@
 package com.rbac.auth.service;
 
 import com.rbac.auth.context.UserContext;
+import com.rbac.auth.model.VerifiedToken;
+
+import java.util.Optional;
 
 /**
  * JWT Token 服務介面
@@ -28,6 +31,17 @@ public interface JwtTokenService {
      */
     boolean validateToken(String token);
 
+    /**
+     * 一次完成 Token 的簽章驗證、過期與黑名單檢查並解析出 UserContext
+     *
+     * <p>請求熱路徑應使用此方法取代 {@link #validateToken(String)} 加
+     * {@link #extractUserContext(String)} 的組合，避免重複驗證與解析</p>
+     *
+     * @param token JWT Token
+     * @return 驗證通過的 Token，若無效、過期或已撤銷則返回 empty
+     */
+    Optional<VerifiedToken> verifyToken(String token);
+
     /**
      * 從 Token 提取 Claims
      *
@@ -60,6 +74,20 @@ public interface JwtTokenService {
      */
     void addToBlacklist(String jti, long ttlSeconds);
 
+    /**
+     * 撤銷使用者所有已簽發的 Token（遞增使用者世代）
+     *
+     * @param userId 使用者 ID
+     */
+    void revokeAllForUser(Long userId);
+
+    /**
+     * 撤銷租戶下所有已簽發的 Token（遞增租戶世代）
+     *
+     * @param tenantId 租戶 ID
+     */
+    void revokeAllForTenant(Long tenantId);
+
     /**
      * 計算 Token 剩餘有效期
      *
@@ -1,23 +1,39 @@
 package com.rbac.auth.service;
 
+import com.rbac.auth.cache.VerifiedTokenCache;
 import com.rbac.auth.config.JwtConfig;
 import com.rbac.auth.context.UserContext;
+import com.rbac.auth.key.JwtKeyRing;
+import com.rbac.auth.model.VerifiedToken;
+import com.rbac.auth.revocation.LocalRevocationSet;
+import com.rbac.auth.revocation.RevocationSyncService;
+import com.rbac.auth.revocation.TokenEpochService;
+import com.rbac.auth.token.CompactTokenDecoder;
+import com.rbac.auth.token.RoleDictionary;
 import com.rbac.common.redis.util.CacheService;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * JWT Token 服務實作
  *
+ * <p>簽章金鑰與 JwtParser 由 {@link JwtKeyRing} 在啟動時建立一次並重複使用，避免每次請求重建；
+ * 驗證結果以 Token 摘要快取於 {@link VerifiedTokenCache}，重複使用的 Token 不再重新驗證簽章；
+ * 黑名單檢查先經過 {@link LocalRevocationSet}，只有本地過濾命中時才查詢 Redis；
+ * Token 帶有使用者與租戶世代，與 {@link TokenEpochService} 的目前世代比較以支援批次撤銷；
+ * 快取未命中時優先以 {@link CompactTokenDecoder} 解碼本服務簽發的 HS256 Token，其餘格式交由 jjwt；
+ * 啟用角色遮罩時以 {@link RoleDictionary} 將角色編碼為 rb Claim</p>
+ *
  * @author CHANG SHOU-WEN, AI-Enhanced
  * @since 2025/11/25
  */
@@ -26,15 +42,30 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class JwtTokenServiceImpl implements JwtTokenService {
 
-    private final JwtConfig jwtConfig;
-    private final CacheService cacheService;
+    /**
+     * 使用者世代 Claim
+     */
+    static final String CLAIM_USER_EPOCH = "uev";
 
     /**
-     * JWT 密鑰
+     * 租戶世代 Claim
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes());
-    }
+    static final String CLAIM_TENANT_EPOCH = "tev";
+
+    /**
+     * 角色位元遮罩 Claim
+     */
+    static final String CLAIM_ROLE_MASK = "rb";
+
+    private final JwtConfig jwtConfig;
+    private final CacheService cacheService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final LocalRevocationSet localRevocationSet;
+    private final RevocationSyncService revocationSyncService;
+    private final TokenEpochService tokenEpochService;
+    private final JwtKeyRing jwtKeyRing;
+    private final CompactTokenDecoder compactTokenDecoder;
+    private final RoleDictionary roleDictionary;
 
     @Override
     public String generateToken(UserContext userContext) {
@@ -42,7 +73,7 @@ public class JwtTokenServiceImpl implements JwtTokenService {
         Instant expiration = now.plus(jwtConfig.getExpiration(), ChronoUnit.SECONDS);
         String jti = UUID.randomUUID().toString();
 
-        String token = Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .header()
                     .type("JWT")
                     .and()
@@ -53,79 +84,210 @@ public class JwtTokenServiceImpl implements JwtTokenService {
                 .expiration(Date.from(expiration))
                 .claim("user_id", userContext.getUserId())
                 .claim("tenant_id", userContext.getTenantId())
-                .claim("username", userContext.getUsername())
-                .claim("roles", userContext.getRoles())
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
-                .compact();
+                .claim("username", userContext.getUsername());
+
+        // 角色：啟用時以租戶角色字典的位元遮罩取代名稱清單，配號失敗時仍使用名稱清單
+        String roleMask = encodeRoles(userContext);
+        if (roleMask != null) {
+            builder.claim(CLAIM_ROLE_MASK, roleMask);
+        } else {
+            builder.claim("roles", userContext.getRoles());
+        }
+
+        builder.claim(CLAIM_USER_EPOCH, tokenEpochService.freshUserEpoch(userContext.getUserId()))
+                .claim(CLAIM_TENANT_EPOCH, tokenEpochService.freshTenantEpoch(userContext.getTenantId()));
+        String token = jwtKeyRing.sign(builder).compact();
 
         log.debug("Generated JWT token for user: {}, jti: {}", userContext.getUsername(), jti);
         return token;
     }
 
     @Override
-    public boolean validateToken(String token) {
-        try {
-            Claims claims = extractClaims(token);
-
-            // 檢查是否過期
-            if (claims.getExpiration().before(new Date())) {
-                log.debug("Token expired");
-                return false;
+    public Optional<VerifiedToken> verifyToken(String token) {
+        // 快取命中：跳過簽章驗證與解析，但仍須檢查世代與黑名單
+        VerifiedToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            if (isEpochRevoked(cached)) {
+                log.debug("Token epoch revoked: {}", cached.getJti());
+                verifiedTokenCache.invalidateJti(cached.getJti());
+                return Optional.empty();
+            }
+            if (isTokenBlacklisted(cached.getJti())) {
+                log.debug("Token is blacklisted: {}", cached.getJti());
+                verifiedTokenCache.invalidateJti(cached.getJti());
+                return Optional.empty();
             }
+            return Optional.of(cached);
+        }
 
-            // 檢查是否在黑名單中
-            String jti = claims.getId();
-            if (isTokenBlacklisted(jti)) {
-                log.debug("Token is blacklisted: {}", jti);
-                return false;
+        // 快速路徑：本服務簽發的 HS256 Token 直接解碼；其他格式改用 jjwt 完整解析
+        VerifiedToken verified = compactTokenDecoder.decode(token);
+        if (verified == CompactTokenDecoder.REJECTED) {
+            log.debug("Token signature mismatch");
+            return Optional.empty();
+        }
+        if (verified == null) {
+            verified = parseWithJjwt(token);
+            if (verified == null) {
+                return Optional.empty();
             }
+        }
 
-            return true;
+        // 檢查是否過期（jjwt 已檢查 exp，此處同時涵蓋快速路徑）
+        if (verified.isExpiredAt(Instant.now())) {
+            log.debug("Token expired");
+            return Optional.empty();
+        }
+
+        // 檢查是否在黑名單中
+        String jti = verified.getJti();
+        if (jti == null || isTokenBlacklisted(jti)) {
+            log.debug("Token is blacklisted: {}", jti);
+            return Optional.empty();
+        }
+
+        // 檢查是否已被批次撤銷
+        if (isEpochRevoked(verified)) {
+            log.debug("Token epoch revoked: {}", jti);
+            return Optional.empty();
+        }
+        verifiedTokenCache.put(token, verified);
+        return Optional.of(verified);
+    }
+
+    /**
+     * 以 jjwt 驗證簽章並解析 Claims
+     *
+     * @return 已驗證的 Token，若簽章無效、格式錯誤或已過期返回 null
+     */
+    private VerifiedToken parseWithJjwt(String token) {
+        try {
+            Claims claims = extractClaims(token);
+            Date issuedAt = claims.getIssuedAt();
+            Date expiration = claims.getExpiration();
+            return new VerifiedToken(
+                    claims,
+                    toUserContext(claims),
+                    claims.getId(),
+                    issuedAt != null ? issuedAt.toInstant() : null,
+                    expiration != null ? expiration.toInstant() : null,
+                    epochClaim(claims, CLAIM_USER_EPOCH),
+                    epochClaim(claims, CLAIM_TENANT_EPOCH));
         } catch (ExpiredJwtException e) {
             log.debug("Token expired: {}", e.getMessage());
-            return false;
+            return null;
         } catch (JwtException | IllegalArgumentException e) {
             log.debug("Invalid token: {}", e.getMessage());
-            return false;
+            return null;
         }
     }
 
+    @Override
+    public boolean validateToken(String token) {
+        return verifyToken(token).isPresent();
+    }
+
     @Override
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return jwtKeyRing.parser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
     @Override
     public UserContext extractUserContext(String token) {
-        Claims claims = extractClaims(token);
+        return toUserContext(extractClaims(token));
+    }
 
+    /**
+     * 由已驗證的 Claims 建立 UserContext
+     */
+    @SuppressWarnings("unchecked")
+    private UserContext toUserContext(Claims claims) {
         UserContext context = new UserContext();
         context.setUserId(claims.get("user_id", Long.class));
         context.setTenantId(claims.get("tenant_id", Long.class));
         context.setUsername(claims.get("username", String.class));
-        context.setRoles(claims.get("roles", java.util.List.class));
+        String roleMask = claims.get(CLAIM_ROLE_MASK, String.class);
+        if (roleMask != null) {
+            List<String> roles = roleDictionary.decode(context.getTenantId(), roleMask);
+            if (roles == null) {
+                throw new MalformedJwtException("Unresolvable role mask: " + roleMask);
+            }
+            context.setRoles(roles);
+        } else {
+            List<String> roles = claims.get("roles", List.class);
+            context.setRoles(roles != null ? Collections.unmodifiableList(roles) : null);
+        }
         context.setJti(claims.getId());
-
         return context;
     }
 
+    /**
+     * 以租戶角色字典編碼角色，未啟用或無法編碼時返回 null
+     */
+    private String encodeRoles(UserContext userContext) {
+        List<String> roles = userContext.getRoles();
+        if (!roleDictionary.isEnabled() || roles == null || roles.isEmpty()) {
+            return null;
+        }
+        return roleDictionary.encode(userContext.getTenantId(), roles);
+    }
+
+    /**
+     * 讀取世代 Claim，未帶世代的舊 Token 視為世代 0
+     */
+    private static long epochClaim(Claims claims, String name) {
+        Number epoch = claims.get(name, Number.class);
+        return epoch != null ? epoch.longValue() : 0L;
+    }
+
+    /**
+     * Token 世代小於使用者或租戶目前世代即視為已撤銷
+     */
+    private boolean isEpochRevoked(VerifiedToken verified) {
+        return verified.getUserEpoch() < tokenEpochService.currentUserEpoch(verified.getUserId())
+                || verified.getTenantEpoch() < tokenEpochService.currentTenantEpoch(verified.getTenantId());
+    }
+
     @Override
     public boolean isTokenBlacklisted(String jti) {
-        String blacklistKey = "auth:blacklist:" + jti;
+        // 本地過濾未命中：一定未撤銷，無需存取 Redis
+        if (!localRevocationSet.mightBeRevoked(jti)) {
+            return false;
+        }
+        if (localRevocationSet.isRevoked(jti)) {
+            return true;
+        }
+        // 誤判或尚未同步，以 Redis 為準
+        String blacklistKey = RevocationSyncService.BLACKLIST_PREFIX + jti;
         return cacheService.exists(blacklistKey);
     }
 
     @Override
     public void addToBlacklist(String jti, long ttlSeconds) {
-        String blacklistKey = "auth:blacklist:" + jti;
+        String blacklistKey = RevocationSyncService.BLACKLIST_PREFIX + jti;
         cacheService.set(blacklistKey, "blacklisted", ttlSeconds);
+
+        long exp = Instant.now().getEpochSecond() + ttlSeconds;
+        localRevocationSet.add(jti, exp);
+        verifiedTokenCache.invalidateJti(jti);
+        revocationSyncService.publish(jti, exp);
         log.debug("Added token to blacklist: {}, TTL: {}s", jti, ttlSeconds);
     }
 
+    @Override
+    public void revokeAllForUser(Long userId) {
+        long epoch = tokenEpochService.revokeUser(userId);
+        log.info("Revoked all tokens for user: {}, epoch: {}", userId, epoch);
+    }
+
+    @Override
+    public void revokeAllForTenant(Long tenantId) {
+        long epoch = tokenEpochService.revokeTenant(tenantId);
+        log.info("Revoked all tokens for tenant: {}, epoch: {}", tenantId, epoch);
+    }
+
     @Override
     public long calculateRemainingValidity(String token) {
         try {
@@ -138,4 +300,4 @@ public class JwtTokenServiceImpl implements JwtTokenService {
             return 0;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,321 @@
+package com.rbac.auth.tenant;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rbac.auth.config.TenantRegistryConfig;
+import com.rbac.auth.repository.mapper.TenantMapper;
+import com.rbac.auth.repository.mapper.TenantStatusRow;
+import com.rbac.common.core.exception.TenantException;
+import com.rbac.common.core.util.BloomFilter;
+import com.rbac.common.web.filter.TenantValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 租戶登錄表
+ *
+ * <p>實作 {@link TenantValidator}，由 TenantFilter / RequestPreambleFilter 在格式驗證後逐請求呼叫，
+ * 只查詢本地狀態即拒絕不存在或停用的租戶：</p>
+ *
+ * <ul>
+ *   <li>Bloom Filter：所有租戶的 ID 與編碼，未命中即為不存在的租戶</li>
+ *   <li>狀態快取：鍵為租戶 ID 或編碼，Optional.empty() 表示不存在（Bloom Filter 誤判）；
+ *       只有誤判的第一次查詢會存取資料庫</li>
+ *   <li>啟動完成後與定期（rbac.auth.tenant-registry.resync-interval）由 sys_tenant 全量載入</li>
+ *   <li>租戶新增或變更時由 {@link #publishChange(Long)} 透過 Redis pub/sub 通知各節點重新讀取該租戶</li>
+ * </ul>
+ *
+ * <p>驗證通過時返回標準租戶 ID：以租戶編碼指定的請求（標頭或子網域）轉為數值租戶 ID，
+ * 過濾器以此設定租戶上下文，租戶條件、使用者快取鍵與租戶頻率限制因此只有一種鍵</p>
+ *
+ * <p>首次載入完成前或資料庫無法使用時放行，只保留格式驗證，避免登錄表問題造成全站拒絕；
+ * 此時租戶編碼仍會嘗試轉換（每個編碼至多查詢資料庫一次），無法轉換時原樣返回，
+ * 依非數值租戶查詢的使用者視為不存在</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Service
+@Profile("!dev")
+public class TenantRegistry implements TenantValidator, MessageListener {
+
+    /**
+     * Micrometer 快取名稱
+     */
+    public static final String CACHE_NAME = "tenant";
+
+    private static final int STATUS_ACTIVE = 1;
+
+    private final TenantMapper tenantMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final TenantRegistryConfig config;
+
+    /**
+     * 租戶狀態快取，鍵為租戶 ID 或編碼
+     */
+    private final Cache<String, Optional<TenantStatusRow>> statusCache;
+
+    /**
+     * 全量載入期間收到變更通知的租戶 ID，載入完成後重新讀取，避免被較舊的快照覆蓋
+     */
+    private final Set<Long> changedDuringReload = ConcurrentHashMap.newKeySet();
+
+    private final Counter unknownCounter;
+    private final Counter suspendedCounter;
+
+    /**
+     * 已知租戶鍵，null 表示尚未完成首次載入
+     */
+    private volatile BloomFilter knownTenants;
+
+    public TenantRegistry(TenantMapper tenantMapper,
+                          StringRedisTemplate stringRedisTemplate,
+                          RedisMessageListenerContainer listenerContainer,
+                          TenantRegistryConfig config,
+                          MeterRegistry meterRegistry) {
+        this.tenantMapper = tenantMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.config = config;
+        this.statusCache = Caffeine.newBuilder()
+                .maximumSize(config.getCacheMaxSize())
+                .expireAfterWrite(config.getCacheTtl(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+
+        this.unknownCounter = Counter.builder("auth.tenant.rejected")
+                .tag("reason", "unknown")
+                .description("Requests rejected because the tenant does not exist")
+                .register(meterRegistry);
+        this.suspendedCounter = Counter.builder("auth.tenant.rejected")
+                .tag("reason", "suspended")
+                .description("Requests rejected because the tenant is disabled or expired")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, statusCache, CACHE_NAME);
+    }
+
+    @Override
+    public String validate(String tenantId) {
+        if (!config.isEnabled()) {
+            return tenantId;
+        }
+        BloomFilter filter = knownTenants;
+        if (filter == null) {
+            // 首次載入前放行，只轉換租戶編碼
+            Optional<TenantStatusRow> row = isNumeric(tenantId) ? null : lookup(tenantId);
+            return row != null && row.isPresent() ? String.valueOf(row.get().getTenantId()) : tenantId;
+        }
+        if (!filter.mightContain(tenantId)) {
+            unknownCounter.increment();
+            throw new TenantException("TENANT_UNKNOWN", "Tenant does not exist");
+        }
+
+        Optional<TenantStatusRow> row = lookup(tenantId);
+        if (row == null) {
+            return tenantId;
+        }
+        if (row.isEmpty()) {
+            unknownCounter.increment();
+            throw new TenantException("TENANT_UNKNOWN", "Tenant does not exist");
+        }
+        if (!isActive(row.get(), LocalDateTime.now())) {
+            suspendedCounter.increment();
+            throw new TenantException("TENANT_SUSPENDED", "Tenant is disabled or expired");
+        }
+        return String.valueOf(row.get().getTenantId());
+    }
+
+    /**
+     * 廣播租戶變更（新增、停用、啟用、刪除），本節點立即生效
+     *
+     * @param tenantId 租戶 ID
+     */
+    public void publishChange(Long tenantId) {
+        refresh(tenantId);
+        try {
+            stringRedisTemplate.convertAndSend(config.getChannel(), String.valueOf(tenantId));
+        } catch (Exception e) {
+            // 其他節點將在下次定期載入時補上
+            log.warn("Failed to publish tenant change for {}: {}", tenantId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            refresh(Long.parseLong(body));
+            log.debug("Received tenant change: {}", body);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed tenant change message: {}", body);
+        } catch (Exception e) {
+            log.warn("Failed to refresh tenant {}: {}", body, e.getMessage());
+        }
+    }
+
+    /**
+     * 啟動完成後訂閱變更頻道並載入登錄表
+     *
+     * <p>先註冊監聽器再載入；訂閱由已啟動的監聽容器建立，Redis 無法連線時由容器自動重試，
+     * 訂閱生效前遺失的變更由定期全量載入補上</p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!config.isEnabled()) {
+            log.info("Tenant registry disabled, only tenant ID format is validated");
+            return;
+        }
+        try {
+            listenerContainer.addMessageListener(this, new ChannelTopic(config.getChannel()));
+        } catch (Exception e) {
+            // 其他節點的變更於下次定期載入後生效
+            log.warn("Failed to subscribe to tenant changes: {}", e.getMessage());
+        }
+        reload();
+    }
+
+    /**
+     * 定期由 sys_tenant 全量載入
+     */
+    @Scheduled(initialDelayString = "${rbac.auth.tenant-registry.resync-interval:PT10M}",
+            fixedDelayString = "${rbac.auth.tenant-registry.resync-interval:PT10M}")
+    public void reload() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            changedDuringReload.clear();
+            List<TenantStatusRow> rows = tenantMapper.selectAll();
+
+            Map<String, Optional<TenantStatusRow>> snapshot = new HashMap<>(rows.size() * 4);
+            for (TenantStatusRow row : rows) {
+                snapshot.put(String.valueOf(row.getTenantId()), Optional.of(row));
+                if (row.getTenantCode() != null) {
+                    snapshot.put(row.getTenantCode(), Optional.of(row));
+                }
+            }
+            BloomFilter fresh = BloomFilter.create(
+                    Math.max(config.getExpectedInsertions(), snapshot.size() * 2L), config.getFalsePositiveRate());
+            snapshot.keySet().forEach(fresh::put);
+
+            statusCache.putAll(snapshot);
+            statusCache.asMap().keySet().removeIf(key -> !snapshot.containsKey(key));
+            boolean firstLoad = knownTenants == null;
+            this.knownTenants = fresh;
+
+            changedDuringReload.forEach(this::refresh);
+
+            if (firstLoad) {
+                log.info("Tenant registry loaded: {} tenants", rows.size());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to load tenant registry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 重新讀取單一租戶並更新 Bloom Filter 與狀態快取
+     *
+     * @param tenantId 租戶 ID
+     */
+    private void refresh(Long tenantId) {
+        changedDuringReload.add(tenantId);
+        String key = String.valueOf(tenantId);
+        TenantStatusRow row = tenantMapper.selectById(tenantId);
+
+        // 編碼可能已變更，移除舊編碼的條目
+        Optional<TenantStatusRow> previous = statusCache.getIfPresent(key);
+        if (previous != null && previous.isPresent() && previous.get().getTenantCode() != null) {
+            statusCache.invalidate(previous.get().getTenantCode());
+        }
+
+        statusCache.put(key, Optional.ofNullable(row));
+        BloomFilter filter = knownTenants;
+        if (row != null && filter != null) {
+            filter.put(key);
+        }
+        if (row != null && row.getTenantCode() != null) {
+            statusCache.put(row.getTenantCode(), Optional.of(row));
+            if (filter != null) {
+                filter.put(row.getTenantCode());
+            }
+        }
+    }
+
+    /**
+     * 查詢狀態快取，未命中時由資料庫讀取並寫入快取
+     *
+     * <p>不在 Caffeine 的 compute 內查詢資料庫，避免虛擬執行緒佔住載體執行緒</p>
+     *
+     * @param key 租戶 ID 或編碼
+     * @return 租戶狀態列，不存在時為空；資料庫無法使用時返回 null，呼叫端放行
+     */
+    private Optional<TenantStatusRow> lookup(String key) {
+        Optional<TenantStatusRow> row = statusCache.getIfPresent(key);
+        if (row != null) {
+            return row;
+        }
+        try {
+            row = load(key);
+        } catch (Exception e) {
+            log.warn("Failed to load tenant {}, skipping existence check: {}", key, e.getMessage());
+            return null;
+        }
+        statusCache.put(key, row);
+        return row;
+    }
+
+    /**
+     * 由資料庫讀取 Bloom Filter 誤判的租戶鍵
+     *
+     * @param key 租戶 ID 或編碼
+     * @return 租戶狀態列，不存在時為空
+     */
+    private Optional<TenantStatusRow> load(String key) {
+        TenantStatusRow row = isNumeric(key)
+                ? tenantMapper.selectById(Long.parseLong(key))
+                : tenantMapper.selectByCode(key);
+        return Optional.ofNullable(row);
+    }
+
+    private static boolean isActive(TenantStatusRow row, LocalDateTime now) {
+        return row.getStatus() != null && row.getStatus() == STATUS_ACTIVE
+                && (row.getExpireTime() == null || row.getExpireTime().isAfter(now));
+    }
+
+    private static boolean isNumeric(String key) {
+        if (key.isEmpty() || key.length() > 18) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (!Character.isDigit(key.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,222 @@
+package com.rbac.auth.throttle;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登入節流服務
+ *
+ * <p>鎖定檢查、失敗計數、達上限鎖定與成功重置以單一 Lua 腳本原子完成，
+ * 每次登入只需一次 Redis 往返，並發的失敗嘗試也能正確計數：</p>
+ *
+ * <ul>
+ *   <li>失敗次數：auth:attempts:{username}，每次失敗重設 1 小時存活時間</li>
+ *   <li>鎖定：auth:lock:{username}，值為解鎖時間（Unix 秒），存活時間 15 分鐘</li>
+ *   <li>本地鎖定快取：腳本回報鎖定後記錄於本地直到解鎖時間，
+ *       同一節點上的後續嘗試不再查詢 Redis，也不執行密碼驗證</li>
+ * </ul>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Service
+public class LoginThrottleService {
+
+    /**
+     * 失敗次數鍵前綴
+     */
+    public static final String ATTEMPTS_PREFIX = "auth:attempts:";
+
+    /**
+     * 鎖定鍵前綴
+     */
+    public static final String LOCK_PREFIX = "auth:lock:";
+
+    /**
+     * 連續失敗上限，達到時鎖定帳號
+     */
+    public static final int MAX_FAILED_ATTEMPTS = 5;
+
+    /**
+     * 鎖定時間（秒），15 分鐘
+     */
+    public static final long LOCK_DURATION_SECONDS = 900;
+
+    private static final long ATTEMPTS_TTL_SECONDS = 3600; // 1 小時
+
+    /**
+     * 本地鎖定快取上限
+     */
+    private static final long LOCAL_LOCK_MAX_SIZE = 100_000L;
+
+    /**
+     * 記錄登入結果
+     *
+     * <p>KEYS[1] 失敗次數鍵、KEYS[2] 鎖定鍵；ARGV[1] 是否成功、ARGV[2] 失敗上限、
+     * ARGV[3] 失敗次數存活時間、ARGV[4] 鎖定時間、ARGV[5] 目前時間（Unix 秒）</p>
+     * <p>返回 {狀態, 解鎖時間, 失敗次數}，狀態 0 未鎖定、1 本次失敗觸發鎖定、2 已鎖定</p>
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RECORD_SCRIPT = new DefaultRedisScript<>(
+            "local lockUntil = redis.call('GET', KEYS[2])\n"
+            + "if lockUntil then return {2, tonumber(lockUntil), 0} end\n"
+            + "if ARGV[1] == '1' then\n"
+            + "  redis.call('DEL', KEYS[1])\n"
+            + "  return {0, 0, 0}\n"
+            + "end\n"
+            + "local attempts = redis.call('INCR', KEYS[1])\n"
+            + "redis.call('EXPIRE', KEYS[1], ARGV[3])\n"
+            + "if attempts >= tonumber(ARGV[2]) then\n"
+            + "  local untilTs = tonumber(ARGV[5]) + tonumber(ARGV[4])\n"
+            + "  redis.call('SET', KEYS[2], untilTs, 'EX', ARGV[4])\n"
+            + "  redis.call('DEL', KEYS[1])\n"
+            + "  return {1, untilTs, attempts}\n"
+            + "end\n"
+            + "return {0, 0, attempts}",
+            List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 本地鎖定快取，值為解鎖時間（Unix 秒），於解鎖時間自動過期
+     */
+    private final Cache<String, Long> localLocks;
+
+    public LoginThrottleService(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.localLocks = Caffeine.newBuilder()
+                .maximumSize(LOCAL_LOCK_MAX_SIZE)
+                .expireAfter(new LockExpiry())
+                .build();
+    }
+
+    /**
+     * 以本地快取檢查帳號是否已知被鎖定（不存取 Redis）
+     *
+     * @param username 使用者名稱
+     * @return 解鎖時間（Unix 秒），未知鎖定返回 null
+     */
+    public Long getKnownLockUntil(String username) {
+        return localLocks.getIfPresent(username);
+    }
+
+    /**
+     * 查詢帳號是否被鎖定（以 Redis 為準）
+     *
+     * @param username 使用者名稱
+     * @return 解鎖時間（Unix 秒），未鎖定返回 null
+     */
+    public Long getLockUntil(String username) {
+        String value = stringRedisTemplate.opsForValue().get(LOCK_PREFIX + username);
+        if (value == null) {
+            localLocks.invalidate(username);
+            return null;
+        }
+        long lockUntil = Long.parseLong(value);
+        localLocks.put(username, lockUntil);
+        return lockUntil;
+    }
+
+    /**
+     * 記錄登入成功：未鎖定時重置失敗次數
+     *
+     * @param username 使用者名稱
+     * @return 記錄結果
+     */
+    public Outcome recordSuccess(String username) {
+        return record(username, true);
+    }
+
+    /**
+     * 記錄登入失敗：遞增失敗次數，達上限時鎖定帳號
+     *
+     * @param username 使用者名稱
+     * @return 記錄結果
+     */
+    public Outcome recordFailure(String username) {
+        return record(username, false);
+    }
+
+    private Outcome record(String username, boolean success) {
+        long now = System.currentTimeMillis() / 1000;
+        List<?> result = stringRedisTemplate.execute(
+                RECORD_SCRIPT,
+                List.of(ATTEMPTS_PREFIX + username, LOCK_PREFIX + username),
+                success ? "1" : "0",
+                String.valueOf(MAX_FAILED_ATTEMPTS),
+                String.valueOf(ATTEMPTS_TTL_SECONDS),
+                String.valueOf(LOCK_DURATION_SECONDS),
+                String.valueOf(now));
+
+        int status = result != null ? ((Number) result.get(0)).intValue() : 0;
+        long lockUntil = result != null ? ((Number) result.get(1)).longValue() : 0L;
+        long attempts = result != null ? ((Number) result.get(2)).longValue() : 0L;
+
+        if (status != 0) {
+            localLocks.put(username, lockUntil);
+        }
+        if (status == 1) {
+            log.warn("Account locked due to too many failed attempts: {}", username);
+        } else if (!success && status == 0) {
+            log.debug("Failed login attempt for user: {}, attempts: {}", username, attempts);
+        }
+        return new Outcome(status == 2, status == 1, lockUntil);
+    }
+
+    /**
+     * 登入結果記錄
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Outcome {
+
+        /**
+         * 記錄前帳號已被鎖定（本次嘗試不計入）
+         */
+        private final boolean alreadyLocked;
+
+        /**
+         * 本次失敗觸發鎖定
+         */
+        private final boolean lockedNow;
+
+        /**
+         * 解鎖時間（Unix 秒），未鎖定為 0
+         */
+        private final long lockUntil;
+    }
+
+    /**
+     * 本地鎖定條目於解鎖時間過期
+     */
+    private static final class LockExpiry implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String key, Long lockUntil, long currentTime) {
+            long remainingSeconds = Math.max(0L, lockUntil - System.currentTimeMillis() / 1000);
+            return TimeUnit.SECONDS.toNanos(remainingSeconds);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Long lockUntil, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, lockUntil, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Long lockUntil, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
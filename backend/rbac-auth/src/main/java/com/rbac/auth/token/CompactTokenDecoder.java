@@ -0,0 +1,352 @@
+package com.rbac.auth.token;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.rbac.auth.config.JwtConfig;
+import com.rbac.auth.context.UserContext;
+import com.rbac.auth.key.JwtKeyRing;
+import com.rbac.auth.model.VerifiedToken;
+import io.jsonwebtoken.Jwts;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 本系統 HS256 Token 專用解碼器
+ *
+ * <p>只處理本服務簽發的 Token 格式（固定標頭與固定 Claims），
+ * 驗證 HMAC 後以 Jackson 串流 API 直接解碼為 {@link UserContext}，
+ * 不經過 jjwt 的泛型 Map 與 Claims 轉換，減少熱路徑上的物件配置。
+ * 角色遮罩（rb Claim）經由 {@link RoleDictionary} 的本地快取還原為角色名稱。</p>
+ *
+ * <p>以下情況返回 null，由呼叫端改用 jjwt 完整解析：</p>
+ * <ul>
+ *   <li>未設定 HMAC 密鑰或停用（rbac.auth.jwt.fast-decoder-enabled=false）</li>
+ *   <li>標頭與本服務簽發的標頭不完全相同（例如帶 kid 或其他演算法）</li>
+ *   <li>Payload 出現未知 Claim（例如 nbf）或型別不符</li>
+ * </ul>
+ *
+ * <p>標頭與本服務簽發的標頭完全相同但簽章不符時返回 {@link #REJECTED}，呼叫端應直接拒絕，
+ * 不再交由 jjwt 重新解析：此標頭不帶 kid，jjwt 也只會以同一把 HMAC 密鑰驗證，結果必然相同，
+ * 重複驗證只會讓偽造 Token 的成本加倍</p>
+ *
+ * <p>快速路徑回傳的 {@link VerifiedToken#getClaims()} 為 null</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Component
+public class CompactTokenDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final Base64.Decoder BASE64URL_DECODER = Base64.getUrlDecoder();
+
+    private static final Base64.Encoder BASE64URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    /**
+     * 簽章不符時的回傳值，以參考相等判斷；到期時間為 epoch，即使誤用也視為已過期
+     */
+    public static final VerifiedToken REJECTED = new VerifiedToken(null, null, null, null, Instant.EPOCH, 0L, 0L);
+
+    private final JwtKeyRing jwtKeyRing;
+    private final RoleDictionary roleDictionary;
+    private final boolean enabled;
+
+    /**
+     * 依目前 HMAC 密鑰建立的狀態，密鑰重新載入時重建
+     */
+    private volatile State state;
+
+    public CompactTokenDecoder(JwtKeyRing jwtKeyRing, RoleDictionary roleDictionary, JwtConfig jwtConfig) {
+        this.jwtKeyRing = jwtKeyRing;
+        this.roleDictionary = roleDictionary;
+        this.enabled = jwtConfig.isFastDecoderEnabled();
+    }
+
+    /**
+     * 驗證並解碼 Token
+     *
+     * @param token JWT Token
+     * @return 已驗證的 Token；簽章不符時返回 {@link #REJECTED}；無法以快速路徑處理時返回 null
+     */
+    public VerifiedToken decode(String token) {
+        if (!enabled || token == null) {
+            return null;
+        }
+        State current = currentState();
+        if (current == null) {
+            return null;
+        }
+
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (firstDot != current.header.length || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            return null;
+        }
+
+        byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < firstDot; i++) {
+            if (bytes[i] != current.header[i]) {
+                return null;
+            }
+        }
+
+        if (!verifySignature(current, bytes, secondDot)) {
+            return REJECTED;
+        }
+
+        ByteBuffer payload;
+        try {
+            payload = BASE64URL_DECODER.decode(ByteBuffer.wrap(bytes, firstDot + 1, secondDot - firstDot - 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return parsePayload(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining());
+    }
+
+    private State currentState() {
+        SecretKey key = jwtKeyRing.getHmacKey();
+        if (key == null) {
+            return null;
+        }
+        State current = state;
+        if (current == null || current.key != key) {
+            current = new State(key);
+            state = current;
+        }
+        return current;
+    }
+
+    /**
+     * 計算 HMAC 並以 Base64URL 形式與 Token 簽章段做常數時間比較
+     */
+    private static boolean verifySignature(State current, byte[] bytes, int secondDot) {
+        Mac mac = current.newMac();
+        mac.update(bytes, 0, secondDot);
+        byte[] expected = BASE64URL_ENCODER.encode(mac.doFinal());
+
+        int signatureLength = bytes.length - secondDot - 1;
+        if (signatureLength != expected.length) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < expected.length; i++) {
+            diff |= expected[i] ^ bytes[secondDot + 1 + i];
+        }
+        return diff == 0;
+    }
+
+    /**
+     * 以串流方式解析固定格式的 Payload，遇到未知 Claim 或型別不符返回 null
+     */
+    private VerifiedToken parsePayload(byte[] json, int offset, int length) {
+        String jti = null;
+        Long userId = null;
+        Long tenantId = null;
+        String username = null;
+        List<String> roles = null;
+        String roleMask = null;
+        long iat = -1L;
+        long exp = -1L;
+        long userEpoch = 0L;
+        long tenantEpoch = 0L;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(json, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "iss", "sub" -> {
+                        if (value != JsonToken.VALUE_STRING) {
+                            return null;
+                        }
+                    }
+                    case "jti" -> {
+                        if (value != JsonToken.VALUE_STRING) {
+                            return null;
+                        }
+                        jti = parser.getText();
+                    }
+                    case "iat" -> {
+                        if (value != JsonToken.VALUE_NUMBER_INT) {
+                            return null;
+                        }
+                        iat = parser.getLongValue();
+                    }
+                    case "exp" -> {
+                        if (value != JsonToken.VALUE_NUMBER_INT) {
+                            return null;
+                        }
+                        exp = parser.getLongValue();
+                    }
+                    case "user_id" -> {
+                        if (value == JsonToken.VALUE_NUMBER_INT) {
+                            userId = parser.getLongValue();
+                        } else if (value != JsonToken.VALUE_NULL) {
+                            return null;
+                        }
+                    }
+                    case "tenant_id" -> {
+                        if (value == JsonToken.VALUE_NUMBER_INT) {
+                            tenantId = parser.getLongValue();
+                        } else if (value != JsonToken.VALUE_NULL) {
+                            return null;
+                        }
+                    }
+                    case "username" -> {
+                        if (value == JsonToken.VALUE_STRING) {
+                            username = parser.getText();
+                        } else if (value != JsonToken.VALUE_NULL) {
+                            return null;
+                        }
+                    }
+                    case "roles" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            roles = parseRoles(parser);
+                            if (roles == null) {
+                                return null;
+                            }
+                        } else if (value != JsonToken.VALUE_NULL) {
+                            return null;
+                        }
+                    }
+                    case "rb" -> {
+                        if (value != JsonToken.VALUE_STRING) {
+                            return null;
+                        }
+                        roleMask = parser.getText();
+                    }
+                    case "uev" -> {
+                        if (value != JsonToken.VALUE_NUMBER_INT) {
+                            return null;
+                        }
+                        userEpoch = parser.getLongValue();
+                    }
+                    case "tev" -> {
+                        if (value != JsonToken.VALUE_NUMBER_INT) {
+                            return null;
+                        }
+                        tenantEpoch = parser.getLongValue();
+                    }
+                    default -> {
+                        // 未知 Claim（nbf、aud 等）交由 jjwt 處理，確保語意一致
+                        return null;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+
+        if (exp < 0) {
+            return null;
+        }
+        if (roleMask != null) {
+            roles = roleDictionary.decode(tenantId, roleMask);
+            if (roles == null) {
+                return null;
+            }
+        }
+
+        UserContext context = new UserContext();
+        context.setUserId(userId);
+        context.setTenantId(tenantId);
+        context.setUsername(username);
+        context.setRoles(roles);
+        context.setJti(jti);
+        return new VerifiedToken(
+                null,
+                context,
+                jti,
+                iat >= 0 ? Instant.ofEpochSecond(iat) : null,
+                Instant.ofEpochSecond(exp),
+                userEpoch,
+                tenantEpoch);
+    }
+
+    private static List<String> parseRoles(JsonParser parser) throws IOException {
+        List<String> roles = new ArrayList<>(4);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.VALUE_STRING) {
+                return null;
+            }
+            roles.add(parser.getText());
+        }
+        return Collections.unmodifiableList(roles);
+    }
+
+    /**
+     * 預先計算的標頭位元組與可複製的 Mac 原型
+     */
+    private static final class State {
+
+        final SecretKey key;
+        final byte[] header;
+        private final Mac prototype;
+        private final boolean cloneable;
+
+        State(SecretKey key) {
+            this.key = key;
+            // 以與簽發相同的方式產生一個 Token，取其標頭段作為比對基準
+            String sample = Jwts.builder()
+                    .header()
+                        .type("JWT")
+                        .and()
+                    .subject("probe")
+                    .signWith(key, Jwts.SIG.HS256)
+                    .compact();
+            this.header = sample.substring(0, sample.indexOf('.')).getBytes(StandardCharsets.US_ASCII);
+            this.prototype = createMac(key);
+            this.cloneable = isCloneable(prototype);
+        }
+
+        Mac newMac() {
+            if (cloneable) {
+                try {
+                    return (Mac) prototype.clone();
+                } catch (CloneNotSupportedException e) {
+                    // 不會發生，已於建立時檢查
+                }
+            }
+            return createMac(key);
+        }
+
+        private static Mac createMac(SecretKey key) {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        }
+
+        private static boolean isCloneable(Mac mac) {
+            try {
+                mac.clone();
+                return true;
+            } catch (CloneNotSupportedException e) {
+                log.debug("HmacSHA256 provider does not support clone, creating Mac per call");
+                return false;
+            }
+        }
+    }
+}
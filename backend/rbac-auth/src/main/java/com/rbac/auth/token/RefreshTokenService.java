@@ -0,0 +1,272 @@
+package com.rbac.auth.token;
+
+import com.rbac.auth.config.JwtConfig;
+import com.rbac.auth.context.UserContext;
+import com.rbac.auth.exception.AuthenticationException;
+import com.rbac.auth.revocation.TokenEpochService;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Refresh Token 服務
+ *
+ * <p>Refresh Token 格式為 {familyId}.{secret}，每次登入建立一個家族（family），
+ * 以單一 Redis Hash 儲存：</p>
+ *
+ * <ul>
+ *   <li>鍵：auth:refresh:{familyId}，TTL 為家族有效期（rbac.auth.jwt.refresh.ttl），輪替不延長</li>
+ *   <li>欄位：h（目前 secret 的 SHA-256）、u（使用者名稱）、uid、tid、uev、tev（簽發時世代）</li>
+ * </ul>
+ *
+ * <p>換發時以 Lua 腳本原子比對並替換 h：</p>
+ * <ul>
+ *   <li>相符：寫入新 secret 雜湊，舊 Refresh Token 立即失效</li>
+ *   <li>不符：表示已輪替過的 Refresh Token 被重複使用（可能外洩），刪除整個家族</li>
+ *   <li>不存在：已過期、已登出或已因重複使用被撤銷</li>
+ * </ul>
+ *
+ * <p>家族另記錄簽發時的使用者/租戶世代，「登出所有裝置」後舊家族於下次換發時被拒絕</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    /**
+     * Refresh Token 家族鍵前綴
+     */
+    public static final String REFRESH_PREFIX = "auth:refresh:";
+
+    /**
+     * 原子比對並替換目前 secret 雜湊
+     *
+     * <p>返回 1 成功、0 不存在、-1 重複使用（已刪除家族）</p>
+     */
+    private static final RedisScript<Long> ROTATE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('HGET', KEYS[1], 'h')\n"
+            + "if not current then return 0 end\n"
+            + "if current ~= ARGV[1] then\n"
+            + "  redis.call('DEL', KEYS[1])\n"
+            + "  return -1\n"
+            + "end\n"
+            + "redis.call('HSET', KEYS[1], 'h', ARGV[2])\n"
+            + "return 1",
+            Long.class);
+
+    /**
+     * 原子寫入家族欄位與 TTL，避免 HSET 成功但 EXPIRE 未執行而留下永不過期的家族
+     *
+     * <p>ARGV[1] 為 TTL（秒），其後為欄位與值交錯排列</p>
+     */
+    private static final RedisScript<Long> ISSUE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[1], unpack(ARGV, 2))\n"
+            + "redis.call('EXPIRE', KEYS[1], ARGV[1])\n"
+            + "return 1",
+            Long.class);
+
+    private static final Base64.Encoder BASE64URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final int FAMILY_ID_BYTES = 16;
+    private static final int SECRET_BYTES = 32;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TokenEpochService tokenEpochService;
+    private final JwtConfig jwtConfig;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(StringRedisTemplate stringRedisTemplate,
+                               TokenEpochService tokenEpochService,
+                               JwtConfig jwtConfig) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.tokenEpochService = tokenEpochService;
+        this.jwtConfig = jwtConfig;
+    }
+
+    /**
+     * 是否啟用 Refresh Token
+     *
+     * @return 如果啟用返回 true
+     */
+    public boolean isEnabled() {
+        return jwtConfig.getRefresh().isEnabled();
+    }
+
+    /**
+     * Refresh Token 家族有效期（秒）
+     *
+     * @return 有效期
+     */
+    public long getTtlSeconds() {
+        return jwtConfig.getRefresh().getTtl();
+    }
+
+    /**
+     * 建立新的 Refresh Token 家族
+     *
+     * @param userContext 使用者上下文
+     * @return Refresh Token
+     */
+    public String issue(UserContext userContext) {
+        String familyId = randomToken(FAMILY_ID_BYTES);
+        String secret = randomToken(SECRET_BYTES);
+
+        String key = REFRESH_PREFIX + familyId;
+        stringRedisTemplate.execute(ISSUE_SCRIPT, List.of(key),
+                String.valueOf(getTtlSeconds()),
+                "h", digest(secret),
+                "u", userContext.getUsername(),
+                "uid", String.valueOf(userContext.getUserId()),
+                "tid", String.valueOf(userContext.getTenantId()),
+                "uev", String.valueOf(tokenEpochService.freshUserEpoch(userContext.getUserId())),
+                "tev", String.valueOf(tokenEpochService.freshTenantEpoch(userContext.getTenantId())));
+
+        log.debug("Refresh token family created: family={}, userId={}", familyId, userContext.getUserId());
+        return familyId + "." + secret;
+    }
+
+    /**
+     * 輪替 Refresh Token
+     *
+     * @param refreshToken 目前的 Refresh Token
+     * @return 新 Refresh Token 與家族所屬的使用者（名稱、ID、租戶）
+     * @throws AuthenticationException Refresh Token 無效、已過期、已撤銷或被重複使用
+     */
+    public Rotation rotate(String refreshToken) {
+        String[] parts = split(refreshToken);
+        if (parts == null) {
+            throw new AuthenticationException("Refresh Token 無效");
+        }
+        String familyId = parts[0];
+        String key = REFRESH_PREFIX + familyId;
+        String newSecret = randomToken(SECRET_BYTES);
+
+        Long result = stringRedisTemplate.execute(ROTATE_SCRIPT, List.of(key), digest(parts[1]), digest(newSecret));
+        if (result == null || result == 0L) {
+            throw new AuthenticationException("Refresh Token 無效或已過期");
+        }
+        if (result < 0L) {
+            log.warn("Refresh token reuse detected, family revoked: family={}", familyId);
+            throw new AuthenticationException("Refresh Token 已失效，請重新登入");
+        }
+
+        List<Object> values = stringRedisTemplate.opsForHash().multiGet(key, List.of("u", "uid", "tid", "uev", "tev"));
+        String username = (String) values.get(0);
+        Long userId = parseLong(values.get(1));
+        Long tenantId = parseLong(values.get(2));
+        Long userEpoch = parseLong(values.get(3));
+        Long tenantEpoch = parseLong(values.get(4));
+        if (username == null || userId == null) {
+            // 輪替與刪除之間家族已被撤銷
+            throw new AuthenticationException("Refresh Token 無效或已過期");
+        }
+
+        if ((userEpoch != null && userEpoch < tokenEpochService.freshUserEpoch(userId))
+                || (tenantEpoch != null && tenantEpoch < tokenEpochService.freshTenantEpoch(tenantId))) {
+            stringRedisTemplate.delete(key);
+            log.info("Refresh token family revoked by epoch: family={}, userId={}", familyId, userId);
+            throw new AuthenticationException("Refresh Token 已失效，請重新登入");
+        }
+
+        return new Rotation(familyId + "." + newSecret, username, userId, tenantId);
+    }
+
+    /**
+     * 撤銷 Refresh Token 所屬家族（登出時使用），Token 不符時忽略
+     *
+     * @param refreshToken Refresh Token
+     */
+    public void revoke(String refreshToken) {
+        String[] parts = split(refreshToken);
+        if (parts == null) {
+            return;
+        }
+        String key = REFRESH_PREFIX + parts[0];
+        Object current = stringRedisTemplate.opsForHash().get(key, "h");
+        if (digest(parts[1]).equals(current)) {
+            stringRedisTemplate.delete(key);
+            log.debug("Refresh token family revoked: family={}", parts[0]);
+        }
+    }
+
+    private static String[] split(String refreshToken) {
+        if (refreshToken == null) {
+            return null;
+        }
+        int dot = refreshToken.indexOf('.');
+        if (dot <= 0 || dot == refreshToken.length() - 1 || refreshToken.indexOf('.', dot + 1) >= 0) {
+            return null;
+        }
+        return new String[] {refreshToken.substring(0, dot), refreshToken.substring(dot + 1)};
+    }
+
+    private String randomToken(int bytes) {
+        byte[] buffer = new byte[bytes];
+        secureRandom.nextBytes(buffer);
+        return BASE64URL_ENCODER.encodeToString(buffer);
+    }
+
+    /**
+     * Redis 只保存 secret 的雜湊，資料外洩時無法直接換發
+     */
+    private static String digest(String secret) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return BASE64URL_ENCODER.encodeToString(sha256.digest(secret.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Long parseLong(Object value) {
+        if (value == null || "null".equals(value)) {
+            return null;
+        }
+        try {
+            return Long.parseLong((String) value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 輪替結果
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Rotation {
+
+        /**
+         * 新 Refresh Token
+         */
+        private final String refreshToken;
+
+        /**
+         * 使用者名稱
+         */
+        private final String username;
+
+        /**
+         * 簽發家族時的使用者 ID
+         */
+        private final Long userId;
+
+        /**
+         * 簽發家族時的租戶 ID，換發時以此租戶載入使用者，不採用請求帶入的租戶
+         */
+        private final Long tenantId;
+    }
+}
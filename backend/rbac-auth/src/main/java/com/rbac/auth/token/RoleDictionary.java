@@ -0,0 +1,257 @@
+package com.rbac.auth.token;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.rbac.auth.config.JwtConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 租戶角色字典
+ *
+ * <p>將角色名稱對應為租戶內的固定序號，Token 只攜帶角色序號的位元遮罩（rb Claim），
+ * 取代逐一列出角色名稱的 roles Claim，縮小 Authorization 標頭與解析成本</p>
+ *
+ * <ul>
+ *   <li>字典：Redis Hash auth:roles:{tenantId}，欄位為角色名稱、值為序號；
+ *       另含 ~gen（字典世代）與 ~next（下一個序號）</li>
+ *   <li>配號：以 Lua 腳本原子配發序號，序號只增不減</li>
+ *   <li>世代：建立字典時產生隨機世代並寫入 rb Claim（{世代}.{Base64URL 遮罩}）；
+ *       字典遺失（FLUSH、未持久化的故障轉移、淘汰）後重建會產生新世代，
+ *       舊 Token 的世代不符即無法解碼而被拒絕，不會被解讀為重新配號後的其他角色</li>
+ *   <li>本地快取：每個租戶的字典快取於本地，遇到未知序號或世代不符時重新載入一次</li>
+ * </ul>
+ *
+ * <p>配號失敗（例如 Redis 無法連線）時 {@link #encode} 返回 null，由呼叫端改用 roles Claim。
+ * 未帶世代的 rb Claim 一律無法解碼</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Slf4j
+@Component
+public class RoleDictionary {
+
+    /**
+     * 角色字典鍵前綴
+     */
+    public static final String ROLES_PREFIX = "auth:roles:";
+
+    /**
+     * 字典世代欄位
+     */
+    static final String GENERATION_FIELD = "~gen";
+
+    /**
+     * 下一個序號欄位
+     */
+    static final String NEXT_FIELD = "~next";
+
+    /**
+     * 確保字典世代存在，並為尚未配號的角色配發序號
+     *
+     * <p>ARGV[1] 為字典不存在時使用的新世代，其餘為角色名稱。
+     * 未含 ~next 的既有字典以目前欄位數（皆為角色）作為下一個序號</p>
+     */
+    private static final RedisScript<Long> ASSIGN_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HEXISTS', KEYS[1], '" + NEXT_FIELD + "') == 0 then\n"
+            + "  redis.call('HSET', KEYS[1], '" + NEXT_FIELD + "', redis.call('HLEN', KEYS[1]))\n"
+            + "end\n"
+            + "redis.call('HSETNX', KEYS[1], '" + GENERATION_FIELD + "', ARGV[1])\n"
+            + "for i = 2, #ARGV do\n"
+            + "  if redis.call('HEXISTS', KEYS[1], ARGV[i]) == 0 then\n"
+            + "    redis.call('HSET', KEYS[1], ARGV[i], redis.call('HINCRBY', KEYS[1], '" + NEXT_FIELD + "', 1) - 1)\n"
+            + "  end\n"
+            + "end\n"
+            + "return 1",
+            Long.class);
+
+    private static final int GENERATION_BYTES = 6;
+
+    private static final char GENERATION_SEPARATOR = '.';
+
+    private static final Base64.Encoder BASE64URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder BASE64URL_DECODER = Base64.getUrlDecoder();
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final boolean enabled;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * 租戶字典本地快取，鍵為完整 Redis 鍵
+     */
+    private final LoadingCache<String, Dictionary> dictionaries;
+
+    public RoleDictionary(StringRedisTemplate stringRedisTemplate, JwtConfig jwtConfig) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        JwtConfig.CompactRoles config = jwtConfig.getCompactRoles();
+        this.enabled = config.isEnabled();
+        this.dictionaries = Caffeine.newBuilder()
+                .maximumSize(config.getCacheMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(config.getCacheTtl()))
+                .build(this::load);
+    }
+
+    /**
+     * 是否以角色遮罩簽發 Token
+     *
+     * @return 如果啟用返回 true
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 將角色清單編碼為位元遮罩
+     *
+     * @param tenantId 租戶 ID
+     * @param roles 角色清單
+     * @return {世代}.{Base64URL 位元遮罩}；配號失敗返回 null
+     */
+    public String encode(Long tenantId, List<String> roles) {
+        String key = key(tenantId);
+        BitSet mask = new BitSet();
+        try {
+            Dictionary dictionary = dictionaries.get(key);
+            if (dictionary.generation == null || !dictionary.ids.keySet().containsAll(roles)) {
+                List<String> args = new ArrayList<>(roles.size() + 1);
+                args.add(randomGeneration());
+                args.addAll(roles);
+                stringRedisTemplate.execute(ASSIGN_SCRIPT, List.of(key), args.toArray());
+                // 以重新載入的字典編碼，所有序號與世代皆來自同一份字典
+                dictionary = load(key);
+                dictionaries.put(key, dictionary);
+            }
+            if (dictionary.generation == null) {
+                return null;
+            }
+            for (String role : roles) {
+                Integer id = dictionary.ids.get(role);
+                if (id == null) {
+                    return null;
+                }
+                mask.set(id);
+            }
+            return dictionary.generation + GENERATION_SEPARATOR + BASE64URL_ENCODER.encodeToString(mask.toByteArray());
+        } catch (Exception e) {
+            log.warn("Failed to encode roles for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 將位元遮罩解碼為角色清單
+     *
+     * @param tenantId 租戶 ID
+     * @param encoded {世代}.{Base64URL 位元遮罩}
+     * @return 不可變角色清單；格式錯誤、世代不符或含未知序號返回 null
+     */
+    public List<String> decode(Long tenantId, String encoded) {
+        int separator = encoded.indexOf(GENERATION_SEPARATOR);
+        if (separator <= 0) {
+            return null;
+        }
+        String generation = encoded.substring(0, separator);
+        BitSet mask;
+        try {
+            mask = BitSet.valueOf(BASE64URL_DECODER.decode(encoded.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String key = key(tenantId);
+        try {
+            List<String> roles = resolve(dictionaries.get(key), generation, mask);
+            if (roles == null) {
+                // 其他節點剛配發新序號或字典已重建，重新載入一次
+                Dictionary reloaded = load(key);
+                dictionaries.put(key, reloaded);
+                roles = resolve(reloaded, generation, mask);
+                if (roles == null && !generation.equals(reloaded.generation)) {
+                    log.warn("Role mask generation mismatch for {}: token={}, current={}",
+                            key, generation, reloaded.generation);
+                }
+            }
+            return roles;
+        } catch (Exception e) {
+            log.warn("Failed to decode roles for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private static List<String> resolve(Dictionary dictionary, String generation, BitSet mask) {
+        if (!generation.equals(dictionary.generation)) {
+            return null;
+        }
+        List<String> roles = new ArrayList<>(mask.cardinality());
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+            if (i >= dictionary.names.length || dictionary.names[i] == null) {
+                return null;
+            }
+            roles.add(dictionary.names[i]);
+        }
+        return Collections.unmodifiableList(roles);
+    }
+
+    private Dictionary load(String key) {
+        Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(key);
+        Map<String, Integer> ids = new HashMap<>(entries.size() * 2);
+        String generation = null;
+        int max = -1;
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            String field = (String) entry.getKey();
+            if (GENERATION_FIELD.equals(field)) {
+                generation = (String) entry.getValue();
+                continue;
+            }
+            if (NEXT_FIELD.equals(field)) {
+                continue;
+            }
+            int id = Integer.parseInt((String) entry.getValue());
+            ids.put(field, id);
+            max = Math.max(max, id);
+        }
+        String[] names = new String[max + 1];
+        ids.forEach((name, id) -> names[id] = name);
+        return new Dictionary(generation, ids, names);
+    }
+
+    private String randomGeneration() {
+        byte[] buffer = new byte[GENERATION_BYTES];
+        secureRandom.nextBytes(buffer);
+        return BASE64URL_ENCODER.encodeToString(buffer);
+    }
+
+    private static String key(Long tenantId) {
+        return ROLES_PREFIX + (tenantId != null ? tenantId : "global");
+    }
+
+    /**
+     * 單一租戶的不可變字典
+     */
+    private static final class Dictionary {
+
+        final String generation;
+        final Map<String, Integer> ids;
+        final String[] names;
+
+        Dictionary(String generation, Map<String, Integer> ids, String[] names) {
+            this.generation = generation;
+            this.ids = ids;
+            this.names = names;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.rbac.auth.audit;
+
+import com.rbac.auth.model.entity.User;
+import com.rbac.common.core.config.RbacProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LoginAuditPublisher 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+class LoginAuditPublisherTest {
+
+    private final List<LoginAuditEvent> written = new CopyOnWriteArrayList<>();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    private RbacProperties rbacProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAuditPublisher publisher;
+
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        rbacProperties = new RbacProperties();
+        meterRegistry = new SimpleMeterRegistry();
+
+        admin = new User();
+        admin.setUserId(1L);
+        admin.setUsername("admin");
+        admin.setTenantId(10L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+
+    private LoginAuditPublisher create(LoginAuditSink sink) {
+        publisher = new LoginAuditPublisher(sink, rbacProperties, meterRegistry);
+        return publisher;
+    }
+
+    private void record(List<LoginAuditEvent> events) {
+        batchSizes.add(events.size());
+        written.addAll(events);
+    }
+
+    @Test
+    @DisplayName("非同步 - 關閉時寫完緩衝中的事件，保持發生順序")
+    void testAsyncEventsAreWrittenInOrder() {
+        // Given
+        create(this::record);
+
+        // When
+        publisher.success(admin);
+        publisher.failure("admin", admin, LoginAuditEvent.BAD_CREDENTIALS);
+        publisher.lockout("admin", admin);
+        publisher.shutdown();
+
+        // Then
+        assertEquals(3, written.size());
+        assertEquals(LoginAuditEvent.Type.SUCCESS, written.get(0).getType());
+        assertEquals(LoginAuditEvent.Type.FAILURE, written.get(1).getType());
+        assertEquals(LoginAuditEvent.BAD_CREDENTIALS, written.get(1).getReason());
+        assertEquals(LoginAuditEvent.Type.LOCKOUT, written.get(2).getType());
+        assertEquals(1L, written.get(2).getUserId());
+        assertEquals(10L, written.get(2).getTenantId());
+    }
+
+    @Test
+    @DisplayName("非同步 - 寫入期間累積的事件合併為一批")
+    void testAsyncEventsAreBatched() throws InterruptedException {
+        // Given - 第一批寫入時阻塞，後續事件累積於緩衝
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        create(events -> {
+            firstWriteStarted.countDown();
+            await(release);
+            record(events);
+        });
+
+        // When
+        publisher.success(admin);
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            publisher.failure("user" + i, null, LoginAuditEvent.USER_NOT_FOUND);
+        }
+        release.countDown();
+        publisher.shutdown();
+
+        // Then
+        assertEquals(6, written.size());
+        assertEquals(List.of(1, 5), batchSizes);
+    }
+
+    @Test
+    @DisplayName("緩衝已滿 - 丟棄事件並計數，不阻塞登入執行緒")
+    void testFullBufferDropsEvents() throws InterruptedException {
+        // Given
+        rbacProperties.getAudit().setBufferSize(2);
+        rbacProperties.getAudit().setBatchSize(1);
+        CountDownLatch release = new CountDownLatch(1);
+        create(events -> {
+            await(release);
+            record(events);
+        });
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            publisher.failure("user" + i, null, LoginAuditEvent.BAD_CREDENTIALS);
+        }
+        release.countDown();
+        publisher.shutdown();
+
+        // Then
+        double dropped = meterRegistry.counter("auth.audit.dropped").count();
+        assertTrue(dropped >= 7);
+        assertEquals(10, written.size() + (int) dropped);
+    }
+
+    @Test
+    @DisplayName("同步 - async 停用時於呼叫執行緒寫入")
+    void testSyncModeWritesImmediately() {
+        // Given
+        rbacProperties.getAudit().setAsync(false);
+        create(this::record);
+
+        // When
+        publisher.failure("ghost", null, LoginAuditEvent.USER_NOT_FOUND);
+
+        // Then
+        assertEquals(1, written.size());
+        assertEquals("ghost", written.get(0).getUsername());
+        assertNull(written.get(0).getUserId());
+        assertFalse(written.get(0).isSuccess());
+    }
+
+    @Test
+    @DisplayName("停用 - 不記錄任何事件")
+    void testDisabledPublishesNothing() {
+        // Given
+        rbacProperties.getAudit().setEnabled(false);
+        create(this::record);
+
+        // When
+        publisher.success(admin);
+        publisher.shutdown();
+
+        // Then
+        assertTrue(written.isEmpty());
+    }
+
+    @Test
+    @DisplayName("寫入失敗 - 計數後繼續處理後續事件")
+    void testSinkFailureIsCounted() {
+        // Given
+        rbacProperties.getAudit().setAsync(false);
+        create(events -> {
+            throw new IllegalStateException("database down");
+        });
+
+        // When
+        assertDoesNotThrow(() -> publisher.success(admin));
+
+        // Then
+        assertEquals(1.0, meterRegistry.counter("auth.audit.write.failed").count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.rbac.auth.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PublicPaths 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+class PublicPathsTest {
+
+    private final PublicPaths publicPaths = new PublicPaths();
+
+    @Test
+    @DisplayName("公開路徑 - 登入、換發、JWKS 與基礎設施路徑")
+    void testPublicPathsMatch() {
+        assertTrue(publicPaths.matches(new MockHttpServletRequest("POST", "/api/v1/auth/login")));
+        assertTrue(publicPaths.matches(new MockHttpServletRequest("POST", "/api/v1/auth/refresh")));
+        assertTrue(publicPaths.matches(new MockHttpServletRequest("GET", "/.well-known/jwks.json")));
+        assertTrue(publicPaths.matches(new MockHttpServletRequest("GET", "/actuator/health")));
+        assertTrue(publicPaths.matches(new MockHttpServletRequest("GET", "/actuator/health/liveness")));
+        assertTrue(publicPaths.matches(new MockHttpServletRequest("GET", "/swagger-ui/index.html")));
+        assertTrue(publicPaths.matches(new MockHttpServletRequest("GET", "/v3/api-docs/swagger-config")));
+    }
+
+    @Test
+    @DisplayName("受保護路徑 - 需要驗證 Token")
+    void testProtectedPathsDoNotMatch() {
+        assertFalse(publicPaths.matches(new MockHttpServletRequest("GET", "/api/v1/auth/me")));
+        assertFalse(publicPaths.matches(new MockHttpServletRequest("POST", "/api/v1/auth/logout")));
+        assertFalse(publicPaths.matches(new MockHttpServletRequest("GET", "/api/v1/auth/refresh")));
+        assertFalse(publicPaths.matches(new MockHttpServletRequest("GET", "/actuator/metrics")));
+        assertFalse(publicPaths.matches(new MockHttpServletRequest("POST", "/.well-known/jwks.json")));
+    }
+
+    @Test
+    @DisplayName("Context Path - 比對時扣除 context path")
+    void testContextPathIsStripped() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/rbac/api/v1/auth/login");
+        request.setContextPath("/rbac");
+
+        assertTrue(publicPaths.matches(request));
+    }
+}
@@ -0,0 +1,126 @@
+package com.rbac.auth.context;
+
+import com.rbac.auth.config.RateLimitConfig;
+import com.rbac.auth.config.UserCacheConfig;
+import com.rbac.auth.model.entity.User;
+import com.rbac.auth.ratelimit.LoginRateLimiter;
+import com.rbac.auth.repository.CachingUserRepository;
+import com.rbac.auth.repository.UserRepository;
+import com.rbac.auth.throttle.LoginThrottleService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.rbac.auth.context.VirtualThreadSafetyTest.assertNoPinning;
+import static com.rbac.auth.context.VirtualThreadSafetyTest.recordPinnedEvents;
+import static com.rbac.auth.context.VirtualThreadSafetyTest.runOnVirtualThreads;
+import static com.rbac.auth.context.VirtualThreadSafetyTest.sleep;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 虛擬執行緒 Redis I/O 測試
+ *
+ * <p>以 Testcontainers 啟動 Redis，經 Lettuce 執行登入路徑上的 Redis 指令與 Lua 腳本
+ * （使用者快取 L2、失效通知、登入節流、登入頻率限制），並以 JFR 偵測載體執行緒是否被佔住。
+ * 僅於 JDK 21 以上且 Docker 可用時執行</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadRedisTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+
+    @BeforeAll
+    static void setUpRedis() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getFirstMappedPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void tearDownRedis() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    @DisplayName("使用者快取 - 經 Lettuce 讀寫 L2 與發布失效不佔住載體執行緒")
+    void testUserCacheRedisIoDoesNotPin() throws Exception {
+        // Given：底層儲存以阻塞回應模擬 JDBC 往返
+        UserRepository store = mock(UserRepository.class);
+        when(store.findByUsername(anyString())).thenAnswer(invocation -> {
+            sleep(5);
+            User user = new User();
+            user.setUserId(1L);
+            user.setTenantId(1L);
+            user.setUsername(invocation.getArgument(0));
+            user.setRoles(List.of("USER"));
+            return Optional.of(user);
+        });
+        CachingUserRepository cachingUserRepository = new CachingUserRepository(store, stringRedisTemplate,
+                mock(RedisMessageListenerContainer.class), mock(PasswordEncoder.class), new UserCacheConfig(),
+                new SimpleMeterRegistry());
+
+        // When：L1 未命中讀寫 Redis，並交錯失效（DEL 與 PUBLISH）
+        List<RecordedEvent> pinned = recordPinnedEvents(() -> runOnVirtualThreads(400, i -> {
+            String username = "vt-user" + (i % 40);
+            assertTrue(cachingUserRepository.findByUsername(username).isPresent());
+            if (i % 10 == 0) {
+                cachingUserRepository.evict(1L, username);
+            }
+        }));
+
+        // Then
+        assertNoPinning(pinned);
+        assertEquals(Boolean.TRUE, stringRedisTemplate.hasKey(CachingUserRepository.KEY_PREFIX + "global:vt-user1"));
+    }
+
+    @Test
+    @DisplayName("登入節流與頻率限制 - Lettuce 指令與 Lua 腳本不佔住載體執行緒")
+    void testThrottleAndRateLimitDoNotPin() throws Exception {
+        // Given
+        LoginThrottleService loginThrottleService = new LoginThrottleService(stringRedisTemplate);
+        LoginRateLimiter loginRateLimiter = new LoginRateLimiter(stringRedisTemplate, new RateLimitConfig(),
+                new SimpleMeterRegistry());
+
+        // When
+        List<RecordedEvent> pinned = recordPinnedEvents(() -> runOnVirtualThreads(400, i -> {
+            String username = "vt-throttle" + (i % 20);
+            loginRateLimiter.tryAcquire("10.0.0." + (i % 50), "1");
+            loginThrottleService.getLockUntil(username);
+            loginThrottleService.recordFailure(username);
+        }));
+
+        // Then
+        assertNoPinning(pinned);
+        assertNotNull(loginThrottleService.getLockUntil("vt-throttle0"));
+    }
+}
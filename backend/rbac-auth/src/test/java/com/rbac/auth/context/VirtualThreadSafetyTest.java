@@ -0,0 +1,281 @@
+package com.rbac.auth.context;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rbac.auth.audit.FileLoginAuditSink;
+import com.rbac.auth.audit.LoginAuditEvent;
+import com.rbac.auth.audit.LoginAuditPublisher;
+import com.rbac.auth.config.PasswordConfig;
+import com.rbac.auth.config.UserCacheConfig;
+import com.rbac.auth.model.entity.User;
+import com.rbac.auth.password.PasswordVerifier;
+import com.rbac.auth.repository.CachingUserRepository;
+import com.rbac.auth.repository.LastLoginWriteBehind;
+import com.rbac.auth.repository.UserRepository;
+import com.rbac.common.core.config.RbacProperties;
+import com.rbac.common.database.context.TenantContextHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 虛擬執行緒安全性測試
+ *
+ * <p>以虛擬執行緒執行登入路徑元件與 ThreadLocal 上下文，並以 JFR 的 jdk.VirtualThreadPinned 事件
+ * 偵測虛擬執行緒在持有監視器時停駐（佔住載體執行緒）；偵測到即測試失敗。
+ * 僅於 JDK 21 以上執行，虛擬執行緒 API 以反射取得，JDK 17 仍可編譯；
+ * 以 JDK 21 以上執行 Maven 時由 jdk21 profile 自動執行；JDK 17 建置須啟用 jdk21-toolchain profile，見 README</p>
+ *
+ * <p>此處以阻塞的替身模擬 Redis 與 JDBC 延遲；經 Lettuce 存取真實 Redis 的路徑見 {@link VirtualThreadRedisTest}</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadSafetyTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("ThreadLocal 上下文 - 虛擬執行緒停駐並換載體後仍只看到自己的值")
+    void testContextHoldersAreIsolated() throws Exception {
+        List<RecordedEvent> pinned = recordPinnedEvents(() -> runOnVirtualThreads(2000, i -> {
+            UserContext context = new UserContext();
+            context.setUserId((long) i);
+            context.setUsername("user" + i);
+            try {
+                UserContextHolder.setContext(context);
+                TenantContextHolder.setTenantId(String.valueOf(i));
+                MDC.put("traceId", "trace-" + i);
+
+                sleep(1);
+
+                assertEquals((long) i, UserContextHolder.getCurrentUserId());
+                assertEquals(String.valueOf(i), TenantContextHolder.getTenantId());
+                assertEquals("trace-" + i, MDC.get("traceId"));
+            } finally {
+                UserContextHolder.clear();
+                TenantContextHolder.clear();
+                MDC.clear();
+            }
+            assertNull(UserContextHolder.getContext());
+            assertNull(TenantContextHolder.getTenantId());
+        }));
+
+        assertNoPinning(pinned);
+    }
+
+    @Test
+    @DisplayName("登入路徑 - 密碼驗證、最後登入寫回與同步審計寫入不佔住載體執行緒")
+    void testLoginPathDoesNotPin() throws Exception {
+        // Given
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        String hash = passwordEncoder.encode("admin123");
+
+        PasswordConfig passwordConfig = new PasswordConfig();
+        passwordConfig.getVerifier().setThreads(4);
+        passwordConfig.getVerifier().setQueueCapacity(1000);
+        PasswordVerifier passwordVerifier = new PasswordVerifier(passwordEncoder, passwordConfig, new SimpleMeterRegistry());
+
+        RbacProperties rbacProperties = new RbacProperties();
+        rbacProperties.getAudit().setAsync(false);
+        rbacProperties.getAudit().setSpoolFile(tempDir.resolve("login-audit.jsonl").toString());
+        LoginAuditPublisher loginAuditPublisher = new LoginAuditPublisher(
+                new FileLoginAuditSink(new ObjectMapper().findAndRegisterModules(), rbacProperties),
+                rbacProperties, new SimpleMeterRegistry());
+
+        LastLoginWriteBehind lastLoginWriteBehind = new LastLoginWriteBehind(mock(UserRepository.class));
+
+        // When
+        List<RecordedEvent> pinned;
+        try {
+            pinned = recordPinnedEvents(() -> runOnVirtualThreads(200, i -> {
+                assertTrue(passwordVerifier.matches("admin123", hash));
+                loginAuditPublisher.failure("user" + i, null, LoginAuditEvent.BAD_CREDENTIALS);
+                User user = new User();
+                user.setTenantId(1L);
+                user.setUserId((long) i);
+                lastLoginWriteBehind.record(user);
+            }));
+        } finally {
+            passwordVerifier.shutdown();
+            loginAuditPublisher.shutdown();
+        }
+
+        // Then
+        assertNoPinning(pinned);
+        assertEquals(200, Files.readAllLines(tempDir.resolve("login-audit.jsonl")).size());
+        assertEquals(200, lastLoginWriteBehind.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("使用者快取 - L1 未命中時的 Redis 與資料庫 I/O 不佔住載體執行緒，同一帳號只載入一次")
+    void testUserCacheLoadDoesNotPin() throws Exception {
+        // Given：Redis 與底層儲存皆以阻塞回應模擬網路往返
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(stringRedisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.entries(anyString())).thenAnswer(invocation -> {
+            sleep(2);
+            return Map.of();
+        });
+
+        UserRepository store = mock(UserRepository.class);
+        when(store.findByUsername(anyString())).thenAnswer(invocation -> {
+            sleep(5);
+            User user = new User();
+            user.setUserId(1L);
+            user.setUsername(invocation.getArgument(0));
+            user.setPasswordHash("$2a$04$hash");
+            return Optional.of(user);
+        });
+
+        CachingUserRepository cachingUserRepository = new CachingUserRepository(store, stringRedisTemplate,
+                mock(RedisMessageListenerContainer.class), mock(PasswordEncoder.class), new UserCacheConfig(),
+                new SimpleMeterRegistry());
+
+        // When：400 個請求同時查詢 20 個帳號
+        List<RecordedEvent> pinned = recordPinnedEvents(() -> runOnVirtualThreads(400, i ->
+                assertTrue(cachingUserRepository.findForAuthentication("user" + (i % 20)).isPresent())));
+
+        // Then
+        assertNoPinning(pinned);
+        for (int i = 0; i < 20; i++) {
+            verify(store, times(1)).findByUsername("user" + i);
+        }
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21, max = JRE.JAVA_23)
+    @DisplayName("偵測器自我檢查 - 在 synchronized 區塊內停駐會被回報")
+    void testDetectorReportsPinning() throws Exception {
+        // JDK 24 起 synchronized 不再佔住載體執行緒（JEP 491），僅在 21-23 驗證偵測器本身
+        Object monitor = new Object();
+
+        List<RecordedEvent> pinned = recordPinnedEvents(() -> runOnVirtualThreads(1, i -> {
+            synchronized (monitor) {
+                sleep(50);
+            }
+        }));
+
+        assertFalse(pinned.isEmpty());
+    }
+
+    /**
+     * 執行工作並收集期間的 jdk.VirtualThreadPinned 事件（門檻 0，含堆疊）
+     */
+    static List<RecordedEvent> recordPinnedEvents(ThrowingRunnable workload) throws Exception {
+        Path file = Files.createTempFile("virtual-thread-pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            workload.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> PINNED_EVENT.equals(event.getEventType().getName()))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * 每個工作以一個虛擬執行緒執行，並等待全部完成；工作中的斷言失敗會重新拋出
+     */
+    static void runOnVirtualThreads(int tasks, IntConsumer task) throws Exception {
+        ExecutorService executor = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        try {
+            List<Future<?>> futures = new ArrayList<>(tasks);
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> task.accept(index)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Error error) {
+                        throw error;
+                    }
+                    throw e;
+                }
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+    }
+
+    static void assertNoPinning(List<RecordedEvent> pinned) {
+        if (pinned.isEmpty()) {
+            return;
+        }
+        String traces = pinned.stream()
+                .limit(5)
+                .map(VirtualThreadSafetyTest::describe)
+                .collect(Collectors.joining("\n\n"));
+        fail(pinned.size() + " virtual thread pinning event(s) detected:\n" + traces);
+    }
+
+    private static String describe(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "(no stack trace)";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .limit(15)
+                .map(RecordedFrame::getMethod)
+                .map(method -> "  at " + method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining("\n"));
+    }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,126 @@
+package com.rbac.auth.filter;
+
+import com.rbac.auth.config.PublicPaths;
+import com.rbac.auth.context.UserContext;
+import com.rbac.auth.context.UserContextHolder;
+import com.rbac.auth.model.VerifiedToken;
+import com.rbac.auth.service.JwtTokenService;
+import com.rbac.common.core.config.RbacProperties;
+import com.rbac.common.core.context.RequestContext;
+import com.rbac.common.database.context.TenantContextHolder;
+import com.rbac.common.web.filter.TenantFilter;
+import com.rbac.common.web.filter.TenantResolver;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * JwtTokenTenantResolver 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtTokenTenantResolverTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private JwtTokenService jwtTokenService;
+
+    private JwtTokenTenantResolver resolver;
+    private PublicPaths publicPaths;
+
+    @BeforeEach
+    void setUp() {
+        publicPaths = new PublicPaths();
+        resolver = new JwtTokenTenantResolver(jwtTokenService, publicPaths);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContext.clear();
+    }
+
+    @Test
+    @DisplayName("租戶與認證 - 同一個 Token 在 TenantFilter 與 JwtAuthenticationFilter 之間只驗證一次")
+    void testTokenIsVerifiedOnceAcrossFilters() throws Exception {
+        // Given
+        when(jwtTokenService.verifyToken(TOKEN)).thenReturn(Optional.of(verified(7L)));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/auth/me");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        AtomicReference<String> tenantId = new AtomicReference<>();
+        AtomicReference<String> username = new AtomicReference<>();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                tenantId.set(TenantContextHolder.getTenantId());
+                username.set(UserContextHolder.getCurrentUsername());
+            }
+        };
+
+        // When
+        new MockFilterChain(servlet,
+                new TenantFilter(new TenantResolver(new RbacProperties()), resolver),
+                new JwtAuthenticationFilter(jwtTokenService, publicPaths))
+                .doFilter(request, new MockHttpServletResponse());
+
+        // Then
+        assertEquals("7", tenantId.get());
+        assertEquals("admin", username.get());
+        verify(jwtTokenService, times(1)).verifyToken(TOKEN);
+    }
+
+    @Test
+    @DisplayName("無效 Token - 返回 null 且不保存驗證結果")
+    void testInvalidTokenResolvesNothing() {
+        // Given
+        when(jwtTokenService.verifyToken(TOKEN)).thenReturn(Optional.empty());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/auth/me");
+
+        // When / Then
+        assertNull(resolver.resolveTenantId(request, TOKEN));
+        assertNull(request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE));
+    }
+
+    @Test
+    @DisplayName("公開路徑 - 不驗證 Token")
+    void testPublicPathIsSkipped() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+
+        assertNull(resolver.resolveTenantId(request, TOKEN));
+        verify(jwtTokenService, never()).verifyToken(anyString());
+    }
+
+    private static VerifiedToken verified(Long tenantId) {
+        UserContext userContext = new UserContext();
+        userContext.setUserId(1L);
+        userContext.setUsername("admin");
+        userContext.setTenantId(tenantId);
+        userContext.setRoles(List.of("ADMIN"));
+        Instant now = Instant.now();
+        return new VerifiedToken(null, userContext, "jti-1", now, now.plusSeconds(900), 0L, 0L);
+    }
+}
@@ -0,0 +1,171 @@
+package com.rbac.auth.filter;
+
+import com.rbac.auth.config.PublicPaths;
+import com.rbac.auth.context.UserContext;
+import com.rbac.auth.context.UserContextHolder;
+import com.rbac.auth.model.VerifiedToken;
+import com.rbac.auth.service.JwtTokenService;
+import com.rbac.common.core.config.RbacProperties;
+import com.rbac.common.core.context.RequestContext;
+import com.rbac.common.database.context.TenantContextHolder;
+import com.rbac.common.web.context.TraceContext;
+import com.rbac.common.web.filter.TenantResolver;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RequestPreambleFilter 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@ExtendWith(MockitoExtension.class)
+class RequestPreambleFilterTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private JwtTokenService jwtTokenService;
+
+    private RequestPreambleFilter filter;
+    private UserContext userContext;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RequestPreambleFilter(new TenantResolver(new RbacProperties()), jwtTokenService, new PublicPaths());
+
+        userContext = new UserContext();
+        userContext.setUserId(1L);
+        userContext.setUsername("admin");
+        userContext.setTenantId(7L);
+        userContext.setRoles(List.of("ADMIN"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContext.clear();
+    }
+
+    @Test
+    @DisplayName("單次處理 - Trace ID、租戶與使用者在請求中可用，結束後全部清除")
+    void testBindsContextForRequestAndClearsAfterwards() throws Exception {
+        // Given
+        when(jwtTokenService.verifyToken(TOKEN)).thenReturn(Optional.of(verified()));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/auth/me");
+        request.addHeader("X-Trace-Id", "trace-1");
+        request.addHeader("X-Tenant-Id", "7");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean invoked = new AtomicBoolean();
+
+        // When
+        filter.doFilter(request, response, chain(() -> {
+            invoked.set(true);
+            assertEquals("trace-1", TraceContext.getTraceId());
+            assertEquals("7", TenantContextHolder.getTenantId());
+            assertEquals("admin", UserContextHolder.getCurrentUsername());
+        }));
+
+        // Then
+        assertTrue(invoked.get());
+        assertEquals("trace-1", response.getHeader("X-Trace-Id"));
+        assertNull(RequestContext.peek());
+    }
+
+    @Test
+    @DisplayName("租戶解析 - 沒有租戶標頭時使用 Token 的 tenant_id")
+    void testTenantFallsBackToTokenClaim() throws Exception {
+        // Given
+        when(jwtTokenService.verifyToken(TOKEN)).thenReturn(Optional.of(verified()));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/auth/me");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+
+        // When / Then
+        filter.doFilter(request, new MockHttpServletResponse(),
+                chain(() -> assertEquals("7", TenantContextHolder.getTenantId())));
+    }
+
+    @Test
+    @DisplayName("租戶解析 - 標頭與 Token 的 tenant_id 不一致時返回 403，不進入後續處理")
+    void testConflictingTenantHeaderIsForbidden() throws Exception {
+        // Given
+        when(jwtTokenService.verifyToken(TOKEN)).thenReturn(Optional.of(verified()));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/auth/me");
+        request.addHeader("X-Tenant-Id", "3");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean invoked = new AtomicBoolean();
+
+        // When
+        filter.doFilter(request, response, chain(() -> invoked.set(true)));
+
+        // Then
+        assertFalse(invoked.get());
+        assertEquals(403, response.getStatus());
+        assertTrue(response.getContentAsString().contains(TenantResolver.TENANT_MISMATCH));
+        assertNull(RequestContext.peek());
+    }
+
+    @Test
+    @DisplayName("租戶無效 - 返回 400 且不進入後續處理")
+    void testInvalidTenantIsRejected() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/auth/me");
+        request.addHeader("X-Tenant-Id", "bad tenant!");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean invoked = new AtomicBoolean();
+
+        // When
+        filter.doFilter(request, response, chain(() -> invoked.set(true)));
+
+        // Then
+        assertFalse(invoked.get());
+        assertEquals(400, response.getStatus());
+        assertTrue(response.getContentAsString().contains("TENANT_INVALID_FORMAT"));
+        assertNull(RequestContext.peek());
+    }
+
+    @Test
+    @DisplayName("公開路徑 - 不驗證 Token")
+    void testPublicPathSkipsTokenVerification() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.addHeader("X-Tenant-Id", "1");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(),
+                chain(() -> assertFalse(UserContextHolder.hasContext())));
+
+        // Then
+        verify(jwtTokenService, never()).verifyToken(anyString());
+    }
+
+    private VerifiedToken verified() {
+        Instant now = Instant.now();
+        return new VerifiedToken(null, userContext, "jti-1", now, now.plusSeconds(900), 0L, 0L);
+    }
+
+    private static FilterChain chain(Runnable assertions) {
+        return (request, response) -> assertions.run();
+    }
+}
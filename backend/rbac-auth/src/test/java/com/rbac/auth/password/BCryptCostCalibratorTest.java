@@ -0,0 +1,136 @@
+package com.rbac.auth.password;
+
+import com.rbac.auth.config.PasswordConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * BCryptCostCalibrator 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+class BCryptCostCalibratorTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("校準 - 選擇估計時間不超過目標的最高成本")
+    void testCalibrateSelectsHighestWithinTarget() {
+        PasswordConfig.Calibration calibration = new PasswordConfig.Calibration();
+        calibration.setTargetMs(250L);
+
+        // 成本 8 約 15ms：成本 12 約 240ms、成本 13 約 480ms
+        assertEquals(12, BCryptCostCalibrator.calibrate(calibration, 15 * MS));
+    }
+
+    @Test
+    @DisplayName("校準 - 硬體過慢時不低於成本下限")
+    void testCalibrateRespectsMinStrength() {
+        PasswordConfig.Calibration calibration = new PasswordConfig.Calibration();
+        calibration.setTargetMs(100L);
+
+        assertEquals(10, BCryptCostCalibrator.calibrate(calibration, 200 * MS));
+    }
+
+    @Test
+    @DisplayName("校準 - 硬體過快時不超過成本上限")
+    void testCalibrateRespectsMaxStrength() {
+        PasswordConfig.Calibration calibration = new PasswordConfig.Calibration();
+        calibration.setTargetMs(10_000L);
+
+        assertEquals(14, BCryptCostCalibrator.calibrate(calibration, MS));
+    }
+
+    @Test
+    @DisplayName("停用校準 - 使用設定的成本並判斷是否需重新雜湊")
+    void testDisabledCalibrationAndNeedsRehash() {
+        PasswordConfig config = new PasswordConfig();
+        config.getCalibration().setEnabled(false);
+        config.setBcryptStrength(11);
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(config, null);
+
+        assertEquals(11, calibrator.getStrength());
+        assertTrue(calibrator.needsRehash("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"));
+        assertFalse(calibrator.needsRehash("$2a$11$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"));
+        assertFalse(calibrator.needsRehash("plaintext"));
+        assertFalse(calibrator.needsRehash(null));
+    }
+
+    @Test
+    @DisplayName("重新雜湊 - 成本較高的雜湊不降級")
+    void testHigherCostIsNotDowngraded() {
+        PasswordConfig config = new PasswordConfig();
+        config.getCalibration().setEnabled(false);
+        config.setBcryptStrength(11);
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(config, null);
+
+        assertFalse(calibrator.needsRehash("$2a$12$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"));
+    }
+
+    @Test
+    @DisplayName("叢集共用成本 - 已寫入時直接沿用，不於本節點校準")
+    @SuppressWarnings("unchecked")
+    void testUsesStoredClusterStrength() {
+        // Given
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(BCryptCostCalibrator.STRENGTH_KEY)).thenReturn("13");
+
+        // When
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(new PasswordConfig(), stringRedisTemplate);
+
+        // Then
+        assertEquals(13, calibrator.getStrength());
+        verify(valueOperations, never()).setIfAbsent(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("叢集共用成本 - 其他節點先寫入時採用該值")
+    @SuppressWarnings("unchecked")
+    void testAdoptsStrengthWrittenByOtherNode() {
+        // Given
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(BCryptCostCalibrator.STRENGTH_KEY)).thenReturn(null, "12");
+        when(valueOperations.setIfAbsent(eq(BCryptCostCalibrator.STRENGTH_KEY), anyString())).thenReturn(false);
+
+        // When
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(new PasswordConfig(), stringRedisTemplate);
+
+        // Then
+        assertEquals(12, calibrator.getStrength());
+    }
+
+    @Test
+    @DisplayName("叢集共用成本 - Redis 無法使用時改用 bcrypt-strength")
+    void testFallsBackToConfiguredStrengthWhenRedisUnavailable() {
+        // Given
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        when(stringRedisTemplate.opsForValue()).thenThrow(new RuntimeException("Redis down"));
+        PasswordConfig config = new PasswordConfig();
+        config.setBcryptStrength(11);
+
+        // When / Then
+        assertEquals(11, new BCryptCostCalibrator(config, stringRedisTemplate).getStrength());
+    }
+
+    @Test
+    @DisplayName("成本解析 - 解析 BCrypt 雜湊前綴")
+    void testCostOf() {
+        assertEquals(10, BCryptCostCalibrator.costOf("$2a$10$abc"));
+        assertEquals(12, BCryptCostCalibrator.costOf("$2b$12$abc"));
+        assertEquals(-1, BCryptCostCalibrator.costOf("{noop}secret"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.rbac.auth.password;
+
+import com.rbac.auth.config.PasswordConfig;
+import com.rbac.auth.exception.ServiceUnavailableException;
+import com.rbac.auth.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PasswordVerifier 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+class PasswordVerifierTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private PasswordVerifier passwordVerifier;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (passwordVerifier != null) {
+            passwordVerifier.shutdown();
+        }
+    }
+
+    private PasswordVerifier newVerifier(PasswordEncoder encoder, int threads, int queueCapacity, long timeoutMs) {
+        PasswordConfig config = new PasswordConfig();
+        config.getVerifier().setThreads(threads);
+        config.getVerifier().setQueueCapacity(queueCapacity);
+        config.getVerifier().setTimeoutMs(timeoutMs);
+        passwordVerifier = new PasswordVerifier(encoder, config, meterRegistry);
+        return passwordVerifier;
+    }
+
+    /**
+     * 阻塞直到測試結束的編碼器，用於佔滿執行緒與佇列
+     */
+    private PasswordEncoder blockingEncoder(CountDownLatch started) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("驗證成功 - 於驗證執行緒池比對 BCrypt 雜湊並記錄耗時")
+    void testMatches() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        String hash = encoder.encode("admin123");
+        PasswordVerifier verifier = newVerifier(encoder, 1, 4, 2000L);
+
+        assertTrue(verifier.matches("admin123", hash));
+        assertFalse(verifier.matches("wrong", hash));
+        assertEquals(2L, meterRegistry.get("auth.password.verify").timer().count());
+    }
+
+    @Test
+    @DisplayName("佇列已滿 - 立即拋出 429")
+    void testRejectWhenQueueFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordVerifier verifier = newVerifier(blockingEncoder(started), 1, 1, 10000L);
+
+        // 佔用唯一的執行緒與唯一的佇列位置
+        CompletableFuture.runAsync(() -> verifier.matches("a", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> verifier.matches("b", "hash"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("auth.password.verify.queue").gauge().value() < 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> verifier.matches("c", "hash"));
+        assertEquals(1.0, meterRegistry.get("auth.password.verify.rejected").tag("reason", "queue_full").counter().count());
+    }
+
+    @Test
+    @DisplayName("逾時 - 拋出 503")
+    void testTimeout() {
+        PasswordVerifier verifier = newVerifier(blockingEncoder(new CountDownLatch(1)), 1, 1, 50L);
+
+        assertThrows(ServiceUnavailableException.class, () -> verifier.matches("a", "hash"));
+        assertEquals(1.0, meterRegistry.get("auth.password.verify.rejected").tag("reason", "timeout").counter().count());
+    }
+}
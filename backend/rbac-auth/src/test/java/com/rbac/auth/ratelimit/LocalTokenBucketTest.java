@@ -0,0 +1,84 @@
+package com.rbac.auth.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LocalTokenBucket 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+class LocalTokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("突發 - 容量內允許，超過後拒絕並返回等待時間")
+    void testBurstThenReject() {
+        long now = 0L;
+        LocalTokenBucket bucket = new LocalTokenBucket(3, 1.0, now);
+
+        assertEquals(0L, bucket.tryAcquire(now));
+        assertEquals(0L, bucket.tryAcquire(now));
+        assertEquals(0L, bucket.tryAcquire(now));
+
+        long wait = bucket.tryAcquire(now);
+        assertEquals(SECOND, wait);
+    }
+
+    @Test
+    @DisplayName("補充 - 依速率補充 Token")
+    void testRefill() {
+        long now = 0L;
+        LocalTokenBucket bucket = new LocalTokenBucket(1, 2.0, now);
+
+        assertEquals(0L, bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now) > 0);
+        assertEquals(0L, bucket.tryAcquire(now + SECOND / 2));
+    }
+
+    @Test
+    @DisplayName("閒置 - 補充不超過容量")
+    void testIdleDoesNotExceedBurst() {
+        LocalTokenBucket bucket = new LocalTokenBucket(2, 1.0, 0L);
+        long later = 100 * SECOND;
+
+        assertEquals(0L, bucket.tryAcquire(later));
+        assertEquals(0L, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    @DisplayName("並發 - 多執行緒下允許數量不超過容量")
+    void testConcurrentAcquire() throws InterruptedException {
+        long now = System.nanoTime();
+        LocalTokenBucket bucket = new LocalTokenBucket(50, 0.001, now);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    if (bucket.tryAcquire(now) == 0L) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(50, allowed.get());
+    }
+}
@@ -0,0 +1,131 @@
+package com.rbac.auth.ratelimit;
+
+import com.rbac.auth.config.RateLimitConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * LoginRateLimiter 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@ExtendWith(MockitoExtension.class)
+class LoginRateLimiterTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private RateLimitConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimiter loginRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        config = new RateLimitConfig();
+        config.setIp(new RateLimitConfig.Limit(2, 0.001, 100, 60));
+        config.setTenant(new RateLimitConfig.Limit(100, 100.0, 1000, 60));
+        meterRegistry = new SimpleMeterRegistry();
+        loginRateLimiter = new LoginRateLimiter(stringRedisTemplate, config, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("本地限制 - 超過 IP 突發容量時不存取 Redis")
+    @SuppressWarnings("unchecked")
+    void testLocalRejectSkipsRedis() {
+        // Given
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(0L, 0L));
+
+        // When
+        assertEquals(0L, loginRateLimiter.tryAcquire("10.0.0.1", "1"));
+        assertEquals(0L, loginRateLimiter.tryAcquire("10.0.0.1", "1"));
+        long wait = loginRateLimiter.tryAcquire("10.0.0.1", "1");
+
+        // Then
+        assertTrue(wait > 0);
+        verify(stringRedisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        assertEquals(1.0, meterRegistry.counter("auth.login.rate_limited", "scope", "ip", "layer", "local").count());
+    }
+
+    @Test
+    @DisplayName("本地限制 - 不同 IP 各自計算")
+    @SuppressWarnings("unchecked")
+    void testBucketsArePerIp() {
+        // Given
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(0L, 0L));
+
+        // When
+        loginRateLimiter.tryAcquire("10.0.0.1", "1");
+        loginRateLimiter.tryAcquire("10.0.0.1", "1");
+
+        // Then
+        assertEquals(0L, loginRateLimiter.tryAcquire("10.0.0.2", "1"));
+    }
+
+    @Test
+    @DisplayName("叢集限制 - Redis 滑動視窗拒絕時返回等待時間")
+    @SuppressWarnings("unchecked")
+    void testRedisWindowReject() {
+        // Given
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(2L, 1500L));
+
+        // When
+        long wait = loginRateLimiter.tryAcquire("10.0.0.1", "1");
+
+        // Then
+        assertEquals(1500L, wait);
+        assertEquals(1.0, meterRegistry.counter("auth.login.rate_limited", "scope", "tenant", "layer", "redis").count());
+    }
+
+    @Test
+    @DisplayName("未解析租戶 - 只套用 IP 限制，不共用租戶視窗")
+    @SuppressWarnings("unchecked")
+    void testUnresolvedTenantSkipsTenantWindow() {
+        // Given 租戶突發容量只有 1
+        config.setTenant(new RateLimitConfig.Limit(1, 0.001, 1, 60));
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(0L, 0L));
+
+        // When
+        long first = loginRateLimiter.tryAcquire("10.0.0.1", null);
+        long second = loginRateLimiter.tryAcquire("10.0.0.2", null);
+
+        // Then 不同來源互不影響，Redis 只使用 IP 鍵
+        assertEquals(0L, first);
+        assertEquals(0L, second);
+        verify(stringRedisTemplate).execute(any(RedisScript.class),
+                eq(List.of(LoginRateLimiter.IP_PREFIX + "10.0.0.2", LoginRateLimiter.IP_PREFIX + "10.0.0.2")),
+                any(Object[].class));
+        assertEquals(0.0, meterRegistry.counter("auth.login.rate_limited", "scope", "tenant", "layer", "local").count());
+    }
+
+    @Test
+    @DisplayName("Redis 故障 - 只套用本地限制")
+    @SuppressWarnings("unchecked")
+    void testRedisFailureFailsOpen() {
+        // Given
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RuntimeException("Redis down"));
+
+        // When & Then
+        assertEquals(0L, loginRateLimiter.tryAcquire("10.0.0.1", "1"));
+    }
+}
@@ -0,0 +1,317 @@
+package com.rbac.auth.repository;
+
+import com.rbac.auth.config.UserCacheConfig;
+import com.rbac.auth.model.entity.User;
+import com.rbac.auth.model.entity.UserStatus;
+import com.rbac.common.database.context.TenantContextHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * CachingUserRepository 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingUserRepositoryTest {
+
+    @Mock
+    private UserRepository delegate;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private CachingUserRepository cachingUserRepository;
+
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(stringRedisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        lenient().when(hashOperations.entries(anyString())).thenReturn(Map.of());
+
+        cachingUserRepository = new CachingUserRepository(delegate, stringRedisTemplate, listenerContainer,
+                passwordEncoder, new UserCacheConfig(), new SimpleMeterRegistry());
+
+        admin = new User();
+        admin.setUserId(1L);
+        admin.setUsername("admin");
+        admin.setPasswordHash("$2a$10$hash");
+        admin.setTenantId(1L);
+        admin.setRoles(List.of("ADMIN", "USER"));
+        admin.setStatus(UserStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("查詢 - 重複查詢只讀取底層儲存一次")
+    void testFindByUsernameCachesLocally() {
+        // Given
+        when(delegate.findByUsername("admin")).thenReturn(Optional.of(admin));
+
+        // When
+        Optional<User> first = cachingUserRepository.findByUsername("admin");
+        Optional<User> second = cachingUserRepository.findByUsername("admin");
+
+        // Then
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        verify(delegate, times(1)).findByUsername("admin");
+        verify(hashOperations, times(1)).entries(CachingUserRepository.KEY_PREFIX + "global:admin");
+    }
+
+    @Test
+    @DisplayName("查詢 - 不存在的帳號以負向快取記錄")
+    void testUnknownUsernameIsNegativelyCached() {
+        // Given
+        when(delegate.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        // When
+        assertFalse(cachingUserRepository.findByUsername("ghost").isPresent());
+        assertFalse(cachingUserRepository.existsByUsername("ghost"));
+        assertFalse(cachingUserRepository.validatePassword("ghost", "password"));
+
+        // Then
+        verify(delegate, times(1)).findByUsername("ghost");
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    @DisplayName("查詢 - Redis 命中時不讀取底層儲存")
+    void testRedisHitSkipsStore() {
+        // Given
+        when(hashOperations.entries(CachingUserRepository.KEY_PREFIX + "global:admin")).thenReturn(Map.of(
+                "id", "1", "tid", "1", "roles", "ADMIN,USER", "st", "ACTIVE"));
+
+        // When
+        User user = cachingUserRepository.findByUsername("admin").orElseThrow();
+
+        // Then
+        assertEquals(1L, user.getUserId());
+        assertEquals("admin", user.getUsername());
+        assertEquals(List.of("ADMIN", "USER"), user.getRoles());
+        assertEquals(UserStatus.ACTIVE, user.getStatus());
+        assertNull(user.getPasswordHash());
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("共用快取 - 密碼雜湊不寫入 Redis")
+    void testPasswordHashNotWrittenToRedis() {
+        // Given
+        when(delegate.findByUsername("admin")).thenReturn(Optional.of(admin));
+
+        // When
+        User user = cachingUserRepository.findByUsername("admin").orElseThrow();
+
+        // Then 本地條目保留雜湊，寫入 Redis 的欄位不含雜湊
+        assertEquals("$2a$10$hash", user.getPasswordHash());
+        List<Object> written = mockingDetails(stringRedisTemplate).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("execute"))
+                .flatMap(invocation -> Arrays.stream(invocation.getArguments()))
+                .toList();
+        assertTrue(written.contains("id"));
+        assertFalse(written.contains("$2a$10$hash"));
+    }
+
+    @Test
+    @DisplayName("登入查詢 - Redis 命中的條目不含雜湊，改由底層儲存讀取一次")
+    void testFindForAuthenticationLoadsHashFromStore() {
+        // Given
+        when(hashOperations.entries(CachingUserRepository.KEY_PREFIX + "global:admin")).thenReturn(Map.of(
+                "id", "1", "tid", "1", "roles", "ADMIN,USER", "st", "ACTIVE"));
+        when(delegate.findForAuthentication("admin")).thenReturn(Optional.of(admin));
+
+        // When
+        User first = cachingUserRepository.findForAuthentication("admin").orElseThrow();
+        User second = cachingUserRepository.findForAuthentication("admin").orElseThrow();
+
+        // Then
+        assertEquals("$2a$10$hash", first.getPasswordHash());
+        assertSame(first, second);
+        verify(delegate, times(1)).findForAuthentication("admin");
+    }
+
+    @Test
+    @DisplayName("Redis 負向快取命中 - 不讀取底層儲存")
+    void testRedisNegativeHitSkipsStore() {
+        // Given
+        when(hashOperations.entries(CachingUserRepository.KEY_PREFIX + "global:ghost")).thenReturn(Map.of("nx", "1"));
+
+        // When & Then
+        assertFalse(cachingUserRepository.findByUsername("ghost").isPresent());
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("密碼驗證 - 使用快取的使用者，不再次查詢")
+    void testValidatePasswordUsesCachedUser() {
+        // Given
+        when(delegate.findByUsername("admin")).thenReturn(Optional.of(admin));
+        when(passwordEncoder.matches("password", "$2a$10$hash")).thenReturn(true);
+
+        // When
+        cachingUserRepository.findByUsername("admin");
+        boolean valid = cachingUserRepository.validatePassword("admin", "password");
+
+        // Then
+        assertTrue(valid);
+        verify(delegate, times(1)).findByUsername("admin");
+    }
+
+    @Test
+    @DisplayName("失效 - 移除本地與 Redis 條目並通知其他節點")
+    void testEvictInvalidatesAllLayers() {
+        // Given
+        when(delegate.findByUsername("admin")).thenReturn(Optional.of(admin));
+        cachingUserRepository.findByUsername("admin");
+
+        // When
+        cachingUserRepository.evict(1L, "admin");
+        cachingUserRepository.findByUsername("admin");
+
+        // Then
+        verify(stringRedisTemplate).delete(List.of(
+                CachingUserRepository.KEY_PREFIX + "1:admin", CachingUserRepository.KEY_PREFIX + "global:admin"));
+        verify(stringRedisTemplate).convertAndSend("auth:user:invalidate", "1:admin");
+        verify(stringRedisTemplate).convertAndSend("auth:user:invalidate", "global:admin");
+        verify(delegate, times(2)).findByUsername("admin");
+    }
+
+    @Test
+    @DisplayName("失效 - 載入期間失效的結果不保留於本地快取")
+    void testEvictDuringLoadDiscardsResult() {
+        // Given
+        when(delegate.findByUsername("admin")).thenAnswer(invocation -> {
+            cachingUserRepository.evict(1L, "admin");
+            return Optional.of(admin);
+        }).thenReturn(Optional.of(admin));
+
+        // When
+        Optional<User> first = cachingUserRepository.findByUsername("admin");
+        cachingUserRepository.findByUsername("admin");
+
+        // Then
+        assertTrue(first.isPresent());
+        verify(delegate, times(2)).findByUsername("admin");
+    }
+
+    @Test
+    @DisplayName("載入失敗 - 例外傳給呼叫者且不快取")
+    void testLoadFailureIsNotCached() {
+        // Given
+        when(delegate.findByUsername("admin"))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(Optional.of(admin));
+
+        // When / Then
+        assertThrows(RuntimeException.class, () -> cachingUserRepository.findByUsername("admin"));
+        assertTrue(cachingUserRepository.findByUsername("admin").isPresent());
+        verify(delegate, times(2)).findByUsername("admin");
+    }
+
+    @Test
+    @DisplayName("失效 - 於其他租戶上下文呼叫仍移除使用者所屬租戶的條目")
+    void testEvictRemovesOwningTenantEntry() {
+        // Given
+        when(delegate.findByUsername("admin")).thenReturn(Optional.of(admin));
+        try {
+            TenantContextHolder.setTenantId("1");
+            cachingUserRepository.findByUsername("admin");
+        } finally {
+            TenantContextHolder.clear();
+        }
+
+        // When 由無租戶上下文（例如管理工作）呼叫
+        cachingUserRepository.evict(1L, "admin");
+
+        // Then
+        try {
+            TenantContextHolder.setTenantId("1");
+            cachingUserRepository.findByUsername("admin");
+        } finally {
+            TenantContextHolder.clear();
+        }
+        verify(delegate, times(2)).findByUsername("admin");
+    }
+
+    @Test
+    @DisplayName("寫入 - 更新最後登入時間不使快取失效")
+    void testUpdateLastLoginTimeKeepsCache() {
+        // Given
+        when(delegate.findByUsername("admin")).thenReturn(Optional.of(admin));
+        cachingUserRepository.findByUsername("admin");
+
+        // When
+        cachingUserRepository.updateLastLoginTime(1L);
+        cachingUserRepository.findByUsername("admin");
+
+        // Then
+        verify(delegate).updateLastLoginTime(1L);
+        verify(delegate, times(1)).findByUsername("admin");
+    }
+
+    @Test
+    @DisplayName("租戶隔離 - 不同租戶的同名帳號分別快取")
+    void testCacheKeyIncludesTenant() {
+        // Given
+        when(delegate.findByUsername("admin")).thenReturn(Optional.of(admin));
+
+        // When
+        try {
+            TenantContextHolder.setTenantId("1");
+            cachingUserRepository.findByUsername("admin");
+            TenantContextHolder.setTenantId("2");
+            cachingUserRepository.findByUsername("admin");
+        } finally {
+            TenantContextHolder.clear();
+        }
+
+        // Then
+        verify(delegate, times(2)).findByUsername("admin");
+        verify(hashOperations).entries(CachingUserRepository.KEY_PREFIX + "1:admin");
+        verify(hashOperations).entries(CachingUserRepository.KEY_PREFIX + "2:admin");
+    }
+
+    @Test
+    @DisplayName("Redis 故障 - 直接查詢底層儲存")
+    void testRedisFailureFallsBackToStore() {
+        // Given
+        when(hashOperations.entries(anyString())).thenThrow(new RuntimeException("Redis down"));
+        when(delegate.findByUsername("admin")).thenReturn(Optional.of(admin));
+
+        // When
+        Optional<User> user = cachingUserRepository.findByUsername("admin");
+
+        // Then
+        assertTrue(user.isPresent());
+        verify(delegate).findByUsername("admin");
+    }
+}
@@ -0,0 +1,112 @@
+package com.rbac.auth.repository;
+
+import com.rbac.auth.model.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * LastLoginWriteBehind 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@ExtendWith(MockitoExtension.class)
+class LastLoginWriteBehindTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private LastLoginWriteBehind lastLoginWriteBehind;
+
+    @BeforeEach
+    void setUp() {
+        lastLoginWriteBehind = new LastLoginWriteBehind(userRepository);
+    }
+
+    @Test
+    @DisplayName("寫回 - 同一使用者多次登入合併為一筆")
+    @SuppressWarnings("unchecked")
+    void testFlushCoalescesPerUser() {
+        // Given
+        lastLoginWriteBehind.record(user(1L, 1L, "admin"));
+        lastLoginWriteBehind.record(user(1L, 1L, "admin"));
+        lastLoginWriteBehind.record(user(1L, 2L, "user"));
+
+        // When
+        lastLoginWriteBehind.flush();
+
+        // Then
+        ArgumentCaptor<Map<Long, LocalDateTime>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(userRepository).updateLastLoginTimes(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertTrue(captor.getValue().containsKey(1L));
+        assertTrue(captor.getValue().containsKey(2L));
+        assertEquals(0, lastLoginWriteBehind.pendingCount());
+    }
+
+    @Test
+    @DisplayName("寫回 - 不同租戶的同名帳號各自依使用者 ID 寫回")
+    @SuppressWarnings("unchecked")
+    void testFlushKeepsSameUsernameInDifferentTenantsApart() {
+        // Given
+        lastLoginWriteBehind.record(user(1L, 10L, "admin"));
+        lastLoginWriteBehind.record(user(2L, 20L, "admin"));
+
+        // When
+        lastLoginWriteBehind.flush();
+
+        // Then
+        ArgumentCaptor<Map<Long, LocalDateTime>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(userRepository).updateLastLoginTimes(captor.capture());
+        assertEquals(Set.of(10L, 20L), captor.getValue().keySet());
+    }
+
+    @Test
+    @DisplayName("寫回 - 緩衝為空時不存取資料庫")
+    void testFlushEmptyBufferSkipsRepository() {
+        lastLoginWriteBehind.flush();
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("寫回失敗 - 條目放回緩衝，下個週期重試")
+    void testFlushFailureRequeues() {
+        // Given
+        lastLoginWriteBehind.record(user(1L, 1L, "admin"));
+        doThrow(new RuntimeException("database unavailable"))
+                .doNothing()
+                .when(userRepository).updateLastLoginTimes(anyMap());
+
+        // When
+        lastLoginWriteBehind.flush();
+
+        // Then
+        assertEquals(1, lastLoginWriteBehind.pendingCount());
+
+        lastLoginWriteBehind.flush();
+        assertEquals(0, lastLoginWriteBehind.pendingCount());
+        verify(userRepository, times(2)).updateLastLoginTimes(anyMap());
+    }
+
+    private static User user(Long tenantId, Long userId, String username) {
+        User user = new User();
+        user.setTenantId(tenantId);
+        user.setUserId(userId);
+        user.setUsername(username);
+        return user;
+    }
+}
@@ -0,0 +1,143 @@
+package com.rbac.auth.repository;
+
+import com.rbac.auth.model.entity.User;
+import com.rbac.auth.model.entity.UserStatus;
+import com.rbac.auth.repository.mapper.UserAuthMapper;
+import com.rbac.auth.repository.mapper.UserAuthRow;
+import com.rbac.common.database.context.TenantContextHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * MyBatisUserRepository 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@ExtendWith(MockitoExtension.class)
+class MyBatisUserRepositoryTest {
+
+    @Mock
+    private UserAuthMapper userAuthMapper;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @InjectMocks
+    private MyBatisUserRepository myBatisUserRepository;
+
+    @AfterEach
+    void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    @DisplayName("查詢 - 單一聯結查詢的多列合併為使用者與角色")
+    void testFindByUsernameAggregatesRoles() {
+        // Given
+        TenantContextHolder.setTenantId("1");
+        when(userAuthMapper.selectByUsername(1L, "admin")).thenReturn(List.of(
+                row(10L, "ADMIN"), row(10L, "USER")));
+
+        // When
+        User user = myBatisUserRepository.findByUsername("admin").orElseThrow();
+
+        // Then
+        assertEquals(10L, user.getUserId());
+        assertEquals(1L, user.getTenantId());
+        assertEquals("$2a$10$hash", user.getPasswordHash());
+        assertEquals(List.of("ADMIN", "USER"), user.getRoles());
+        assertEquals(UserStatus.ACTIVE, user.getStatus());
+        verify(userAuthMapper, times(1)).selectByUsername(1L, "admin");
+    }
+
+    @Test
+    @DisplayName("查詢 - 無角色的使用者返回空角色清單")
+    void testFindByUsernameWithoutRoles() {
+        // Given
+        when(userAuthMapper.selectByUsername(null, "admin")).thenReturn(List.of(row(10L, null)));
+
+        // When
+        User user = myBatisUserRepository.findByUsername("admin").orElseThrow();
+
+        // Then
+        assertTrue(user.getRoles().isEmpty());
+    }
+
+    @Test
+    @DisplayName("查詢 - 無租戶上下文且同名帳號存在於多個租戶時視為不存在")
+    void testFindByUsernameAmbiguousAcrossTenants() {
+        // Given
+        when(userAuthMapper.selectByUsername(null, "admin")).thenReturn(List.of(
+                row(10L, "ADMIN"), row(20L, "USER")));
+
+        // When
+        Optional<User> user = myBatisUserRepository.findByUsername("admin");
+
+        // Then
+        assertFalse(user.isPresent());
+    }
+
+    @Test
+    @DisplayName("查詢 - 非數值租戶上下文視為不存在，不退回不限租戶查詢")
+    void testFindByUsernameWithNonNumericTenant() {
+        // Given
+        TenantContextHolder.setTenantId("acme");
+
+        // When & Then
+        assertFalse(myBatisUserRepository.findByUsername("admin").isPresent());
+        assertFalse(myBatisUserRepository.replacePasswordHash("admin", "$2a$10$old", "$2a$10$new"));
+        verifyNoInteractions(userAuthMapper);
+    }
+
+    @Test
+    @DisplayName("批次更新 - 依批次大小分段寫入")
+    void testUpdateLastLoginTimesSplitsBatches() {
+        // Given
+        Map<Long, LocalDateTime> times = new HashMap<>();
+        for (long i = 0; i < MyBatisUserRepository.UPDATE_BATCH_SIZE + 1; i++) {
+            times.put(i, LocalDateTime.now());
+        }
+
+        // When
+        myBatisUserRepository.updateLastLoginTimes(times);
+
+        // Then
+        verify(userAuthMapper, times(2)).updateLastLoginTimes(anyMap());
+    }
+
+    @Test
+    @DisplayName("批次更新 - 空批次不存取資料庫")
+    void testUpdateLastLoginTimesEmpty() {
+        myBatisUserRepository.updateLastLoginTimes(Map.of());
+
+        verifyNoInteractions(userAuthMapper);
+    }
+
+    private static UserAuthRow row(Long userId, String roleCode) {
+        UserAuthRow row = new UserAuthRow();
+        row.setUserId(userId);
+        row.setTenantId(1L);
+        row.setUsername("admin");
+        row.setPasswordHash("$2a$10$hash");
+        row.setStatus(1);
+        row.setRoleCode(roleCode);
+        return row;
+    }
+}
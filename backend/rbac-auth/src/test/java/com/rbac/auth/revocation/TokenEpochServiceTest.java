@@ -0,0 +1,114 @@
+package com.rbac.auth.revocation;
+
+import com.rbac.auth.config.JwtConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TokenEpochService 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenEpochServiceTest {
+
+    private static final String USER_KEY = TokenEpochService.USER_EPOCH_PREFIX + "1";
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private TokenEpochService tokenEpochService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        tokenEpochService = new TokenEpochService(stringRedisTemplate, listenerContainer, new JwtConfig());
+    }
+
+    @Test
+    @DisplayName("本地快取 - 重複查詢只讀取 Redis 一次")
+    void testCurrentEpochIsCachedLocally() {
+        // Given
+        when(valueOperations.get(USER_KEY)).thenReturn("2");
+
+        // When
+        long first = tokenEpochService.currentUserEpoch(1L);
+        long second = tokenEpochService.currentUserEpoch(1L);
+
+        // Then
+        assertEquals(2L, first);
+        assertEquals(2L, second);
+        verify(valueOperations, times(1)).get(USER_KEY);
+    }
+
+    @Test
+    @DisplayName("變更通知 - pub/sub 推送的新世代立即生效，不讀取 Redis")
+    void testEpochChangeIsPushed() {
+        // Given
+        when(valueOperations.get(USER_KEY)).thenReturn("1");
+        tokenEpochService.currentUserEpoch(1L);
+
+        // When
+        tokenEpochService.onMessage(message(USER_KEY + "=5"), null);
+
+        // Then
+        assertEquals(5L, tokenEpochService.currentUserEpoch(1L));
+        verify(valueOperations, times(1)).get(USER_KEY);
+    }
+
+    @Test
+    @DisplayName("Redis 失敗 - 保留最後已知的世代，不退回 0")
+    void testReadFailureKeepsLastKnownEpoch() {
+        // Given
+        when(valueOperations.get(USER_KEY))
+                .thenReturn("3")
+                .thenThrow(new RedisConnectionFailureException("down"));
+        tokenEpochService.currentUserEpoch(1L);
+
+        // When
+        long fresh = tokenEpochService.freshUserEpoch(1L);
+
+        // Then
+        assertEquals(3L, fresh);
+        assertEquals(3L, tokenEpochService.currentUserEpoch(1L));
+    }
+
+    @Test
+    @DisplayName("首次讀取失敗 - 該次以 0 處理且不快取，下次請求重試")
+    void testInitialLoadFailureIsNotCached() {
+        // Given
+        when(valueOperations.get(USER_KEY))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenReturn("4");
+
+        // When / Then
+        assertEquals(0L, tokenEpochService.currentUserEpoch(1L));
+        assertEquals(4L, tokenEpochService.currentUserEpoch(1L));
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("auth:epoch".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
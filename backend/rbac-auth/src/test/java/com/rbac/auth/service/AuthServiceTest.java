@@ -1,20 +1,30 @@
 package com.rbac.auth.service;
 
+import com.rbac.auth.audit.LoginAuditEvent;
+import com.rbac.auth.audit.LoginAuditPublisher;
+import com.rbac.auth.config.JwtConfig;
 import com.rbac.auth.context.UserContext;
 import com.rbac.auth.exception.AccountLockedException;
 import com.rbac.auth.exception.AuthenticationException;
+import com.rbac.auth.exception.TooManyRequestsException;
 import com.rbac.auth.model.dto.LoginRequest;
 import com.rbac.auth.model.dto.LoginResponse;
 import com.rbac.auth.model.entity.User;
 import com.rbac.auth.model.entity.UserStatus;
+import com.rbac.auth.password.PasswordRehashService;
+import com.rbac.auth.password.PasswordVerifier;
+import com.rbac.auth.repository.LastLoginWriteBehind;
 import com.rbac.auth.repository.UserRepository;
-import com.rbac.common.redis.util.CacheService;
+import com.rbac.auth.throttle.LoginThrottleService;
+import com.rbac.auth.token.RefreshTokenService;
+import com.rbac.common.database.context.TenantContextHolder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import io.jsonwebtoken.Claims;
@@ -23,6 +33,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,15 +51,35 @@ class AuthServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private LastLoginWriteBehind lastLoginWriteBehind;
+
     @Mock
     private JwtTokenService jwtTokenService;
 
     @Mock
-    private CacheService cacheService;
+    private LoginThrottleService loginThrottleService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private PasswordVerifier passwordVerifier;
+
+    @Mock
+    private PasswordRehashService passwordRehashService;
+
+    @Mock
+    private LoginAuditPublisher loginAuditPublisher;
+
+    @Spy
+    private JwtConfig jwtConfig = new JwtConfig();
 
     @InjectMocks
     private AuthServiceImpl authService;
 
+    private static final LoginThrottleService.Outcome NOT_LOCKED = new LoginThrottleService.Outcome(false, false, 0L);
+
     private User testUser;
     private LoginRequest loginRequest;
 
@@ -76,8 +107,10 @@ class AuthServiceTest {
     @Test
     void testLoginSuccess() {
         // Given
-        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(testUser));
-        when(userRepository.validatePassword("admin", "admin123")).thenReturn(true);
+        givenNotLocked("admin");
+        when(userRepository.findForAuthentication("admin")).thenReturn(Optional.of(testUser));
+        when(passwordVerifier.matches("admin123", testUser.getPasswordHash())).thenReturn(true);
+        when(loginThrottleService.recordSuccess("admin")).thenReturn(NOT_LOCKED);
         when(jwtTokenService.generateToken(any(UserContext.class))).thenReturn("mock.jwt.token");
 
         // When
@@ -87,29 +120,34 @@ class AuthServiceTest {
         assertNotNull(response);
         assertEquals("mock.jwt.token", response.getToken());
         assertEquals("Bearer", response.getTokenType());
-        assertEquals(86400L, response.getExpiresIn());
+        assertEquals(900L, response.getExpiresIn()); // 預設 15 分鐘
         assertNotNull(response.getExpiresAt());
+        assertNull(response.getRefreshToken()); // Refresh Token 未啟用
         assertEquals(1L, response.getUserId());
         assertEquals("admin", response.getUsername());
         assertEquals(1L, response.getTenantId());
         assertEquals(Arrays.asList("ROLE_ADMIN", "ROLE_USER"), response.getRoles());
 
         // Verify 方法調用
-        verify(userRepository).findByUsername("admin");
-        verify(userRepository).validatePassword("admin", "admin123");
+        verify(userRepository).findForAuthentication("admin");
+        verify(passwordVerifier).matches("admin123", testUser.getPasswordHash());
         verify(jwtTokenService).generateToken(any(UserContext.class));
-        verify(userRepository).updateLastLoginTime("admin");
-        verify(cacheService).delete("auth:attempts:admin"); // 重置失敗嘗試次數
+        verify(passwordRehashService).rehashIfNeeded("admin", "admin123", testUser.getPasswordHash());
+        verify(lastLoginWriteBehind).record(testUser);
+        verify(userRepository, never()).updateLastLoginTime(anyLong()); // 不同步寫入
+        verify(loginThrottleService).recordSuccess("admin"); // 重置失敗嘗試次數
+        verify(loginThrottleService, never()).recordFailure(anyString());
+        verify(loginAuditPublisher).success(testUser);
     }
 
     @Test
     void testLoginFailedWithWrongPassword() {
         // Given
+        givenNotLocked("admin");
         loginRequest.setPassword("wrongpassword"); // 修改密碼為錯誤的
-        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(testUser));
-        when(userRepository.validatePassword("admin", "wrongpassword")).thenReturn(false);
-        when(cacheService.get("auth:attempts:admin", Integer.class)).thenReturn(null); // 第一次失敗
-        when(cacheService.get("auth:lock:admin", Long.class)).thenReturn(null); // 帳號未鎖定
+        when(userRepository.findForAuthentication("admin")).thenReturn(Optional.of(testUser));
+        when(passwordVerifier.matches("wrongpassword", testUser.getPasswordHash())).thenReturn(false);
+        when(loginThrottleService.recordFailure("admin")).thenReturn(NOT_LOCKED); // 第一次失敗
 
         // When & Then
         AuthenticationException exception = assertThrows(AuthenticationException.class, () -> {
@@ -119,22 +157,28 @@ class AuthServiceTest {
         assertEquals("帳號或密碼錯誤", exception.getMessage());
 
         // Verify 方法調用
-        verify(userRepository).findByUsername("admin");
-        verify(userRepository).validatePassword("admin", "wrongpassword");
-        verify(cacheService).set("auth:attempts:admin", 1, 3600); // 記錄失敗嘗試
+        verify(userRepository).findForAuthentication("admin");
+        verify(passwordVerifier).matches("wrongpassword", testUser.getPasswordHash());
+        verify(loginThrottleService).recordFailure("admin"); // 記錄失敗嘗試
+        verify(loginThrottleService, never()).recordSuccess(anyString());
         verify(jwtTokenService, never()).generateToken(any(UserContext.class));
-        verify(userRepository, never()).updateLastLoginTime(anyString());
+        verify(lastLoginWriteBehind, never()).record(any(User.class));
+        verify(passwordRehashService, never()).rehashIfNeeded(anyString(), anyString(), anyString());
+        verify(loginAuditPublisher).failure("admin", testUser, LoginAuditEvent.BAD_CREDENTIALS);
+        verify(loginAuditPublisher, never()).success(any(User.class));
     }
 
     @Test
     void testAccountLockedAfter5Failures() {
         // Given - 模擬第5次失敗嘗試
+        givenNotLocked("admin");
         loginRequest.setPassword("wrongpassword");
 
-        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(testUser));
-        when(userRepository.validatePassword("admin", "wrongpassword")).thenReturn(false);
-        when(cacheService.get("auth:attempts:admin", Integer.class)).thenReturn(4); // 第4次失敗後，現在是第5次
-        when(cacheService.get("auth:lock:admin", Long.class)).thenReturn(null); // 帳號未鎖定
+        when(userRepository.findForAuthentication("admin")).thenReturn(Optional.of(testUser));
+        when(passwordVerifier.matches("wrongpassword", testUser.getPasswordHash())).thenReturn(false);
+        long lockUntil = System.currentTimeMillis() / 1000 + 900L;
+        when(loginThrottleService.recordFailure("admin"))
+                .thenReturn(new LoginThrottleService.Outcome(false, true, lockUntil)); // 第5次失敗觸發鎖定
 
         // When & Then
         AuthenticationException exception = assertThrows(AuthenticationException.class, () -> {
@@ -143,15 +187,16 @@ class AuthServiceTest {
 
         assertEquals("帳號或密碼錯誤", exception.getMessage());
 
-        // Verify 帳號被鎖定
-        verify(cacheService).set(eq("auth:attempts:admin"), eq(5), eq(3600L));
-        verify(cacheService).set(eq("auth:lock:admin"), anyLong(), eq(900L)); // 15分鐘鎖定
+        // Verify 本次失敗已記錄（鎖定由腳本原子完成）
+        verify(loginThrottleService).recordFailure("admin");
+        verify(loginAuditPublisher).lockout("admin", testUser);
+        verify(loginAuditPublisher, never()).failure(anyString(), any(), anyString());
     }
 
     @Test
     void testLoginWithLockedAccount() {
-        // Given - 帳號已被鎖定
-        when(cacheService.get("auth:lock:admin", Long.class)).thenReturn(System.currentTimeMillis() / 1000 + 1000L);
+        // Given - 帳號已被鎖定（本節點已知）
+        when(loginThrottleService.getKnownLockUntil("admin")).thenReturn(System.currentTimeMillis() / 1000 + 1000L);
 
         // When & Then
         AccountLockedException exception = assertThrows(AccountLockedException.class, () -> {
@@ -162,16 +207,78 @@ class AuthServiceTest {
         assertNotNull(exception.getLockUntil());
 
         // Verify 不會執行後續驗證
-        verify(userRepository, never()).findByUsername(anyString());
-        verify(userRepository, never()).validatePassword(anyString(), anyString());
+        verify(userRepository, never()).findForAuthentication(anyString());
+        verify(passwordVerifier, never()).matches(anyString(), anyString());
+        verify(loginThrottleService, never()).getLockUntil(anyString());
+        verify(loginThrottleService, never()).recordFailure(anyString());
+        verify(loginAuditPublisher).failure("admin", null, LoginAuditEvent.ACCOUNT_LOCKED);
+    }
+
+    @Test
+    @DisplayName("登入失敗 - 鎖定只記錄於 Redis 時，於密碼驗證前拒絕")
+    void testLoginRejectedBeforeHashWhenLockedInRedis() {
+        // Given
+        long lockUntil = System.currentTimeMillis() / 1000 + 600L;
+        when(loginThrottleService.getKnownLockUntil("admin")).thenReturn(null);
+        when(loginThrottleService.getLockUntil("admin")).thenReturn(lockUntil);
+
+        // When
+        AccountLockedException exception = assertThrows(AccountLockedException.class,
+                () -> authService.login(loginRequest));
+
+        // Then
+        assertEquals(lockUntil, exception.getLockUntil());
+        verify(userRepository, never()).findForAuthentication(anyString());
+        verify(passwordVerifier, never()).matches(anyString(), anyString());
+        verify(loginAuditPublisher).failure("admin", null, LoginAuditEvent.ACCOUNT_LOCKED);
+    }
+
+    @Test
+    @DisplayName("登入成功 - 已過期的解鎖時間不視為鎖定")
+    void testExpiredLockDoesNotReject() {
+        // Given
+        when(loginThrottleService.getKnownLockUntil("admin")).thenReturn(0L);
+        when(loginThrottleService.getLockUntil("admin")).thenReturn(null);
+        when(userRepository.findForAuthentication("admin")).thenReturn(Optional.of(testUser));
+        when(passwordVerifier.matches("admin123", testUser.getPasswordHash())).thenReturn(true);
+        when(loginThrottleService.recordSuccess("admin")).thenReturn(NOT_LOCKED);
+        when(jwtTokenService.generateToken(any(UserContext.class))).thenReturn("mock.jwt.token");
+
+        // When
+        LoginResponse response = authService.login(loginRequest);
+
+        // Then
+        assertEquals("mock.jwt.token", response.getToken());
+    }
+
+    @Test
+    @DisplayName("登入失敗 - 其他節點已鎖定帳號時，即使密碼正確也拒絕")
+    void testLoginRejectedWhenLockedElsewhere() {
+        // Given
+        givenNotLocked("admin");
+        long lockUntil = System.currentTimeMillis() / 1000 + 600L;
+        when(userRepository.findForAuthentication("admin")).thenReturn(Optional.of(testUser));
+        when(passwordVerifier.matches("admin123", testUser.getPasswordHash())).thenReturn(true);
+        when(loginThrottleService.recordSuccess("admin"))
+                .thenReturn(new LoginThrottleService.Outcome(true, false, lockUntil));
+
+        // When & Then
+        AccountLockedException exception = assertThrows(AccountLockedException.class, () -> {
+            authService.login(loginRequest);
+        });
+
+        assertEquals(lockUntil, exception.getLockUntil());
+        verify(jwtTokenService, never()).generateToken(any(UserContext.class));
+        verify(loginAuditPublisher).failure("admin", testUser, LoginAuditEvent.ACCOUNT_LOCKED);
+        verify(loginAuditPublisher, never()).success(any(User.class));
     }
 
     @Test
     void testLoginWithNonExistentUser() {
         // Given
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
-        when(cacheService.get("auth:attempts:nonexistent", Integer.class)).thenReturn(null);
-        when(cacheService.get("auth:lock:nonexistent", Long.class)).thenReturn(null); // 帳號未鎖定
+        givenNotLocked("nonexistent");
+        when(userRepository.findForAuthentication("nonexistent")).thenReturn(Optional.empty());
+        when(loginThrottleService.recordFailure("nonexistent")).thenReturn(NOT_LOCKED);
 
         loginRequest.setUsername("nonexistent");
 
@@ -183,7 +290,8 @@ class AuthServiceTest {
         assertEquals("帳號或密碼錯誤", exception.getMessage());
 
         // Verify 記錄失敗嘗試
-        verify(cacheService).set("auth:attempts:nonexistent", 1, 3600);
+        verify(loginThrottleService).recordFailure("nonexistent");
+        verify(loginAuditPublisher).failure("nonexistent", null, LoginAuditEvent.USER_NOT_FOUND);
     }
 
     @Test
@@ -206,4 +314,175 @@ class AuthServiceTest {
         // Then
         verify(jwtTokenService).addToBlacklist(jti, expectedTtlSeconds);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("登出所有裝置 - 遞增使用者世代")
+    void testLogoutAll() {
+        // When
+        authService.logoutAll(1L);
+
+        // Then
+        verify(jwtTokenService).revokeAllForUser(1L);
+        verify(jwtTokenService, never()).addToBlacklist(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("登入成功 - 啟用時一併簽發 Refresh Token")
+    void testLoginIssuesRefreshToken() {
+        // Given
+        givenNotLocked("admin");
+        when(userRepository.findForAuthentication("admin")).thenReturn(Optional.of(testUser));
+        when(passwordVerifier.matches("admin123", testUser.getPasswordHash())).thenReturn(true);
+        when(loginThrottleService.recordSuccess("admin")).thenReturn(NOT_LOCKED);
+        when(jwtTokenService.generateToken(any(UserContext.class))).thenReturn("mock.jwt.token");
+        when(refreshTokenService.isEnabled()).thenReturn(true);
+        when(refreshTokenService.issue(any(UserContext.class))).thenReturn("family.secret");
+        when(refreshTokenService.getTtlSeconds()).thenReturn(1209600L);
+
+        // When
+        LoginResponse response = authService.login(loginRequest);
+
+        // Then
+        assertEquals("family.secret", response.getRefreshToken());
+        assertEquals(1209600L, response.getRefreshExpiresIn());
+    }
+
+    @Test
+    @DisplayName("換發成功 - 輪替 Refresh Token 並簽發新 Access Token")
+    void testRefreshSuccess() {
+        // Given
+        when(refreshTokenService.isEnabled()).thenReturn(true);
+        when(refreshTokenService.rotate("family.old"))
+                .thenReturn(new RefreshTokenService.Rotation("family.new", "admin", 1L, 1L));
+        when(refreshTokenService.getTtlSeconds()).thenReturn(1209600L);
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(testUser));
+        when(jwtTokenService.generateToken(any(UserContext.class))).thenReturn("new.jwt.token");
+
+        // When
+        LoginResponse response = authService.refresh("family.old");
+
+        // Then
+        assertEquals("new.jwt.token", response.getToken());
+        assertEquals("family.new", response.getRefreshToken());
+        assertEquals(900L, response.getExpiresIn());
+        verify(lastLoginWriteBehind, never()).record(any(User.class));
+    }
+
+    @Test
+    @DisplayName("換發 - 於家族所屬租戶載入使用者，忽略請求的租戶標頭")
+    void testRefreshLoadsUserInFamilyTenant() {
+        // Given
+        TenantContextHolder.setTenantId("2");
+        AtomicReference<String> lookupTenant = new AtomicReference<>();
+        when(refreshTokenService.isEnabled()).thenReturn(true);
+        when(refreshTokenService.rotate("family.old"))
+                .thenReturn(new RefreshTokenService.Rotation("family.new", "admin", 1L, 1L));
+        when(refreshTokenService.getTtlSeconds()).thenReturn(1209600L);
+        when(userRepository.findByUsername("admin")).thenAnswer(invocation -> {
+            lookupTenant.set(TenantContextHolder.getTenantId());
+            return Optional.of(testUser);
+        });
+        when(jwtTokenService.generateToken(any(UserContext.class))).thenReturn("new.jwt.token");
+
+        try {
+            // When
+            authService.refresh("family.old");
+
+            // Then
+            assertEquals("1", lookupTenant.get());
+            assertEquals("2", TenantContextHolder.getTenantId());
+        } finally {
+            TenantContextHolder.clear();
+        }
+    }
+
+    @Test
+    @DisplayName("換發失敗 - 載入的使用者 ID 或租戶與家族不符時撤銷 Refresh Token")
+    void testRefreshRejectedWhenUserDoesNotMatchFamily() {
+        // Given：租戶 1 的 admin 家族，載入到租戶 2 的同名帳號
+        User otherTenantUser = User.builder()
+                .userId(2L)
+                .username("admin")
+                .tenantId(2L)
+                .roles(Arrays.asList("ROLE_ADMIN"))
+                .status(UserStatus.ACTIVE)
+                .build();
+        when(refreshTokenService.isEnabled()).thenReturn(true);
+        when(refreshTokenService.rotate("family.old"))
+                .thenReturn(new RefreshTokenService.Rotation("family.new", "admin", 1L, 1L));
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(otherTenantUser));
+
+        // When & Then
+        assertThrows(AuthenticationException.class, () -> authService.refresh("family.old"));
+        verify(refreshTokenService).revoke("family.new");
+        verify(jwtTokenService, never()).generateToken(any(UserContext.class));
+    }
+
+    @Test
+    @DisplayName("換發失敗 - Refresh Token 重複使用")
+    void testRefreshReuseRejected() {
+        // Given
+        when(refreshTokenService.isEnabled()).thenReturn(true);
+        when(refreshTokenService.rotate("family.old"))
+                .thenThrow(new AuthenticationException("Refresh Token 已失效，請重新登入"));
+
+        // When & Then
+        assertThrows(AuthenticationException.class, () -> authService.refresh("family.old"));
+        verify(jwtTokenService, never()).generateToken(any(UserContext.class));
+    }
+
+    @Test
+    @DisplayName("登入失敗 - 使用者已停用時不驗證密碼、不簽發 Token，並記錄審計事件")
+    void testLoginDisabledUserRejected() {
+        // Given
+        testUser.setStatus(UserStatus.DISABLED);
+        givenNotLocked("admin");
+        when(userRepository.findForAuthentication("admin")).thenReturn(Optional.of(testUser));
+
+        // When
+        AuthenticationException e = assertThrows(AuthenticationException.class, () -> authService.login(loginRequest));
+
+        // Then
+        assertEquals("帳號或密碼錯誤", e.getMessage());
+        verify(loginAuditPublisher).failure("admin", testUser, LoginAuditEvent.ACCOUNT_DISABLED);
+        verify(passwordVerifier, never()).matches(anyString(), anyString());
+        verify(jwtTokenService, never()).generateToken(any(UserContext.class));
+        verify(refreshTokenService, never()).issue(any(UserContext.class));
+    }
+
+    @Test
+    @DisplayName("換發失敗 - 使用者已停用時撤銷 Refresh Token")
+    void testRefreshDisabledUserRejected() {
+        // Given
+        testUser.setStatus(UserStatus.DISABLED);
+        when(refreshTokenService.isEnabled()).thenReturn(true);
+        when(refreshTokenService.rotate("family.old"))
+                .thenReturn(new RefreshTokenService.Rotation("family.new", "admin", 1L, 1L));
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(testUser));
+
+        // When & Then
+        assertThrows(AuthenticationException.class, () -> authService.refresh("family.old"));
+        verify(refreshTokenService).revoke("family.new");
+        verify(jwtTokenService, never()).generateToken(any(UserContext.class));
+    }
+
+    @Test
+    @DisplayName("登入失敗 - 密碼驗證佇列已滿時返回 429，不記錄失敗嘗試")
+    void testLoginRejectedWhenVerifierSaturated() {
+        // Given
+        givenNotLocked("admin");
+        when(userRepository.findForAuthentication("admin")).thenReturn(Optional.of(testUser));
+        when(passwordVerifier.matches("admin123", testUser.getPasswordHash()))
+                .thenThrow(new TooManyRequestsException("登入請求過多，請稍後再試"));
+
+        // When & Then
+        assertThrows(TooManyRequestsException.class, () -> authService.login(loginRequest));
+        verify(loginThrottleService, never()).recordFailure(anyString());
+        verify(jwtTokenService, never()).generateToken(any(UserContext.class));
+    }
+
+    private void givenNotLocked(String username) {
+        when(loginThrottleService.getKnownLockUntil(username)).thenReturn(null);
+        when(loginThrottleService.getLockUntil(username)).thenReturn(null);
+    }
+}
@@ -0,0 +1,482 @@
+package com.rbac.auth.service;
+
+import com.rbac.auth.cache.VerifiedTokenCache;
+import com.rbac.auth.config.JwtConfig;
+import com.rbac.auth.context.UserContext;
+import com.rbac.auth.key.JwtKeyRing;
+import com.rbac.auth.model.VerifiedToken;
+import com.rbac.auth.revocation.LocalRevocationSet;
+import com.rbac.auth.revocation.RevocationSyncService;
+import com.rbac.auth.revocation.TokenEpochService;
+import com.rbac.auth.token.CompactTokenDecoder;
+import com.rbac.auth.token.RoleDictionary;
+import com.rbac.common.redis.util.CacheService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * JwtTokenServiceImpl 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtTokenServiceImplTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    @Mock
+    private CacheService cacheService;
+
+    @Mock
+    private RevocationSyncService revocationSyncService;
+
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private RoleDictionary roleDictionary;
+
+    private JwtTokenServiceImpl jwtTokenService;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private LocalRevocationSet localRevocationSet;
+
+    private UserContext userContext;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        jwtConfig.setExpiration(3600L);
+
+        verifiedTokenCache = new VerifiedTokenCache(jwtConfig, new SimpleMeterRegistry());
+        localRevocationSet = new LocalRevocationSet(jwtConfig);
+        localRevocationSet.rebuild(Collections.emptyMap());
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig);
+        keyRing.init();
+        jwtTokenService = new JwtTokenServiceImpl(jwtConfig, cacheService, verifiedTokenCache,
+                localRevocationSet, revocationSyncService, tokenEpochService, keyRing,
+                new CompactTokenDecoder(keyRing, roleDictionary, jwtConfig), roleDictionary);
+
+        userContext = new UserContext();
+        userContext.setUserId(1L);
+        userContext.setUsername("admin");
+        userContext.setTenantId(1L);
+        userContext.setRoles(Arrays.asList("ROLE_ADMIN", "ROLE_USER"));
+    }
+
+    private JwtTokenServiceImpl newService(JwtConfig jwtConfig, LocalRevocationSet revocationSet) {
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig);
+        keyRing.init();
+        return new JwtTokenServiceImpl(jwtConfig, cacheService,
+                new VerifiedTokenCache(jwtConfig, new SimpleMeterRegistry()),
+                revocationSet, revocationSyncService, tokenEpochService, keyRing,
+                new CompactTokenDecoder(keyRing, roleDictionary, jwtConfig), roleDictionary);
+    }
+
+    private static JwtConfig.KeyEntry keyEntry(String kid, KeyPair keyPair, boolean withPrivateKey) {
+        JwtConfig.KeyEntry entry = new JwtConfig.KeyEntry();
+        entry.setKid(kid);
+        entry.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        if (withPrivateKey) {
+            entry.setPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        }
+        return entry;
+    }
+
+    @Test
+    @DisplayName("單次驗證 - 回傳完整的 VerifiedToken")
+    void testVerifyTokenReturnsVerifiedToken() {
+        // Given
+        String token = jwtTokenService.generateToken(userContext);
+
+        // When
+        Optional<VerifiedToken> verified = jwtTokenService.verifyToken(token);
+
+        // Then
+        assertTrue(verified.isPresent());
+        VerifiedToken verifiedToken = verified.get();
+        // 本服務簽發的 HS256 Token 走快速解碼路徑，不建立 Claims
+        assertNull(verifiedToken.getClaims());
+        assertNotNull(verifiedToken.getJti());
+        assertNotNull(verifiedToken.getExpiresAt());
+        assertEquals(verifiedToken.getJti(), verifiedToken.getUserContext().getJti());
+        assertEquals(1L, verifiedToken.getUserContext().getUserId());
+        assertEquals(1L, verifiedToken.getUserContext().getTenantId());
+        assertEquals("admin", verifiedToken.getUserContext().getUsername());
+        assertEquals(Arrays.asList("ROLE_ADMIN", "ROLE_USER"), verifiedToken.getUserContext().getRoles());
+
+        // 本地過濾未命中，不需查詢 Redis
+        verify(cacheService, never()).exists(anyString());
+    }
+
+    @Test
+    @DisplayName("快速解碼停用 - 以 jjwt 解析並保留 Claims，結果與快速路徑一致")
+    void testFastDecoderDisabledFallsBackToJjwt() {
+        // Given
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        jwtConfig.setFastDecoderEnabled(false);
+        JwtTokenServiceImpl jjwtOnly = newService(jwtConfig, localRevocationSet);
+        String token = jwtTokenService.generateToken(userContext);
+
+        // When
+        VerifiedToken fast = jwtTokenService.verifyToken(token).orElseThrow();
+        VerifiedToken full = jjwtOnly.verifyToken(token).orElseThrow();
+
+        // Then
+        assertNotNull(full.getClaims());
+        assertEquals(full.getUserContext(), fast.getUserContext());
+        assertEquals(full.getJti(), fast.getJti());
+        assertEquals(full.getIssuedAt(), fast.getIssuedAt());
+        assertEquals(full.getExpiresAt(), fast.getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("未知 Claim - 快速解碼放棄並改用 jjwt")
+    void testUnknownClaimFallsBackToJjwt() {
+        // Given：帶 nbf 的 Token 不屬於本服務的固定格式
+        String token = Jwts.builder()
+                .header().type("JWT").and()
+                .id("external-jti")
+                .notBefore(new Date(System.currentTimeMillis() - 1000))
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .claim("user_id", 2L)
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), Jwts.SIG.HS256)
+                .compact();
+
+        // When
+        VerifiedToken verified = jwtTokenService.verifyToken(token).orElseThrow();
+
+        // Then
+        assertNotNull(verified.getClaims());
+        assertEquals(2L, verified.getUserContext().getUserId());
+    }
+
+    @Test
+    @DisplayName("單次驗證 - 已加入黑名單的 Token 回傳 empty")
+    void testVerifyTokenBlacklisted() {
+        // Given
+        String token = jwtTokenService.generateToken(userContext);
+        String jti = jwtTokenService.extractClaims(token).getId();
+        localRevocationSet.add(jti, Instant.now().getEpochSecond() + 60);
+
+        // When & Then
+        assertFalse(jwtTokenService.verifyToken(token).isPresent());
+        assertFalse(jwtTokenService.validateToken(token));
+        verify(cacheService, never()).exists(anyString());
+    }
+
+    @Test
+    @DisplayName("本地集合尚未同步 - 回退查詢 Redis 黑名單")
+    void testVerifyTokenFallsBackToRedisWhenNotSynced() {
+        // Given
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        JwtTokenServiceImpl unsynced = newService(jwtConfig, new LocalRevocationSet(jwtConfig));
+        String token = unsynced.generateToken(userContext);
+        when(cacheService.exists(anyString())).thenReturn(true);
+
+        // When & Then
+        assertFalse(unsynced.verifyToken(token).isPresent());
+        verify(cacheService).exists(startsWith("auth:blacklist:"));
+    }
+
+    @Test
+    @DisplayName("單次驗證 - 竄改簽章的 Token 回傳 empty")
+    void testVerifyTokenTampered() {
+        // Given
+        String token = jwtTokenService.generateToken(userContext);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // When & Then
+        assertFalse(jwtTokenService.verifyToken(tampered).isPresent());
+        assertFalse(jwtTokenService.verifyToken("not.a.jwt").isPresent());
+        verify(cacheService, never()).exists(anyString());
+    }
+
+    @Test
+    @DisplayName("快速解碼 - 標頭相同但簽章不符回傳 REJECTED，不交由 jjwt 重新解析")
+    void testCompactDecoderRejectsTamperedSignature() {
+        // Given
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig);
+        keyRing.init();
+        CompactTokenDecoder decoder = new CompactTokenDecoder(keyRing, roleDictionary, jwtConfig);
+        String token = jwtTokenService.generateToken(userContext);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // When & Then
+        assertSame(CompactTokenDecoder.REJECTED, decoder.decode(tampered));
+        assertTrue(CompactTokenDecoder.REJECTED.isExpiredAt(Instant.now()));
+        assertNull(decoder.decode("not.a.jwt"));
+    }
+
+    @Test
+    @DisplayName("快取命中 - 回傳的 UserContext 為副本，修改不影響快取內容")
+    void testCachedUserContextIsNotShared() {
+        // Given
+        String token = jwtTokenService.generateToken(userContext);
+        UserContext first = jwtTokenService.verifyToken(token).orElseThrow().getUserContext();
+
+        // When
+        first.setUsername("intruder");
+        first.setTenantId(99L);
+        UserContext second = jwtTokenService.verifyToken(token).orElseThrow().getUserContext();
+
+        // Then
+        assertEquals(1, verifiedTokenCache.size());
+        assertNotSame(first, second);
+        assertEquals("admin", second.getUsername());
+        assertEquals(1L, second.getTenantId());
+        assertThrows(UnsupportedOperationException.class, () -> second.getRoles().add("ROLE_SUPER"));
+    }
+
+    @Test
+    @DisplayName("extractUserContext 與 verifyToken 結果一致")
+    void testExtractUserContextConsistent() {
+        // Given
+        String token = jwtTokenService.generateToken(userContext);
+
+        // When
+        UserContext extracted = jwtTokenService.extractUserContext(token);
+        UserContext verified = jwtTokenService.verifyToken(token).orElseThrow().getUserContext();
+
+        // Then
+        assertEquals(extracted, verified);
+    }
+
+    @Test
+    @DisplayName("快取命中 - 重複驗證不再解析，但仍檢查黑名單")
+    void testVerifyTokenCacheHit() {
+        // Given
+        String token = jwtTokenService.generateToken(userContext);
+
+        // When
+        VerifiedToken first = jwtTokenService.verifyToken(token).orElseThrow();
+        VerifiedToken second = jwtTokenService.verifyToken(token).orElseThrow();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1L, verifiedTokenCache.stats().hitCount());
+        assertEquals(1L, verifiedTokenCache.stats().missCount());
+
+        // 撤銷後快取命中也必須失效
+        localRevocationSet.add(first.getJti(), Instant.now().getEpochSecond() + 60);
+        assertFalse(jwtTokenService.verifyToken(token).isPresent());
+    }
+
+    @Test
+    @DisplayName("加入黑名單 - 移除對應的快取條目並廣播撤銷")
+    void testAddToBlacklistInvalidatesCache() {
+        // Given
+        String token = jwtTokenService.generateToken(userContext);
+        VerifiedToken verified = jwtTokenService.verifyToken(token).orElseThrow();
+        assertEquals(1L, verifiedTokenCache.size());
+
+        // When
+        jwtTokenService.addToBlacklist(verified.getJti(), 60);
+
+        // Then
+        assertNull(verifiedTokenCache.get(token));
+        verify(cacheService).set("auth:blacklist:" + verified.getJti(), "blacklisted", 60L);
+        verify(revocationSyncService).publish(eq(verified.getJti()), anyLong());
+        assertTrue(localRevocationSet.isRevoked(verified.getJti()));
+        assertFalse(jwtTokenService.verifyToken(token).isPresent());
+    }
+
+    @Test
+    @DisplayName("使用者世代遞增 - 先前簽發的 Token 全部失效")
+    void testUserEpochBumpRevokesTokens() {
+        // Given
+        String token = jwtTokenService.generateToken(userContext);
+        assertTrue(jwtTokenService.verifyToken(token).isPresent());
+        assertEquals(0, ((Number) jwtTokenService.extractClaims(token).get("uev")).intValue());
+
+        // When
+        when(tokenEpochService.currentUserEpoch(1L)).thenReturn(1L);
+
+        // Then：快取命中亦失效
+        assertFalse(jwtTokenService.verifyToken(token).isPresent());
+        assertEquals(0L, verifiedTokenCache.size());
+
+        // 新世代簽發的 Token 有效
+        when(tokenEpochService.freshUserEpoch(1L)).thenReturn(1L);
+        String newToken = jwtTokenService.generateToken(userContext);
+        assertEquals(1L, jwtTokenService.verifyToken(newToken).orElseThrow().getUserEpoch());
+    }
+
+    @Test
+    @DisplayName("租戶世代遞增 - 租戶下的 Token 全部失效")
+    void testTenantEpochBumpRevokesTokens() {
+        // Given
+        String token = jwtTokenService.generateToken(userContext);
+        when(tokenEpochService.currentTenantEpoch(1L)).thenReturn(3L);
+
+        // When & Then
+        assertFalse(jwtTokenService.verifyToken(token).isPresent());
+        verify(cacheService, never()).exists(anyString());
+    }
+
+    @Test
+    @DisplayName("ES256 金鑰環 - Token 帶 kid 並可由 JWKS 公鑰驗證")
+    void testEs256KeyRingSignsWithKid() {
+        // Given
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setAlgorithm("ES256");
+        jwtConfig.getKeyRing().setKeys(List.of(keyEntry("k1", keyPair, true)));
+        JwtTokenServiceImpl es256 = newService(jwtConfig, localRevocationSet);
+
+        // When
+        String token = es256.generateToken(userContext);
+
+        // Then
+        assertEquals("k1", Jwts.parser().verifyWith(keyPair.getPublic()).build()
+                .parseSignedClaims(token).getHeader().getKeyId());
+        assertTrue(es256.verifyToken(token).isPresent());
+        // HS256 節點不接受非對稱簽章的 Token
+        assertFalse(jwtTokenService.verifyToken(token).isPresent());
+    }
+
+    @Test
+    @DisplayName("HS256 遷移 - 停用 accept-legacy-hmac 後不帶 kid 的舊 Token 一律拒絕")
+    void testLegacyHmacTokensRejectedWhenDisabled() {
+        // Given
+        String legacyToken = jwtTokenService.generateToken(userContext);
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        jwtConfig.setAlgorithm("ES256");
+        jwtConfig.getKeyRing().setKeys(List.of(keyEntry("k1", keyPair, true)));
+
+        // When
+        JwtTokenServiceImpl migrating = newService(jwtConfig, localRevocationSet);
+        jwtConfig.getKeyRing().setAcceptLegacyHmac(false);
+        JwtTokenServiceImpl migrated = newService(jwtConfig, localRevocationSet);
+
+        // Then
+        assertTrue(migrating.verifyToken(legacyToken).isPresent());
+        assertFalse(migrated.verifyToken(legacyToken).isPresent());
+        assertTrue(migrated.verifyToken(migrated.generateToken(userContext)).isPresent());
+    }
+
+    @Test
+    @DisplayName("金鑰輪替 - 切換 active-kid 後舊 Token 仍可驗證，JWKS 公開新舊公鑰")
+    void testKeyRotation() {
+        // Given
+        KeyPair oldKey = Jwts.SIG.EdDSA.keyPair().build();
+        KeyPair newKey = Jwts.SIG.EdDSA.keyPair().build();
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setAlgorithm("EdDSA");
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig);
+        keyRing.reload(List.of(keyEntry("old", oldKey, true), keyEntry("new", newKey, true)), "old");
+        JwtTokenServiceImpl service = new JwtTokenServiceImpl(jwtConfig, cacheService,
+                new VerifiedTokenCache(jwtConfig, new SimpleMeterRegistry()),
+                localRevocationSet, revocationSyncService, tokenEpochService, keyRing,
+                new CompactTokenDecoder(keyRing, roleDictionary, jwtConfig), roleDictionary);
+        String oldToken = service.generateToken(userContext);
+
+        // When
+        keyRing.reload(List.of(keyEntry("old", oldKey, false), keyEntry("new", newKey, true)), "new");
+        String newToken = service.generateToken(userContext);
+
+        // Then
+        assertEquals("new", keyRing.getActiveKid());
+        assertTrue(service.verifyToken(oldToken).isPresent());
+        assertTrue(service.verifyToken(newToken).isPresent());
+        assertTrue(keyRing.getJwksJson().contains("\"kid\":\"old\""));
+        assertTrue(keyRing.getJwksJson().contains("\"kid\":\"new\""));
+        assertFalse(keyRing.getJwksJson().contains("\"d\""));
+    }
+
+    @Test
+    @DisplayName("HS256 模式 - JWKS 不公開共用密鑰")
+    void testHs256JwksIsEmpty() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig);
+        keyRing.init();
+
+        assertEquals("{\"keys\":[]}", keyRing.getJwksJson());
+        assertNull(keyRing.getActiveKid());
+    }
+
+    @Test
+    @DisplayName("角色遮罩 - Token 以 rb Claim 攜帶角色，快速路徑與 jjwt 皆可還原")
+    void testCompactRoles() {
+        // Given
+        when(roleDictionary.isEnabled()).thenReturn(true);
+        when(roleDictionary.encode(1L, userContext.getRoles())).thenReturn("Aw");
+        when(roleDictionary.decode(1L, "Aw")).thenReturn(List.of("ROLE_ADMIN", "ROLE_USER"));
+
+        // When
+        String token = jwtTokenService.generateToken(userContext);
+        Claims claims = jwtTokenService.extractClaims(token);
+        Optional<VerifiedToken> verified = jwtTokenService.verifyToken(token);
+
+        // Then
+        assertEquals("Aw", claims.get("rb", String.class));
+        assertNull(claims.get("roles"));
+        assertTrue(verified.isPresent());
+        assertNull(verified.get().getClaims()); // 快速路徑
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), verified.get().getUserContext().getRoles());
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), jwtTokenService.extractUserContext(token).getRoles());
+    }
+
+    @Test
+    @DisplayName("角色遮罩 - 無法編碼時改用 roles Claim")
+    void testCompactRolesFallbackToList() {
+        // Given
+        when(roleDictionary.isEnabled()).thenReturn(true);
+        when(roleDictionary.encode(1L, userContext.getRoles())).thenReturn(null);
+
+        // When
+        String token = jwtTokenService.generateToken(userContext);
+
+        // Then
+        assertNull(jwtTokenService.extractClaims(token).get("rb"));
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), jwtTokenService.extractUserContext(token).getRoles());
+    }
+
+    @Test
+    @DisplayName("角色遮罩 - 含未知序號的 Token 驗證失敗")
+    void testUnresolvableRoleMaskRejected() {
+        // Given
+        when(roleDictionary.isEnabled()).thenReturn(true);
+        when(roleDictionary.encode(1L, userContext.getRoles())).thenReturn("Aw");
+        when(roleDictionary.decode(1L, "Aw")).thenReturn(null);
+        String token = jwtTokenService.generateToken(userContext);
+
+        // When & Then
+        assertFalse(jwtTokenService.verifyToken(token).isPresent());
+    }
+}
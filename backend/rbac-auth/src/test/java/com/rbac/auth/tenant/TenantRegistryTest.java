@@ -0,0 +1,200 @@
+package com.rbac.auth.tenant;
+
+import com.rbac.auth.config.TenantRegistryConfig;
+import com.rbac.auth.repository.mapper.TenantMapper;
+import com.rbac.auth.repository.mapper.TenantStatusRow;
+import com.rbac.common.core.exception.TenantException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * TenantRegistry 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@ExtendWith(MockitoExtension.class)
+class TenantRegistryTest {
+
+    @Mock
+    private TenantMapper tenantMapper;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private TenantRegistryConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private TenantRegistry tenantRegistry;
+
+    @BeforeEach
+    void setUp() {
+        config = new TenantRegistryConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        tenantRegistry = new TenantRegistry(tenantMapper, stringRedisTemplate, listenerContainer, config, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("已知租戶 - 依 ID 與編碼皆通過驗證並返回標準租戶 ID，且不存取資料庫")
+    void testKnownTenantPassesWithoutDatabase() {
+        // Given
+        when(tenantMapper.selectAll()).thenReturn(List.of(tenant(1L, "acme", 1)));
+        tenantRegistry.reload();
+
+        // When / Then
+        assertEquals("1", tenantRegistry.validate("1"));
+        assertEquals("1", tenantRegistry.validate("acme"));
+        verify(tenantMapper, never()).selectById(anyLong());
+        verify(tenantMapper, never()).selectByCode(anyString());
+    }
+
+    @Test
+    @DisplayName("不存在的租戶 - 由 Bloom Filter 拒絕，不存取資料庫")
+    void testUnknownTenantRejectedWithoutDatabase() {
+        // Given
+        when(tenantMapper.selectAll()).thenReturn(List.of(tenant(1L, "acme", 1)));
+        tenantRegistry.reload();
+
+        // When
+        TenantException e = assertThrows(TenantException.class, () -> tenantRegistry.validate("999"));
+
+        // Then
+        assertEquals("TENANT_UNKNOWN", e.getCode());
+        verify(tenantMapper, never()).selectById(anyLong());
+        assertEquals(1.0, meterRegistry.counter("auth.tenant.rejected", "reason", "unknown").count());
+    }
+
+    @Test
+    @DisplayName("停用或過期的租戶 - 返回 TENANT_SUSPENDED")
+    void testSuspendedOrExpiredTenantRejected() {
+        // Given
+        TenantStatusRow expired = tenant(3L, "expired", 1);
+        expired.setExpireTime(LocalDateTime.now().minusDays(1));
+        when(tenantMapper.selectAll()).thenReturn(List.of(tenant(2L, "disabled", 0), expired));
+        tenantRegistry.reload();
+
+        // When / Then
+        assertEquals("TENANT_SUSPENDED",
+                assertThrows(TenantException.class, () -> tenantRegistry.validate("2")).getCode());
+        assertEquals("TENANT_SUSPENDED",
+                assertThrows(TenantException.class, () -> tenantRegistry.validate("expired")).getCode());
+    }
+
+    @Test
+    @DisplayName("首次載入前 - 放行，只保留格式驗證")
+    void testFailsOpenBeforeFirstLoad() {
+        assertDoesNotThrow(() -> tenantRegistry.validate("999"));
+        verifyNoInteractions(tenantMapper);
+    }
+
+    @Test
+    @DisplayName("首次載入前 - 租戶編碼仍轉為標準租戶 ID，每個編碼只查詢資料庫一次")
+    void testCodeCanonicalizedBeforeFirstLoad() {
+        // Given
+        when(tenantMapper.selectByCode("acme")).thenReturn(tenant(42L, "acme", 1));
+
+        // When
+        String first = tenantRegistry.validate("acme");
+        String second = tenantRegistry.validate("acme");
+
+        // Then
+        assertEquals("42", first);
+        assertEquals("42", second);
+        verify(tenantMapper, times(1)).selectByCode("acme");
+    }
+
+    @Test
+    @DisplayName("載入失敗 - 維持放行，不拋出例外")
+    void testReloadFailureKeepsFailOpen() {
+        // Given
+        when(tenantMapper.selectAll()).thenThrow(new RuntimeException("db down"));
+
+        // When
+        tenantRegistry.reload();
+
+        // Then
+        assertDoesNotThrow(() -> tenantRegistry.validate("999"));
+    }
+
+    @Test
+    @DisplayName("變更通知 - 新租戶立即可用，停用立即生效")
+    void testChangeMessageRefreshesTenant() {
+        // Given
+        when(tenantMapper.selectAll()).thenReturn(List.of(tenant(1L, "acme", 1)));
+        tenantRegistry.reload();
+        when(tenantMapper.selectById(5L)).thenReturn(tenant(5L, "newco", 1));
+        when(tenantMapper.selectById(1L)).thenReturn(tenant(1L, "acme", 0));
+
+        // When
+        tenantRegistry.onMessage(message("5"), null);
+        tenantRegistry.onMessage(message("1"), null);
+
+        // Then
+        assertDoesNotThrow(() -> tenantRegistry.validate("5"));
+        assertDoesNotThrow(() -> tenantRegistry.validate("newco"));
+        assertEquals("TENANT_SUSPENDED",
+                assertThrows(TenantException.class, () -> tenantRegistry.validate("acme")).getCode());
+    }
+
+    @Test
+    @DisplayName("廣播變更 - 本節點立即更新並發布租戶 ID")
+    void testPublishChangeAppliesLocallyAndPublishes() {
+        // Given
+        when(tenantMapper.selectAll()).thenReturn(List.of());
+        tenantRegistry.reload();
+        when(tenantMapper.selectById(7L)).thenReturn(tenant(7L, "seven", 1));
+
+        // When
+        tenantRegistry.publishChange(7L);
+
+        // Then
+        assertDoesNotThrow(() -> tenantRegistry.validate("7"));
+        verify(stringRedisTemplate).convertAndSend(config.getChannel(), "7");
+    }
+
+    @Test
+    @DisplayName("停用登錄表 - 不載入且不驗證")
+    void testDisabledRegistrySkipsValidation() {
+        // Given
+        config.setEnabled(false);
+
+        // When
+        tenantRegistry.onApplicationReady();
+
+        // Then
+        assertDoesNotThrow(() -> tenantRegistry.validate("999"));
+        verifyNoInteractions(tenantMapper, listenerContainer);
+    }
+
+    private static TenantStatusRow tenant(Long tenantId, String tenantCode, int status) {
+        TenantStatusRow row = new TenantStatusRow();
+        row.setTenantId(tenantId);
+        row.setTenantCode(tenantCode);
+        row.setStatus(status);
+        return row;
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("auth:tenant:changed".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
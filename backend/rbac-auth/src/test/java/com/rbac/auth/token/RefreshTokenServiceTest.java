@@ -0,0 +1,69 @@
+package com.rbac.auth.token;
+
+import com.rbac.auth.config.JwtConfig;
+import com.rbac.auth.context.UserContext;
+import com.rbac.auth.revocation.TokenEpochService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.Invocation;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * RefreshTokenService 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Test
+    @DisplayName("建立家族 - 欄位與 TTL 以單一腳本原子寫入")
+    void testIssueWritesFieldsAndTtlInOneScript() {
+        // Given
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.getRefresh().setTtl(600L);
+        RefreshTokenService refreshTokenService = new RefreshTokenService(stringRedisTemplate, tokenEpochService,
+                jwtConfig);
+        when(tokenEpochService.freshUserEpoch(1L)).thenReturn(3L);
+        when(tokenEpochService.freshTenantEpoch(1L)).thenReturn(4L);
+
+        UserContext userContext = new UserContext();
+        userContext.setUserId(1L);
+        userContext.setUsername("admin");
+        userContext.setTenantId(1L);
+
+        // When
+        String refreshToken = refreshTokenService.issue(userContext);
+
+        // Then：只有一次 execute，不再分開呼叫 HSET 與 EXPIRE
+        List<Invocation> invocations = List.copyOf(mockingDetails(stringRedisTemplate).getInvocations());
+        assertEquals(1, invocations.size());
+        Invocation invocation = invocations.get(0);
+        assertEquals("execute", invocation.getMethod().getName());
+
+        String familyId = refreshToken.substring(0, refreshToken.indexOf('.'));
+        Object[] arguments = invocation.getRawArguments();
+        assertEquals(List.of(RefreshTokenService.REFRESH_PREFIX + familyId), arguments[1]);
+        List<Object> args = Arrays.asList((Object[]) arguments[2]);
+        assertEquals("600", args.get(0));
+        assertEquals(List.of("u", "admin", "uid", "1", "tid", "1", "uev", "3", "tev", "4"),
+                args.subList(3, args.size()));
+        assertEquals("h", args.get(1));
+    }
+}
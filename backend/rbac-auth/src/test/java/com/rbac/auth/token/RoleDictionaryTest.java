@@ -0,0 +1,90 @@
+package com.rbac.auth.token;
+
+import com.rbac.auth.config.JwtConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * RoleDictionary 單元測試
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@ExtendWith(MockitoExtension.class)
+class RoleDictionaryTest {
+
+    private static final String KEY = RoleDictionary.ROLES_PREFIX + "1";
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private RoleDictionary roleDictionary;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(stringRedisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        roleDictionary = new RoleDictionary(stringRedisTemplate, new JwtConfig());
+    }
+
+    @Test
+    @DisplayName("編碼 - 遮罩附帶字典世代，且可解碼回原角色")
+    void testEncodeCarriesGenerationAndRoundTrips() {
+        // Given
+        when(hashOperations.entries(KEY)).thenReturn(dictionary("g1", "ADMIN", "0", "USER", "1"));
+
+        // When
+        String encoded = roleDictionary.encode(1L, List.of("ADMIN", "USER"));
+
+        // Then
+        assertNotNull(encoded);
+        assertTrue(encoded.startsWith("g1."));
+        assertEquals(List.of("ADMIN", "USER"), roleDictionary.decode(1L, encoded));
+    }
+
+    @Test
+    @DisplayName("字典重建 - 舊世代的遮罩無法解碼，不會對應到重新配號的角色")
+    void testDecodeRejectsMaskFromLostDictionary() {
+        // Given 字典遺失後重建，序號 0 已配給其他角色
+        when(hashOperations.entries(KEY)).thenReturn(dictionary("g2", "GUEST", "0"));
+
+        // When
+        List<String> roles = roleDictionary.decode(1L, "g1.AQ");
+
+        // Then 重新載入一次確認世代後拒絕
+        assertNull(roles);
+        verify(hashOperations, times(2)).entries(KEY);
+    }
+
+    @Test
+    @DisplayName("未帶世代的遮罩 - 無法解碼")
+    void testDecodeRejectsMaskWithoutGeneration() {
+        assertNull(roleDictionary.decode(1L, "AQ"));
+        verifyNoInteractions(hashOperations);
+    }
+
+    private static Map<Object, Object> dictionary(String generation, String... roleIds) {
+        Map<Object, Object> entries = new HashMap<>();
+        entries.put(RoleDictionary.GENERATION_FIELD, generation);
+        entries.put(RoleDictionary.NEXT_FIELD, String.valueOf(roleIds.length / 2));
+        for (int i = 0; i < roleIds.length; i += 2) {
+            entries.put(roleIds[i], roleIds[i + 1]);
+        }
+        return entries;
+    }
+}
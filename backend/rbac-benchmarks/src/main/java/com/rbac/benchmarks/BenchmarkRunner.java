@@ -0,0 +1,37 @@
+package com.rbac.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基準測試進入點
+ *
+ * <p>接受所有 JMH 命令列參數，並固定加上 GC profiler（等同 -prof gc），
+ * 讓每個測試同時輸出吞吐量與配置率（gc.alloc.rate.norm）</p>
+ *
+ * <pre>
+ * java -jar rbac-benchmarks/target/benchmarks.jar               # 全部
+ * java -jar rbac-benchmarks/target/benchmarks.jar TokenDecode   # 依名稱篩選
+ * </pre>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
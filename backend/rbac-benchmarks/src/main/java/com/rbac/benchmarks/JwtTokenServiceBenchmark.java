@@ -0,0 +1,76 @@
+package com.rbac.benchmarks;
+
+import com.rbac.auth.context.UserContext;
+import com.rbac.auth.model.VerifiedToken;
+import com.rbac.auth.service.JwtTokenServiceImpl;
+import com.rbac.benchmarks.support.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTokenServiceImpl 基準測試
+ *
+ * <p>cacheEnabled=false 量測每次請求都重新驗證簽章的成本；
+ * cacheEnabled=true 量測同一 Token 重複使用時的快取命中成本</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenServiceBenchmark {
+
+    @Param({"false", "true"})
+    private boolean cacheEnabled;
+
+    @Param({"true"})
+    private boolean fastDecoderEnabled;
+
+    private JwtTokenServiceImpl jwtTokenService;
+    private UserContext userContext;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenService = BenchmarkFixtures.jwtTokenService(
+                BenchmarkFixtures.jwtConfig(cacheEnabled, fastDecoderEnabled));
+        userContext = BenchmarkFixtures.userContext();
+        token = jwtTokenService.generateToken(userContext);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenService.generateToken(userContext);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenService.validateToken(token);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verifyToken() {
+        return jwtTokenService.verifyToken(token);
+    }
+
+    @Benchmark
+    public UserContext extractUserContext() {
+        return jwtTokenService.extractUserContext(token);
+    }
+}
@@ -0,0 +1,67 @@
+package com.rbac.benchmarks;
+
+import com.rbac.auth.config.PasswordConfig;
+import com.rbac.auth.password.BCryptCostCalibrator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt 密碼驗證基準測試
+ *
+ * <p>驗證成本由雜湊中的 cost 決定。calibrated 以預設 {@link PasswordConfig} 經 {@link BCryptCostCalibrator}
+ * 於本機選出的成本量測，即本機為第一個啟動的節點時寫入叢集的成本；10 為校準下限，12 作為調整成本時的對照。
+ * 選出的成本由 BCryptCostCalibrator 的校準日誌輸出（logback.xml 將該 logger 設為 INFO）</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "admin123";
+
+    /**
+     * calibrated 表示使用 BCryptCostCalibrator 依預設配置選出的成本
+     */
+    @Param({"calibrated", "10", "12"})
+    private String cost;
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private String passwordHash;
+
+    @Setup
+    public void setUp() {
+        int strength = "calibrated".equals(cost)
+                ? BCryptCostCalibrator.calibrateLocally(new PasswordConfig().getCalibration())
+                : Integer.parseInt(cost);
+        passwordEncoder = new BCryptPasswordEncoder(strength);
+        passwordHash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean validatePassword() {
+        return passwordEncoder.matches(PASSWORD, passwordHash);
+    }
+
+    @Benchmark
+    public boolean validateWrongPassword() {
+        return passwordEncoder.matches("wrong-password", passwordHash);
+    }
+}
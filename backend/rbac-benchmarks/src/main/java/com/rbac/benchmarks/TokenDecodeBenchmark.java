@@ -0,0 +1,66 @@
+package com.rbac.benchmarks;
+
+import com.rbac.auth.config.JwtConfig;
+import com.rbac.auth.context.UserContext;
+import com.rbac.auth.key.JwtKeyRing;
+import com.rbac.auth.model.VerifiedToken;
+import com.rbac.auth.service.JwtTokenServiceImpl;
+import com.rbac.auth.token.CompactTokenDecoder;
+import com.rbac.benchmarks.support.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token 解碼比較：CompactTokenDecoder 與 jjwt
+ *
+ * <p>兩者皆驗證 HMAC 並產生 UserContext，比較吞吐量與每次操作配置量（gc.alloc.rate.norm）</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenDecodeBenchmark {
+
+    private CompactTokenDecoder compactTokenDecoder;
+    private JwtTokenServiceImpl jwtTokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = BenchmarkFixtures.jwtConfig(false, true);
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig);
+        keyRing.init();
+        compactTokenDecoder = new CompactTokenDecoder(keyRing, BenchmarkFixtures.roleDictionary(jwtConfig), jwtConfig);
+        jwtTokenService = BenchmarkFixtures.jwtTokenService(jwtConfig);
+        token = jwtTokenService.generateToken(BenchmarkFixtures.userContext());
+
+        if (compactTokenDecoder.decode(token) == null) {
+            throw new IllegalStateException("CompactTokenDecoder did not accept the benchmark token");
+        }
+    }
+
+    @Benchmark
+    public VerifiedToken compactDecoder() {
+        return compactTokenDecoder.decode(token);
+    }
+
+    @Benchmark
+    public UserContext jjwt() {
+        return jwtTokenService.extractUserContext(token);
+    }
+}
@@ -0,0 +1,475 @@
+package com.rbac.benchmarks.loadtest;
+
+import com.rbac.auth.audit.LoginAuditPublisher;
+import com.rbac.auth.config.JwtConfig;
+import com.rbac.auth.config.MockDataConfig;
+import com.rbac.auth.config.PasswordConfig;
+import com.rbac.auth.controller.AuthController;
+import com.rbac.auth.exception.AccountLockedException;
+import com.rbac.auth.exception.AuthenticationException;
+import com.rbac.auth.exception.ServiceUnavailableException;
+import com.rbac.auth.exception.TooManyRequestsException;
+import com.rbac.auth.model.dto.LoginRequest;
+import com.rbac.auth.model.dto.LoginResponse;
+import com.rbac.auth.password.BCryptCostCalibrator;
+import com.rbac.auth.password.PasswordRehashService;
+import com.rbac.auth.password.PasswordVerifier;
+import com.rbac.auth.repository.LastLoginWriteBehind;
+import com.rbac.auth.repository.MockUserRepository;
+import com.rbac.auth.service.AuthServiceImpl;
+import com.rbac.auth.throttle.LoginThrottleService;
+import com.rbac.auth.token.RefreshTokenService;
+import com.rbac.benchmarks.support.BenchmarkFixtures;
+import com.rbac.benchmarks.support.InMemoryLoginThrottleService;
+import com.rbac.common.core.config.RbacProperties;
+import com.rbac.common.core.result.Result;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 撞庫（credential stuffing）負載測試
+ *
+ * <p>在單一行程內組裝 AuthController → AuthServiceImpl，使用者儲存為 {@link MockUserRepository}，
+ * 快取與節流以 {@code support} 套件的記憶體實作取代，不需要 Redis 或資料庫。
+ * 多個執行緒依固定亂數種子重播混合流量：</p>
+ *
+ * <ul>
+ *   <li>valid：正常使用者以正確密碼登入，預期成功</li>
+ *   <li>invalid：以錯誤密碼攻擊受害帳號，或使用不存在的帳號，預期失敗並在第
+ *       {@value LoginThrottleService#MAX_FAILED_ATTEMPTS} 次失敗時鎖定受害帳號</li>
+ *   <li>locked：以正確密碼登入已觀察到鎖定的受害帳號，預期一律被拒絕</li>
+ * </ul>
+ *
+ * <p>結束時輸出吞吐量、各類流量的 p50/p99/p999 延遲，以及鎖定正確性檢查；
+ * 任一檢查失敗時以結束碼 1 結束，可直接用於比較 AuthServiceImpl 修改前後的結果</p>
+ *
+ * <pre>
+ * java -cp rbac-benchmarks/target/benchmarks.jar \
+ *     com.rbac.benchmarks.loadtest.CredentialStuffingLoadTest --threads=32 --requests=20000
+ * </pre>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public final class CredentialStuffingLoadTest {
+
+    private static final String PASSWORD = "Passw0rd!";
+    private static final String WRONG_PASSWORD = "wrong-password";
+
+    private static final int VALID = 0;
+    private static final int INVALID = 1;
+    private static final int LOCKED = 2;
+    private static final String[] CATEGORY_NAMES = {"valid", "invalid", "locked"};
+
+    private final Options options;
+    private final InMemoryLoginThrottleService loginThrottleService = new InMemoryLoginThrottleService();
+    private final PasswordVerifier passwordVerifier;
+    private final LastLoginWriteBehind lastLoginWriteBehind;
+    private final LoginAuditPublisher loginAuditPublisher;
+    private final AuthController authController;
+
+    private final String[] validUsers;
+    private final String[] victims;
+
+    /**
+     * 每個受害帳號收到的錯誤密碼嘗試次數
+     */
+    private final AtomicIntegerArray victimWrongAttempts;
+
+    /**
+     * 每個受害帳號收到「帳號或密碼錯誤」（未鎖定時的失敗）的次數
+     */
+    private final AtomicIntegerArray victimAuthFailures;
+
+    /**
+     * 受害帳號是否已觀察到鎖定（1 表示已鎖定）
+     */
+    private final AtomicIntegerArray victimLocked;
+
+    /**
+     * 各類流量的結果計數：[類別 * 4 + 結果]，結果依序為 成功、失敗、鎖定、過載
+     */
+    private final AtomicLongArray outcomes = new AtomicLongArray(CATEGORY_NAMES.length * 4);
+
+    private CredentialStuffingLoadTest(Options options) {
+        this.options = options;
+
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(options.bcryptCost);
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+
+        this.validUsers = usernames("user-", options.users);
+        this.victims = usernames("victim-", options.victims);
+        this.victimWrongAttempts = new AtomicIntegerArray(options.victims);
+        this.victimAuthFailures = new AtomicIntegerArray(options.victims);
+        this.victimLocked = new AtomicIntegerArray(options.victims);
+
+        MockDataConfig mockDataConfig = new MockDataConfig();
+        List<MockDataConfig.MockUser> mockUsers = new ArrayList<>(options.users + options.victims);
+        for (String username : validUsers) {
+            mockUsers.add(mockUser(username, passwordHash));
+        }
+        for (String username : victims) {
+            mockUsers.add(mockUser(username, passwordHash));
+        }
+        mockDataConfig.setMockUsers(mockUsers);
+        MockUserRepository userRepository = new MockUserRepository(mockDataConfig, passwordEncoder);
+        userRepository.init();
+
+        // 校準停用，成本與使用者雜湊相同，不觸發重新雜湊
+        PasswordConfig passwordConfig = new PasswordConfig();
+        passwordConfig.setBcryptStrength(options.bcryptCost);
+        passwordConfig.getCalibration().setEnabled(false);
+        passwordConfig.getVerifier().setThreads(options.verifierThreads);
+        passwordConfig.getVerifier().setQueueCapacity(Math.max(options.threads, 1));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        this.passwordVerifier = new PasswordVerifier(passwordEncoder, passwordConfig, meterRegistry);
+        this.lastLoginWriteBehind = new LastLoginWriteBehind(userRepository);
+        // 審計事件經由實際的非同步緩衝，目的地不寫入，量測結果包含發布成本
+        this.loginAuditPublisher = new LoginAuditPublisher(events -> { }, new RbacProperties(), meterRegistry);
+
+        JwtConfig jwtConfig = BenchmarkFixtures.jwtConfig(true, true);
+        jwtConfig.getRefresh().setEnabled(false);
+
+        AuthServiceImpl authService = new AuthServiceImpl(
+                userRepository,
+                lastLoginWriteBehind,
+                BenchmarkFixtures.jwtTokenService(jwtConfig),
+                loginThrottleService,
+                new RefreshTokenService(null, BenchmarkFixtures.tokenEpochService(jwtConfig), jwtConfig),
+                passwordVerifier,
+                new PasswordRehashService(new BCryptCostCalibrator(passwordConfig, null), passwordVerifier, userRepository),
+                loginAuditPublisher,
+                jwtConfig);
+        this.authController = new AuthController(authService, userRepository);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Options options = Options.parse(args);
+        CredentialStuffingLoadTest loadTest = new CredentialStuffingLoadTest(options);
+        boolean passed;
+        try {
+            passed = loadTest.run();
+        } finally {
+            loadTest.passwordVerifier.shutdown();
+            loadTest.loginAuditPublisher.shutdown();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * 執行暖身與量測，輸出報告
+     *
+     * @return 鎖定正確性檢查全部通過返回 true
+     */
+    private boolean run() throws InterruptedException {
+        System.out.printf("Credential stuffing load test: threads=%d, requests=%d, users=%d, victims=%d, "
+                        + "mix=%.2f/%.2f/%.2f, bcryptCost=%d, seed=%d%n",
+                options.threads, options.requests, options.users, options.victims,
+                options.validRatio, options.invalidRatio, options.lockedRatio, options.bcryptCost, options.seed);
+
+        // 1. 暖身：只送正常登入，不改變受害帳號狀態
+        if (options.warmup > 0) {
+            execute(options.warmup, options.seed - 1, true);
+            for (int i = 0; i < outcomes.length(); i++) {
+                outcomes.set(i, 0L);
+            }
+        }
+
+        // 2. 量測
+        long start = System.nanoTime();
+        Map<Integer, long[]> latencies = execute(options.requests, options.seed, false);
+        long elapsedNanos = System.nanoTime() - start;
+        lastLoginWriteBehind.flush();
+
+        // 3. 報告
+        printThroughput(elapsedNanos);
+        printLatencies(latencies);
+        return checkLockouts();
+    }
+
+    /**
+     * 以多個執行緒送出指定數量的登入請求
+     *
+     * @return 各類流量的延遲（奈秒，已排序）
+     */
+    private Map<Integer, long[]> execute(int requests, long seed, boolean validOnly) throws InterruptedException {
+        int threads = options.threads;
+        long[][] threadLatencies = new long[threads][];
+        byte[][] threadCategories = new byte[threads][];
+        CountDownLatch startSignal = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            int count = requests / threads + (t < requests % threads ? 1 : 0);
+            SplittableRandom random = new SplittableRandom(seed + t);
+            threadLatencies[t] = new long[count];
+            threadCategories[t] = new byte[count];
+            Thread worker = new Thread(() -> {
+                try {
+                    startSignal.await();
+                    for (int i = 0; i < count; i++) {
+                        long begin = System.nanoTime();
+                        int category = validOnly ? sendValid(random) : send(random);
+                        threadLatencies[index][i] = System.nanoTime() - begin;
+                        threadCategories[index][i] = (byte) category;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "login-load-" + t);
+            worker.start();
+        }
+        startSignal.countDown();
+        done.await();
+
+        // 依類別合併各執行緒的延遲
+        int[] sizes = new int[CATEGORY_NAMES.length];
+        for (byte[] categories : threadCategories) {
+            for (byte category : categories) {
+                sizes[category]++;
+            }
+        }
+        Map<Integer, long[]> merged = new HashMap<>();
+        int[] positions = new int[CATEGORY_NAMES.length];
+        for (int c = 0; c < CATEGORY_NAMES.length; c++) {
+            merged.put(c, new long[sizes[c]]);
+        }
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < threadLatencies[t].length; i++) {
+                int category = threadCategories[t][i];
+                merged.get(category)[positions[category]++] = threadLatencies[t][i];
+            }
+        }
+        merged.values().forEach(Arrays::sort);
+        return merged;
+    }
+
+    /**
+     * 依比例選擇流量類別並送出一次登入
+     *
+     * @return 實際送出的類別（尚未觀察到鎖定的受害帳號以 invalid 送出）
+     */
+    private int send(SplittableRandom random) {
+        double roll = random.nextDouble() * (options.validRatio + options.invalidRatio + options.lockedRatio);
+        if (roll < options.validRatio) {
+            return sendValid(random);
+        }
+        if (roll < options.validRatio + options.invalidRatio && random.nextBoolean()) {
+            login(INVALID, "unknown-" + random.nextInt(1_000_000), WRONG_PASSWORD, -1);
+            return INVALID;
+        }
+
+        int victim = random.nextInt(victims.length);
+        boolean probeLocked = roll >= options.validRatio + options.invalidRatio;
+        if (probeLocked && victimLocked.get(victim) == 1) {
+            login(LOCKED, victims[victim], PASSWORD, victim);
+            return LOCKED;
+        }
+        victimWrongAttempts.incrementAndGet(victim);
+        login(INVALID, victims[victim], WRONG_PASSWORD, victim);
+        return INVALID;
+    }
+
+    private int sendValid(SplittableRandom random) {
+        login(VALID, validUsers[random.nextInt(validUsers.length)], PASSWORD, -1);
+        return VALID;
+    }
+
+    /**
+     * 經由 AuthController 登入並記錄結果
+     *
+     * @param victim 受害帳號序號，非受害帳號為 -1
+     */
+    private void login(int category, String username, String password, int victim) {
+        LoginRequest request = new LoginRequest();
+        request.setUsername(username);
+        request.setPassword(password);
+        try {
+            Result<LoginResponse> result = authController.login(request);
+            outcomes.incrementAndGet(category * 4 + (result.getData().getToken() != null ? 0 : 1));
+        } catch (AccountLockedException e) {
+            outcomes.incrementAndGet(category * 4 + 2);
+            if (victim >= 0) {
+                victimLocked.set(victim, 1);
+            }
+        } catch (AuthenticationException e) {
+            outcomes.incrementAndGet(category * 4 + 1);
+            if (victim >= 0) {
+                victimAuthFailures.incrementAndGet(victim);
+            }
+        } catch (TooManyRequestsException | ServiceUnavailableException e) {
+            outcomes.incrementAndGet(category * 4 + 3);
+        }
+    }
+
+    private void printThroughput(long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%nElapsed: %.2f s, throughput: %.1f req/s%n", seconds, options.requests / seconds);
+        System.out.printf("%-8s %10s %10s %10s %10s%n", "traffic", "success", "failure", "locked", "overload");
+        for (int c = 0; c < CATEGORY_NAMES.length; c++) {
+            System.out.printf("%-8s %10d %10d %10d %10d%n", CATEGORY_NAMES[c],
+                    outcomes.get(c * 4), outcomes.get(c * 4 + 1), outcomes.get(c * 4 + 2), outcomes.get(c * 4 + 3));
+        }
+    }
+
+    private void printLatencies(Map<Integer, long[]> latencies) {
+        System.out.printf("%n%-8s %10s %10s %10s %10s %10s%n", "latency", "count", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        long[] all = latencies.values().stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        for (int c = 0; c < CATEGORY_NAMES.length; c++) {
+            printLatencyRow(CATEGORY_NAMES[c], latencies.get(c));
+        }
+        printLatencyRow("all", all);
+    }
+
+    private static void printLatencyRow(String name, long[] sorted) {
+        if (sorted.length == 0) {
+            System.out.printf("%-8s %10d %10s %10s %10s %10s%n", name, 0, "-", "-", "-", "-");
+            return;
+        }
+        System.out.printf("%-8s %10d %10.3f %10.3f %10.3f %10.3f%n", name, sorted.length,
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                millis(percentile(sorted, 0.999)), millis(sorted[sorted.length - 1]));
+    }
+
+    /**
+     * 鎖定正確性檢查
+     *
+     * <ul>
+     *   <li>鎖定的帳號與錯誤密碼不可取得 Token</li>
+     *   <li>正常使用者不可被拒絕（過載除外）</li>
+     *   <li>每個受害帳號恰好在第 N 次失敗時鎖定：未鎖定時的失敗次數 = min(錯誤嘗試次數, N)</li>
+     *   <li>錯誤嘗試達 N 次的受害帳號於結束時仍為鎖定狀態</li>
+     * </ul>
+     *
+     * @return 全部通過返回 true
+     */
+    private boolean checkLockouts() {
+        int maxAttempts = LoginThrottleService.MAX_FAILED_ATTEMPTS;
+        long tokensForLocked = outcomes.get(LOCKED * 4);
+        long tokensForInvalid = outcomes.get(INVALID * 4);
+        long falseRejections = outcomes.get(VALID * 4 + 1) + outcomes.get(VALID * 4 + 2);
+
+        int lockedVictims = 0;
+        int wrongFailureCounts = 0;
+        int missingLocks = 0;
+        for (int v = 0; v < victims.length; v++) {
+            int wrongAttempts = victimWrongAttempts.get(v);
+            if (victimAuthFailures.get(v) != Math.min(wrongAttempts, maxAttempts)) {
+                wrongFailureCounts++;
+            }
+            boolean locked = loginThrottleService.getLockUntil(victims[v]) != null;
+            if (locked) {
+                lockedVictims++;
+            }
+            if (wrongAttempts >= maxAttempts && !locked) {
+                missingLocks++;
+            }
+        }
+
+        System.out.printf("%nLockout correctness (max failed attempts = %d)%n", maxAttempts);
+        System.out.printf("  victims locked                 : %d / %d%n", lockedVictims, victims.length);
+        boolean passed = check("tokens issued to locked accounts", tokensForLocked);
+        passed &= check("tokens issued for wrong passwords", tokensForInvalid);
+        passed &= check("valid users rejected", falseRejections);
+        passed &= check("victims with wrong failure count", wrongFailureCounts);
+        passed &= check("victims not locked after limit", missingLocks);
+        System.out.println(passed ? "PASSED" : "FAILED");
+        return passed;
+    }
+
+    private static boolean check(String name, long violations) {
+        System.out.printf("  %-31s: %d %s%n", name, violations, violations == 0 ? "ok" : "VIOLATION");
+        return violations == 0;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static String[] usernames(String prefix, int count) {
+        String[] usernames = new String[count];
+        for (int i = 0; i < count; i++) {
+            usernames[i] = String.format("%s%05d", prefix, i);
+        }
+        return usernames;
+    }
+
+    private static MockDataConfig.MockUser mockUser(String username, String passwordHash) {
+        MockDataConfig.MockUser mockUser = new MockDataConfig.MockUser();
+        mockUser.setUsername(username);
+        mockUser.setPasswordHash(passwordHash);
+        mockUser.setTenantId(1L);
+        mockUser.setRoles(List.of("USER"));
+        mockUser.setEmail(username + "@loadtest.local");
+        mockUser.setStatus("ACTIVE");
+        return mockUser;
+    }
+
+    /**
+     * 命令列參數（--name=value）
+     */
+    private static final class Options {
+
+        private int threads = Runtime.getRuntime().availableProcessors() * 2;
+        private int requests = 10_000;
+        private int warmup = 500;
+        private int users = 1_000;
+        private int victims = 200;
+        private double validRatio = 0.2;
+        private double invalidRatio = 0.7;
+        private double lockedRatio = 0.1;
+        private int bcryptCost = 10;
+        private int verifierThreads = 0;
+        private long seed = 42L;
+
+        private static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                int separator = arg.indexOf('=');
+                if (!arg.startsWith("--") || separator < 0) {
+                    throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+                }
+                String name = arg.substring(2, separator);
+                String value = arg.substring(separator + 1);
+                switch (name) {
+                    case "threads" -> options.threads = Integer.parseInt(value);
+                    case "requests" -> options.requests = Integer.parseInt(value);
+                    case "warmup" -> options.warmup = Integer.parseInt(value);
+                    case "users" -> options.users = Integer.parseInt(value);
+                    case "victims" -> options.victims = Integer.parseInt(value);
+                    case "valid" -> options.validRatio = Double.parseDouble(value);
+                    case "invalid" -> options.invalidRatio = Double.parseDouble(value);
+                    case "locked" -> options.lockedRatio = Double.parseDouble(value);
+                    case "bcrypt-cost" -> options.bcryptCost = Integer.parseInt(value);
+                    case "verifier-threads" -> options.verifierThreads = Integer.parseInt(value);
+                    case "seed" -> options.seed = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException("Unknown option: --" + name);
+                }
+            }
+            if (options.threads < 1 || options.users < 1 || options.victims < 1) {
+                throw new IllegalArgumentException("threads, users and victims must be positive");
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.rbac.benchmarks.support;
+
+import com.rbac.auth.cache.VerifiedTokenCache;
+import com.rbac.auth.config.JwtConfig;
+import com.rbac.auth.context.UserContext;
+import com.rbac.auth.key.JwtKeyRing;
+import com.rbac.auth.revocation.LocalRevocationSet;
+import com.rbac.auth.revocation.TokenEpochService;
+import com.rbac.auth.service.JwtTokenServiceImpl;
+import com.rbac.auth.token.CompactTokenDecoder;
+import com.rbac.auth.token.RoleDictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 基準測試共用的物件組裝
+ *
+ * <p>以與 Spring 容器相同的建構子組裝認證元件，Redis 相關依賴以記憶體或空操作實作取代；
+ * Token 世代使用正式的 {@link TokenEpochService}，驗證時的本地快取查詢與鍵組裝皆計入量測</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public final class BenchmarkFixtures {
+
+    /**
+     * 基準測試用 HMAC 密鑰（64 字元 hex）
+     */
+    public static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * 建立 JWT 配置
+     *
+     * @param cacheEnabled 是否啟用已驗證 Token 快取
+     * @param fastDecoderEnabled 是否啟用 HS256 快速解碼
+     * @return JWT 配置
+     */
+    public static JwtConfig jwtConfig(boolean cacheEnabled, boolean fastDecoderEnabled) {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        jwtConfig.setExpiration(3600L);
+        jwtConfig.getCache().setEnabled(cacheEnabled);
+        jwtConfig.setFastDecoderEnabled(fastDecoderEnabled);
+        return jwtConfig;
+    }
+
+    /**
+     * 組裝 JwtTokenServiceImpl
+     *
+     * @param jwtConfig JWT 配置
+     * @return Token 服務
+     */
+    public static JwtTokenServiceImpl jwtTokenService(JwtConfig jwtConfig) {
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig);
+        keyRing.init();
+
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(jwtConfig, new SimpleMeterRegistry());
+        LocalRevocationSet localRevocationSet = new LocalRevocationSet(jwtConfig);
+        localRevocationSet.rebuild(Collections.emptyMap());
+        RoleDictionary roleDictionary = roleDictionary(jwtConfig);
+
+        return new JwtTokenServiceImpl(
+                jwtConfig,
+                new InMemoryCacheService(),
+                verifiedTokenCache,
+                localRevocationSet,
+                new NoopRevocationSyncService(localRevocationSet, verifiedTokenCache, jwtConfig),
+                tokenEpochService(jwtConfig),
+                keyRing,
+                new CompactTokenDecoder(keyRing, roleDictionary, jwtConfig),
+                roleDictionary);
+    }
+
+    /**
+     * 建立 Token 世代服務：記憶體後端，並預先載入 {@link #userContext()} 的使用者與租戶世代，
+     * 量測期間只命中本地快取，與正式環境的穩定狀態相同
+     *
+     * @param jwtConfig JWT 配置
+     * @return Token 世代服務
+     */
+    public static TokenEpochService tokenEpochService(JwtConfig jwtConfig) {
+        TokenEpochService tokenEpochService = new TokenEpochService(new InMemoryStringRedisTemplate(), null, jwtConfig);
+        UserContext userContext = userContext();
+        tokenEpochService.currentUserEpoch(userContext.getUserId());
+        tokenEpochService.currentTenantEpoch(userContext.getTenantId());
+        return tokenEpochService;
+    }
+
+    /**
+     * 建立角色字典（基準測試使用 roles Claim，字典不連線 Redis）
+     *
+     * @param jwtConfig JWT 配置
+     * @return 角色字典
+     */
+    public static RoleDictionary roleDictionary(JwtConfig jwtConfig) {
+        return new RoleDictionary(null, jwtConfig);
+    }
+
+    /**
+     * 建立典型的使用者上下文
+     *
+     * @return 使用者上下文
+     */
+    public static UserContext userContext() {
+        UserContext userContext = new UserContext();
+        userContext.setUserId(1001L);
+        userContext.setTenantId(1L);
+        userContext.setUsername("benchmark-user");
+        userContext.setRoles(List.of("ROLE_ADMIN", "ROLE_USER"));
+        return userContext;
+    }
+}
@@ -0,0 +1,70 @@
+package com.rbac.benchmarks.support;
+
+import com.rbac.common.redis.util.CacheService;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 記憶體版 CacheService
+ *
+ * <p>基準測試只量測本機 CPU 與配置成本，以記憶體實作取代 Redis，排除網路往返的干擾。
+ * 不處理 TTL</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public class InMemoryCacheService implements CacheService {
+
+    private final Map<String, Object> store = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> T get(String key, Class<T> type) {
+        Object value = store.get(key);
+        return value != null ? type.cast(value) : null;
+    }
+
+    @Override
+    public void set(String key, Object value, long ttl) {
+        store.put(key, value);
+    }
+
+    @Override
+    public void set(String key, Object value) {
+        store.put(key, value);
+    }
+
+    @Override
+    public boolean delete(String key) {
+        return store.remove(key) != null;
+    }
+
+    @Override
+    public long deletePattern(String pattern) {
+        Pattern regex = Pattern.compile(pattern.replace("*", ".*"));
+        int before = store.size();
+        store.keySet().removeIf(key -> regex.matcher(key).matches());
+        return before - store.size();
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return store.containsKey(key);
+    }
+
+    @Override
+    public boolean expire(String key, long ttl) {
+        return store.containsKey(key);
+    }
+
+    @Override
+    public Long increment(String key, long delta) {
+        return (Long) store.merge(key, delta, (a, b) -> (Long) a + (Long) b);
+    }
+
+    @Override
+    public Long decrement(String key, long delta) {
+        return increment(key, -delta);
+    }
+}
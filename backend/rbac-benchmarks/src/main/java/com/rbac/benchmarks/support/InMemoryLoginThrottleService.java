@@ -0,0 +1,91 @@
+package com.rbac.benchmarks.support;
+
+import com.rbac.auth.throttle.LoginThrottleService;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 記憶體登入節流服務，不連線 Redis
+ *
+ * <p>以與 LoginThrottleService 記錄腳本相同的規則與常數運作：
+ * 失敗 {@value LoginThrottleService#MAX_FAILED_ATTEMPTS} 次鎖定 {@value LoginThrottleService#LOCK_DURATION_SECONDS} 秒，
+ * 鎖定期間的嘗試不計入且回報已鎖定，成功時重置失敗次數。
+ * 每個帳號的狀態以 {@link ConcurrentHashMap#compute} 原子更新，並發的失敗嘗試也只會觸發一次鎖定</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public class InMemoryLoginThrottleService extends LoginThrottleService {
+
+    private final ConcurrentHashMap<String, State> states = new ConcurrentHashMap<>();
+
+    public InMemoryLoginThrottleService() {
+        super(null);
+    }
+
+    @Override
+    public Long getKnownLockUntil(String username) {
+        return getLockUntil(username);
+    }
+
+    @Override
+    public Long getLockUntil(String username) {
+        State state = states.get(username);
+        if (state == null || state.lockUntil <= now()) {
+            return null;
+        }
+        return state.lockUntil;
+    }
+
+    @Override
+    public Outcome recordSuccess(String username) {
+        return record(username, true);
+    }
+
+    @Override
+    public Outcome recordFailure(String username) {
+        return record(username, false);
+    }
+
+    private Outcome record(String username, boolean success) {
+        long now = now();
+        Outcome[] outcome = new Outcome[1];
+        states.compute(username, (key, state) -> {
+            if (state != null && state.lockUntil > now) {
+                outcome[0] = new Outcome(true, false, state.lockUntil);
+                return state;
+            }
+            if (success) {
+                outcome[0] = new Outcome(false, false, 0L);
+                return null;
+            }
+            int attempts = state != null ? state.attempts + 1 : 1;
+            if (attempts >= MAX_FAILED_ATTEMPTS) {
+                long lockUntil = now + LOCK_DURATION_SECONDS;
+                outcome[0] = new Outcome(false, true, lockUntil);
+                return new State(0, lockUntil);
+            }
+            outcome[0] = new Outcome(false, false, 0L);
+            return new State(attempts, 0L);
+        });
+        return outcome[0];
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    /**
+     * 帳號節流狀態（不可變，整筆替換）
+     */
+    private static final class State {
+
+        private final int attempts;
+        private final long lockUntil;
+
+        private State(int attempts, long lockUntil) {
+            this.attempts = attempts;
+            this.lockUntil = lockUntil;
+        }
+    }
+}
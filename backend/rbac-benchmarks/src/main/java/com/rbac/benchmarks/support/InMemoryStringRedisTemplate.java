@@ -0,0 +1,50 @@
+package com.rbac.benchmarks.support;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 記憶體版 StringRedisTemplate
+ *
+ * <p>只實作字串值的 get / set / increment 與空操作的 pub/sub 發布，
+ * 供需要 StringRedisTemplate 的元件以正式程式碼路徑執行（例如 TokenEpochService 的本地快取與載入器），
+ * 其他操作拋出 UnsupportedOperationException</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public class InMemoryStringRedisTemplate extends StringRedisTemplate {
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = (ValueOperations<String, String>) Proxy.newProxyInstance(
+            ValueOperations.class.getClassLoader(),
+            new Class<?>[]{ValueOperations.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "get" -> values.get((String) args[0]);
+                case "set" -> {
+                    values.put((String) args[0], (String) args[1]);
+                    yield null;
+                }
+                case "increment" -> Long.parseLong(values.merge((String) args[0],
+                        args.length > 1 ? String.valueOf(args[1]) : "1",
+                        (current, delta) -> String.valueOf(Long.parseLong(current) + Long.parseLong(delta))));
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+
+    @Override
+    public ValueOperations<String, String> opsForValue() {
+        return valueOperations;
+    }
+
+    @Override
+    public Long convertAndSend(String channel, Object message) {
+        // 單節點基準測試無需廣播
+        return 0L;
+    }
+}
@@ -0,0 +1,31 @@
+package com.rbac.benchmarks.support;
+
+import com.rbac.auth.cache.VerifiedTokenCache;
+import com.rbac.auth.config.JwtConfig;
+import com.rbac.auth.revocation.LocalRevocationSet;
+import com.rbac.auth.revocation.RevocationSyncService;
+
+/**
+ * 不連線 Redis 的撤銷同步服務，廣播為空操作
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public class NoopRevocationSyncService extends RevocationSyncService {
+
+    public NoopRevocationSyncService(LocalRevocationSet localRevocationSet,
+                                     VerifiedTokenCache verifiedTokenCache,
+                                     JwtConfig jwtConfig) {
+        super(null, null, localRevocationSet, verifiedTokenCache, jwtConfig);
+    }
+
+    @Override
+    public void publish(String jti, long expEpochSecond) {
+        // 單節點基準測試無需廣播
+    }
+
+    @Override
+    public void resync() {
+        // 本地集合由 BenchmarkFixtures 直接標記為已同步
+    }
+}
@@ -63,6 +63,12 @@ public class RbacProperties {
     @NotNull
     private ApiVersionProperties apiVersion = new ApiVersionProperties();
 
+    /**
+     * Web request processing configuration properties
+     */
+    @NotNull
+    private WebProperties web = new WebProperties();
+
     /**
      * Tenant configuration properties
      */
@@ -140,6 +146,21 @@ public class RbacProperties {
          * Whether audit operations should be performed asynchronously
          */
         private boolean async = true;
+
+        /**
+         * Capacity of the in-process audit event buffer; events are dropped when it is full
+         */
+        private int bufferSize = 8192;
+
+        /**
+         * Maximum number of events persisted in one batch
+         */
+        private int batchSize = 256;
+
+        /**
+         * Spool file for audit events when no database sink is available
+         */
+        private String spoolFile = "logs/login-audit.jsonl";
     }
 
     /**
@@ -228,4 +249,16 @@ public class RbacProperties {
          */
         private boolean allowUnversionedRequests = true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Web request processing configuration properties
+     */
+    @Data
+    public static class WebProperties {
+        /**
+         * Whether to replace the tenant, trace ID and request log filters (and the request log
+         * aspect) with the single-pass request preamble filter
+         */
+        private boolean preambleFilter = false;
+    }
+}
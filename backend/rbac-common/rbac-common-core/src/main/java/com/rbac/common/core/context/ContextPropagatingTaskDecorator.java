@@ -0,0 +1,21 @@
+package com.rbac.common.core.context;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 傳遞請求上下文的 TaskDecorator
+ *
+ * <p>每個工作以提交執行緒的請求上下文執行。Spring Boot 會將唯一的 TaskDecorator Bean
+ * 套用到自動配置的執行器（{@code @Async}）與排程器，平台執行緒與虛擬執行緒皆適用；
+ * 傳遞的內容見 {@link ContextSnapshot}</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return ContextSnapshot.capture().wrap(runnable);
+    }
+}
@@ -0,0 +1,134 @@
+package com.rbac.common.core.context;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * 請求上下文快照，用於將工作交給其他執行緒
+ *
+ * <p>於提交執行緒擷取 {@link RequestContext} 的{@link RequestContext#copy() 副本}
+ * （租戶 ID、使用者、資料源鍵、Trace ID）與 MDC。包裝後的工作在執行期間將快照綁定到執行緒，
+ * 結束後還原該執行緒原本的綁定：執行緒池中的執行緒不會把前一個請求的租戶帶到下一個工作，
+ * 由呼叫端直接執行的工作（例如 CallerRunsPolicy）結束後也會取回自己的上下文</p>
+ *
+ * <p>框架執行器由 {@link ContextPropagatingTaskDecorator} 處理；CompletableFuture 請傳入
+ * {@link #propagating(Executor)} 包裝的執行器。平行串流在 common ForkJoinPool 上執行且無法裝飾，
+ * 請改由執行器分流</p>
+ *
+ * <p>使用方式：</p>
+ * <pre>
+ * CompletableFuture.supplyAsync(() -&gt; roleMapper.selectByUser(userId),
+ *         ContextSnapshot.propagating(executor));
+ * </pre>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public final class ContextSnapshot {
+
+    private final RequestContext context;
+    private final Map<String, String> mdc;
+
+    private ContextSnapshot(RequestContext context, Map<String, String> mdc) {
+        this.context = context;
+        this.mdc = mdc;
+    }
+
+    /**
+     * 擷取目前執行緒的上下文
+     *
+     * @return 快照；未綁定任何上下文時為空快照
+     */
+    public static ContextSnapshot capture() {
+        RequestContext current = RequestContext.peek();
+        return new ContextSnapshot(current != null ? current.copy() : null, MDC.getCopyOfContextMap());
+    }
+
+    /**
+     * 包裝執行器，使每個提交的工作以提交者的上下文執行
+     *
+     * <p>上下文於提交時擷取，而非建立包裝時</p>
+     *
+     * @param delegate 實際執行工作的執行器
+     * @return 傳遞上下文的執行器
+     */
+    public static Executor propagating(Executor delegate) {
+        return task -> delegate.execute(capture().wrap(task));
+    }
+
+    /**
+     * 包裝工作，使其在綁定此快照的情況下執行
+     *
+     * @param task 工作
+     * @return 包裝後的工作
+     */
+    public Runnable wrap(Runnable task) {
+        return () -> {
+            Scope scope = open();
+            try {
+                task.run();
+            } finally {
+                scope.close();
+            }
+        };
+    }
+
+    /**
+     * 包裝工作，使其在綁定此快照的情況下執行
+     *
+     * @param task 工作
+     * @param <T> 結果型別
+     * @return 包裝後的工作
+     */
+    public <T> Callable<T> wrap(Callable<T> task) {
+        return () -> {
+            Scope scope = open();
+            try {
+                return task.call();
+            } finally {
+                scope.close();
+            }
+        };
+    }
+
+    /**
+     * 將快照綁定到目前執行緒，並記住原本的綁定
+     *
+     * <p>每次綁定新的副本，工作內持有者清除欄位時不影響以同一快照包裝的其他工作</p>
+     */
+    private Scope open() {
+        Scope scope = new Scope(RequestContext.bind(context != null ? context.copy() : null), MDC.getCopyOfContextMap());
+        setMdc(mdc);
+        return scope;
+    }
+
+    private static void setMdc(Map<String, String> values) {
+        if (values == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(values);
+        }
+    }
+
+    /**
+     * 執行緒原本的綁定，工作結束時還原
+     */
+    private static final class Scope {
+
+        private final RequestContext previousContext;
+        private final Map<String, String> previousMdc;
+
+        private Scope(RequestContext previousContext, Map<String, String> previousMdc) {
+            this.previousContext = previousContext;
+            this.previousMdc = previousMdc;
+        }
+
+        private void close() {
+            RequestContext.bind(previousContext);
+            setMdc(previousMdc);
+        }
+    }
+}
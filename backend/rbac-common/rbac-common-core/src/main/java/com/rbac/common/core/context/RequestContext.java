@@ -0,0 +1,191 @@
+package com.rbac.common.core.context;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 請求上下文
+ *
+ * <p>存放請求綁定到執行緒的所有資料：租戶 ID、已驗證使用者、資料源路由鍵、Trace ID
+ * 與請求持有的分散式鎖鎖值。既有的持有者（TenantContextHolder、UserContextHolder、
+ * DynamicDataSourceRouter、TraceContext、RedisDistributedLock）皆委派至此，
+ * 原本的多個 ThreadLocal 合併為一個，清除與傳遞時只需處理一個綁定。
+ * 持有者的每次存取仍會執行一次 {@link ThreadLocal#get()}；同一段程式需讀取多個欄位時，
+ * 可先以 {@link #peek()} 取得實例再直接讀取欄位</p>
+ *
+ * <p>以單一 {@link ThreadLocal} 綁定到目前執行緒，虛擬執行緒可直接使用。所有綁定都經由
+ * {@link #current()}、{@link #peek()}、{@link #bind(RequestContext)} 與 {@link #releaseIfEmpty()}，
+ * 基準 JDK 提供 ScopedValue 後可直接替換儲存方式，不需修改持有者</p>
+ *
+ * <p>實例由綁定的執行緒獨佔，非執行緒安全；交給其他執行緒時請使用 {@link #copy()}</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public final class RequestContext {
+
+    private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+
+    private String tenantId;
+    private Object user;
+    private Object dataSourceKey;
+    private String traceId;
+    private Map<String, String> lockValues;
+
+    /**
+     * 取得目前執行緒綁定的上下文，尚未綁定時建立並綁定；用於寫入
+     *
+     * @return 綁定的上下文，不為 null
+     */
+    public static RequestContext current() {
+        RequestContext context = CURRENT.get();
+        if (context == null) {
+            context = new RequestContext();
+            CURRENT.set(context);
+        }
+        return context;
+    }
+
+    /**
+     * 取得目前執行緒綁定的上下文，不建立新的綁定；用於讀取
+     *
+     * @return 綁定的上下文，未綁定時返回 null
+     */
+    public static RequestContext peek() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 將上下文綁定到目前執行緒，取代原本的綁定
+     *
+     * @param context 要綁定的上下文，null 表示解除綁定
+     * @return 原本綁定的上下文，未綁定時返回 null
+     */
+    public static RequestContext bind(RequestContext context) {
+        RequestContext previous = CURRENT.get();
+        if (context == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+        return previous;
+    }
+
+    /**
+     * 所有欄位皆已清除時解除綁定
+     *
+     * <p>各持有者只清除自己的欄位後呼叫此方法，最後一個持有者清除時釋放 ThreadLocal</p>
+     */
+    public static void releaseIfEmpty() {
+        RequestContext context = CURRENT.get();
+        if (context != null && context.isEmpty()) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * 不論內容，直接解除目前執行緒的綁定
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 建立副本，用於傳遞到其他執行緒
+     *
+     * <p>不複製鎖值：分散式鎖由取得鎖的執行緒釋放。使用者物件以參考傳遞，
+     * 綁定的使用者物件應為請求專屬的實例（例如 VerifiedToken 每次回傳的 UserContext 副本），
+     * 不可直接放入快取共用的物件</p>
+     *
+     * @return 租戶、使用者、資料源鍵與 Trace ID 相同的新上下文
+     */
+    public RequestContext copy() {
+        RequestContext copy = new RequestContext();
+        copy.tenantId = tenantId;
+        copy.user = user;
+        copy.dataSourceKey = dataSourceKey;
+        copy.traceId = traceId;
+        return copy;
+    }
+
+    /**
+     * 檢查是否所有欄位皆未設定
+     *
+     * @return 未攜帶任何資料返回 true
+     */
+    public boolean isEmpty() {
+        return tenantId == null && user == null && dataSourceKey == null && traceId == null
+                && (lockValues == null || lockValues.isEmpty());
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    /**
+     * 取得已驗證使用者，實際型別由認證模組定義
+     *
+     * @return 使用者，未驗證時返回 null
+     */
+    public Object getUser() {
+        return user;
+    }
+
+    public void setUser(Object user) {
+        this.user = user;
+    }
+
+    public Object getDataSourceKey() {
+        return dataSourceKey;
+    }
+
+    public void setDataSourceKey(Object dataSourceKey) {
+        this.dataSourceKey = dataSourceKey;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public void setTraceId(String traceId) {
+        this.traceId = traceId;
+    }
+
+    /**
+     * 取得此請求持有的分散式鎖鎖值
+     *
+     * @param key 鎖鍵
+     * @return 鎖值，未持有時返回 null
+     */
+    public String getLockValue(String key) {
+        return lockValues != null ? lockValues.get(key) : null;
+    }
+
+    /**
+     * 記錄已取得的分散式鎖鎖值
+     *
+     * @param key 鎖鍵
+     * @param value 鎖值
+     */
+    public void putLockValue(String key, String value) {
+        if (lockValues == null) {
+            lockValues = new HashMap<>(4);
+        }
+        lockValues.put(key, value);
+    }
+
+    /**
+     * 移除已釋放的分散式鎖鎖值
+     *
+     * @param key 鎖鍵
+     */
+    public void removeLockValue(String key) {
+        if (lockValues != null) {
+            lockValues.remove(key);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.rbac.common.core.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 字串鍵的並行 Bloom Filter
+ *
+ * <p>機率型集合，只回答「一定不存在」或「可能存在」。作為遠端查詢（Token 撤銷、租戶存在性）前的
+ * 本地預檢，最常見的不存在情況不需離開 JVM</p>
+ *
+ * <p>位元存放於 {@link AtomicLongArray}，{@link #put(String)} 與 {@link #mightContain(String)}
+ * 皆無鎖且可並行呼叫。元素無法移除，需要淘汰過期條目時請重建新的 Filter</p>
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashCount;
+
+    private BloomFilter(long bitSize, int hashCount) {
+        int words = (int) ((bitSize + 63) >>> 6);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words << 6;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * 依預期元素數量與誤判率建立 Bloom Filter
+     *
+     * @param expectedInsertions 預期加入的不重複元素數量
+     * @param falsePositiveRate 目標誤判率（0 &lt; p &lt; 1）
+     * @return 空的 Bloom Filter
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0.0 || falsePositiveRate >= 1.0) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1): " + falsePositiveRate);
+        }
+        long n = Math.max(1L, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2));
+        m = Math.max(64L, Math.min(m, (long) Integer.MAX_VALUE << 6));
+        int k = (int) Math.max(1L, Math.round((double) m / n * LN2));
+        return new BloomFilter(m, k);
+    }
+
+    /**
+     * 加入元素
+     *
+     * @param value 元素
+     */
+    public void put(String value) {
+        long hash = hash64(value);
+        long h1 = hash;
+        long h2 = mix64(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            setBit(Long.remainderUnsigned(h1 + i * h2, bitSize));
+        }
+    }
+
+    /**
+     * 檢查元素是否可能存在
+     *
+     * @param value 元素
+     * @return false 表示一定未加入；true 表示可能已加入
+     */
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        long h1 = hash;
+        long h2 = mix64(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            if (!getBit(Long.remainderUnsigned(h1 + i * h2, bitSize))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 取得位元數
+     *
+     * @return 位元數
+     */
+    public long bitSize() {
+        return bitSize;
+    }
+
+    /**
+     * 取得每個元素使用的雜湊函數數量
+     *
+     * @return 雜湊函數數量
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << (index & 63);
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    private boolean getBit(long index) {
+        return (bits.get((int) (index >>> 6)) & (1L << (index & 63))) != 0;
+    }
+
+    /**
+     * 以 FNV-1a 逐一雜湊 UTF-16 字元，再經 64 位元混合函數；不配置物件
+     */
+    private static long hash64(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0, len = value.length(); i < len; i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix64(h);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
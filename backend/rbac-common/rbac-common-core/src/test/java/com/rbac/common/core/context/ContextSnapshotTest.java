@@ -0,0 +1,98 @@
+package com.rbac.common.core.context;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ContextSnapshot} and {@link ContextPropagatingTaskDecorator}.
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+class ContextSnapshotTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        RequestContext.clear();
+        MDC.clear();
+    }
+
+    @Test
+    void testDecoratedTaskSeesSubmitterContext() throws Exception {
+        RequestContext.current().setTenantId("1");
+        RequestContext.current().setTraceId("trace");
+        MDC.put("traceId", "trace");
+
+        Runnable task = new ContextPropagatingTaskDecorator().decorate(() -> {
+            assertEquals("1", RequestContext.peek().getTenantId());
+            assertEquals("trace", RequestContext.peek().getTraceId());
+            assertEquals("trace", MDC.get("traceId"));
+        });
+
+        executor.submit(task).get();
+    }
+
+    @Test
+    void testPooledThreadIsCleanAfterTask() throws Exception {
+        RequestContext.current().setTenantId("1");
+        MDC.put("traceId", "trace");
+
+        executor.submit(ContextSnapshot.capture().wrap(() -> { })).get();
+
+        assertNull(executor.submit(RequestContext::peek).get());
+        assertNull(executor.submit(() -> MDC.get("traceId")).get());
+    }
+
+    @Test
+    void testInlineRunRestoresCallerContext() {
+        RequestContext caller = RequestContext.current();
+        caller.setTenantId("1");
+        ContextSnapshot snapshot = ContextSnapshot.capture();
+        caller.setTenantId("2");
+
+        snapshot.wrap(() -> {
+            assertEquals("1", RequestContext.peek().getTenantId());
+            RequestContext.peek().setTenantId(null);
+        }).run();
+
+        assertSame(caller, RequestContext.peek());
+        assertEquals("2", caller.getTenantId());
+    }
+
+    @Test
+    void testPropagatingExecutorCapturesAtSubmission() throws Exception {
+        RequestContext.current().setTenantId("1");
+
+        String tenantId = CompletableFuture
+                .supplyAsync(() -> RequestContext.peek().getTenantId(), ContextSnapshot.propagating(executor))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals("1", tenantId);
+    }
+
+    @Test
+    void testEmptySnapshotRunsWithoutContext() throws Exception {
+        ContextSnapshot snapshot = ContextSnapshot.capture();
+
+        assertNull(executor.submit(snapshot.wrap((Callable<RequestContext>) RequestContext::peek)).get());
+    }
+}
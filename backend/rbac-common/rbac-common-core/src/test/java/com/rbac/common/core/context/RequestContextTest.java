@@ -0,0 +1,104 @@
+package com.rbac.common.core.context;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RequestContext}.
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+class RequestContextTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestContext.clear();
+    }
+
+    @Test
+    void testCurrentBindsOnceAndPeekDoesNotBind() {
+        assertNull(RequestContext.peek());
+
+        RequestContext context = RequestContext.current();
+
+        assertSame(context, RequestContext.current());
+        assertSame(context, RequestContext.peek());
+    }
+
+    @Test
+    void testReleaseIfEmptyKeepsContextUntilLastFieldCleared() {
+        RequestContext context = RequestContext.current();
+        context.setTenantId("1");
+        context.setTraceId("trace");
+
+        context.setTenantId(null);
+        RequestContext.releaseIfEmpty();
+        assertSame(context, RequestContext.peek());
+
+        context.setTraceId(null);
+        RequestContext.releaseIfEmpty();
+        assertNull(RequestContext.peek());
+    }
+
+    @Test
+    void testLockValuesAreTrackedPerKey() {
+        RequestContext context = RequestContext.current();
+        context.putLockValue("a", "1");
+        context.putLockValue("b", "2");
+
+        context.removeLockValue("a");
+
+        assertNull(context.getLockValue("a"));
+        assertEquals("2", context.getLockValue("b"));
+        assertFalse(context.isEmpty());
+    }
+
+    @Test
+    void testCopyCarriesRequestFieldsButNotLocks() {
+        RequestContext context = RequestContext.current();
+        context.setTenantId("1");
+        context.setUser("admin");
+        context.setDataSourceKey("master");
+        context.setTraceId("trace");
+        context.putLockValue("a", "1");
+
+        RequestContext copy = context.copy();
+
+        assertNotSame(context, copy);
+        assertEquals("1", copy.getTenantId());
+        assertEquals("admin", copy.getUser());
+        assertEquals("master", copy.getDataSourceKey());
+        assertEquals("trace", copy.getTraceId());
+        assertNull(copy.getLockValue("a"));
+    }
+
+    @Test
+    void testBindReturnsPreviousAndNullUnbinds() {
+        RequestContext first = RequestContext.current();
+        RequestContext second = new RequestContext();
+
+        assertSame(first, RequestContext.bind(second));
+        assertSame(second, RequestContext.peek());
+
+        assertSame(second, RequestContext.bind(null));
+        assertNull(RequestContext.peek());
+    }
+
+    @Test
+    void testContextIsNotVisibleToOtherThreads() throws Exception {
+        RequestContext.current().setTenantId("1");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertNull(executor.submit(RequestContext::peek).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
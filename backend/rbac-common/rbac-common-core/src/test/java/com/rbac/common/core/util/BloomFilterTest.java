@@ -0,0 +1,59 @@
+package com.rbac.common.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BloomFilter class.
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+class BloomFilterTest {
+
+    @Test
+    void testNoFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("jti-" + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("jti-" + i));
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateWithinBound() {
+        BloomFilter filter = BloomFilter.create(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+        int falsePositives = 0;
+        int probes = 10000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        // 容許 3 倍誤差，避免隨機波動造成測試不穩定
+        assertTrue(falsePositives < probes * 0.03, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void testEmptyFilter() {
+        BloomFilter filter = BloomFilter.create(100, 0.001);
+        assertFalse(filter.mightContain("anything"));
+        assertFalse(filter.mightContain(""));
+        assertTrue(filter.hashCount() >= 1);
+        assertEquals(0, filter.bitSize() % 64);
+    }
+
+    @Test
+    void testInvalidFalsePositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1.0));
+    }
+}
@@ -1,5 +1,6 @@
 package com.rbac.common.database.config;
 
+import com.rbac.common.core.context.RequestContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 
@@ -46,11 +47,6 @@ public class DynamicDataSourceRouter extends AbstractRoutingDataSource {
         }
     }
 
-    /**
-     * ThreadLocal 儲存當前資料來源類型
-     */
-    private static final ThreadLocal<DataSourceType> CURRENT_DATA_SOURCE = new ThreadLocal<>();
-
     /**
      * 決定當前應該使用哪個資料來源
      *
@@ -58,7 +54,7 @@ public class DynamicDataSourceRouter extends AbstractRoutingDataSource {
      */
     @Override
     protected Object determineCurrentLookupKey() {
-        DataSourceType dataSourceType = CURRENT_DATA_SOURCE.get();
+        DataSourceType dataSourceType = getDataSourceType();
 
         if (dataSourceType == null) {
             // 預設使用主庫
@@ -76,7 +72,7 @@ public class DynamicDataSourceRouter extends AbstractRoutingDataSource {
      * @param dataSourceType 資料來源類型
      */
     public static void setDataSourceType(DataSourceType dataSourceType) {
-        CURRENT_DATA_SOURCE.set(dataSourceType);
+        RequestContext.current().setDataSourceKey(dataSourceType);
         log.debug("設定資料來源類型：{}", dataSourceType.getValue());
     }
 
@@ -86,7 +82,8 @@ public class DynamicDataSourceRouter extends AbstractRoutingDataSource {
      * @return 資料來源類型
      */
     public static DataSourceType getDataSourceType() {
-        return CURRENT_DATA_SOURCE.get();
+        RequestContext context = RequestContext.peek();
+        return context != null ? (DataSourceType) context.getDataSourceKey() : null;
     }
 
     /**
@@ -94,7 +91,11 @@ public class DynamicDataSourceRouter extends AbstractRoutingDataSource {
      * 必須在請求結束時呼叫以防止 ThreadLocal 洩漏
      */
     public static void clear() {
-        CURRENT_DATA_SOURCE.remove();
+        RequestContext context = RequestContext.peek();
+        if (context != null) {
+            context.setDataSourceKey(null);
+            RequestContext.releaseIfEmpty();
+        }
         log.debug("清除資料來源類型設定");
     }
 
@@ -1,16 +1,16 @@
 package com.rbac.common.database.context;
 
+import com.rbac.common.core.context.RequestContext;
+
 /**
  * 租戶上下文持有器
- * 使用 ThreadLocal 存儲當前請求的租戶 ID
+ * 當前請求的租戶 ID 存於 {@link RequestContext}，與其他請求上下文共用一次 ThreadLocal 查詢
  *
  * @author CHANG SHOU-WEN
  * @since 1.0.0
  */
 public class TenantContextHolder {
 
-    private static final ThreadLocal<String> tenantIdHolder = new ThreadLocal<>();
-
     /**
      * 設置租戶 ID 到當前執行緒
      *
@@ -21,7 +21,7 @@ public class TenantContextHolder {
         if (tenantId == null || tenantId.trim().isEmpty()) {
             throw new IllegalArgumentException("Tenant ID cannot be null or empty");
         }
-        tenantIdHolder.set(tenantId);
+        RequestContext.current().setTenantId(tenantId);
     }
 
     /**
@@ -30,7 +30,8 @@ public class TenantContextHolder {
      * @return 租戶 ID，如果未設置則返回 null
      */
     public static String getTenantId() {
-        return tenantIdHolder.get();
+        RequestContext context = RequestContext.peek();
+        return context != null ? context.getTenantId() : null;
     }
 
     /**
@@ -38,7 +39,11 @@ public class TenantContextHolder {
      * 必須在請求結束時調用以防止執行緒池污染
      */
     public static void clear() {
-        tenantIdHolder.remove();
+        RequestContext context = RequestContext.peek();
+        if (context != null) {
+            context.setTenantId(null);
+            RequestContext.releaseIfEmpty();
+        }
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.rbac.common.redis.lock;
 
+import com.rbac.common.core.context.RequestContext;
 import com.rbac.common.core.exception.SystemException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,8 +31,7 @@ public class RedisDistributedLock implements DistributedLock {
 
     private final StringRedisTemplate redisTemplate;
 
-    // ThreadLocal 用於儲存鎖的值，確保只有鎖的持有者能釋放鎖
-    private final ThreadLocal<String> lockValueHolder = new ThreadLocal<>();
+    // 鎖的值依鍵存於 RequestContext，確保只有鎖的持有者能釋放鎖，並允許同時持有多把鎖
 
     // Lua 腳本：原子性檢查並刪除鎖
     private static final String UNLOCK_SCRIPT =
@@ -54,7 +54,7 @@ public class RedisDistributedLock implements DistributedLock {
             .setIfAbsent(key, value, timeout, unit);
 
         if (Boolean.TRUE.equals(success)) {
-            lockValueHolder.set(value);
+            RequestContext.current().putLockValue(key, value);
             log.debug("Successfully acquired lock: {} with timeout: {} {}", key, timeout, unit);
             return true;
         }
@@ -69,7 +69,8 @@ public class RedisDistributedLock implements DistributedLock {
             throw new IllegalArgumentException("Lock key cannot be null or empty");
         }
 
-        String value = lockValueHolder.get();
+        RequestContext context = RequestContext.peek();
+        String value = context != null ? context.getLockValue(key) : null;
         if (value == null) {
             log.warn("Attempting to unlock without holding the lock: {}", key);
             return;
@@ -92,7 +93,8 @@ public class RedisDistributedLock implements DistributedLock {
             log.error("Error releasing lock: {}", key, e);
             throw new SystemException("SYSTEM_ERROR", "Failed to release distributed lock: " + key, e);
         } finally {
-            lockValueHolder.remove();
+            context.removeLockValue(key);
+            RequestContext.releaseIfEmpty();
         }
     }
 
@@ -0,0 +1,37 @@
+package com.rbac.common.web.config;
+
+import com.rbac.common.core.context.ContextPropagatingTaskDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * 非同步執行配置類
+ *
+ * 租戶、使用者、資料源與 Trace ID 綁定在請求執行緒上，交給其他執行緒執行的工作預設看不到，
+ * MyBatis-Plus 租戶攔截器會因此拋出「租戶上下文未設定」。此配置：
+ * 1. 啟用 @Async
+ * 2. 註冊 {@link ContextPropagatingTaskDecorator}，Spring Boot 會將其套用到自動配置的
+ *    applicationTaskExecutor（@Async 預設使用）與 taskScheduler，平台與虛擬執行緒皆適用
+ *
+ * 自行建立的執行緒池請以 ContextSnapshot.propagating(executor) 包裝，
+ * CompletableFuture 請傳入注入的 AsyncTaskExecutor 或包裝後的執行器。
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * 傳遞請求上下文的任務裝飾器
+     *
+     * @return TaskDecorator 實例
+     */
+    @Bean
+    public TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+}
@@ -1,14 +1,17 @@
 package com.rbac.common.web.context;
 
+import com.rbac.common.core.context.RequestContext;
 import org.slf4j.MDC;
 import org.springframework.util.StringUtils;
 
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 /**
  * Trace ID 上下文管理器
  *
  * 此類提供對 Trace ID 的程式化訪問和 MDC（Mapped Diagnostic Context）操作的靜態包裝。
+ * Trace ID 同時存於 {@link RequestContext}（讀取只需一次欄位存取）與 MDC（供日誌格式使用）。
  * 主要用於：
  * 1. 獲取當前請求的 Trace ID（從 MDC）
  * 2. 設定 Trace ID 到 MDC（用於非 Web 請求場景，如異步任務）
@@ -48,6 +51,11 @@ public final class TraceContext {
      */
     public static final String TRACE_ID_HEADER = "X-Trace-Id";
 
+    /**
+     * 外部傳入的 Trace ID 格式：1-100 個字母、數字或連字號
+     */
+    private static final Pattern TRACE_ID_PATTERN = Pattern.compile("^[a-zA-Z0-9-]{1,100}$");
+
     /**
      * 私有建構函數，防止實例化
      */
@@ -58,12 +66,17 @@ public final class TraceContext {
     /**
      * 獲取當前的 Trace ID
      *
-     * 從 MDC 中獲取 Trace ID。如果 MDC 中沒有設定 Trace ID，則返回 null。
+     * 優先從 RequestContext 讀取，未設定時從 MDC 中獲取（相容直接寫入 MDC 的程式碼）。
+     * 兩者皆未設定時返回 null。
      * 在 Web 請求中，此值由 TraceIdFilter 自動設定。
      *
      * @return 當前 Trace ID，如果沒有設定則返回 null
      */
     public static String getTraceId() {
+        RequestContext context = RequestContext.peek();
+        if (context != null && context.getTraceId() != null) {
+            return context.getTraceId();
+        }
         return MDC.get(TRACE_ID_KEY);
     }
 
@@ -82,6 +95,7 @@ public final class TraceContext {
         if (!StringUtils.hasText(traceId)) {
             throw new IllegalArgumentException("Trace ID cannot be null or empty");
         }
+        RequestContext.current().setTraceId(traceId.trim());
         MDC.put(TRACE_ID_KEY, traceId.trim());
     }
 
@@ -100,6 +114,36 @@ public final class TraceContext {
         return UUID.randomUUID().toString();
     }
 
+    /**
+     * 檢查外部傳入的 Trace ID 格式
+     *
+     * 只允許字母、數字和連字號，長度 1-100 個字符（UUID 為 36 個字符）。
+     *
+     * @param traceId Trace ID
+     * @return true 如果格式有效
+     */
+    public static boolean isValidTraceId(String traceId) {
+        return traceId != null && TRACE_ID_PATTERN.matcher(traceId).matches();
+    }
+
+    /**
+     * 依請求標頭的值決定 Trace ID
+     *
+     * 標頭值格式有效時沿用（支持分布式追蹤），否則生成新的 Trace ID。
+     *
+     * @param headerValue X-Trace-Id 標頭的值，可為 null
+     * @return Trace ID
+     */
+    public static String resolveTraceId(String headerValue) {
+        if (headerValue != null) {
+            String traceId = headerValue.trim();
+            if (isValidTraceId(traceId)) {
+                return traceId;
+            }
+        }
+        return generateTraceId();
+    }
+
     /**
      * 清理 Trace ID
      *
@@ -109,6 +153,11 @@ public final class TraceContext {
      * 在 Web 請求中，此清理由 TraceIdFilter 自動處理。
      */
     public static void clear() {
+        RequestContext context = RequestContext.peek();
+        if (context != null) {
+            context.setTraceId(null);
+            RequestContext.releaseIfEmpty();
+        }
         MDC.remove(TRACE_ID_KEY);
     }
 
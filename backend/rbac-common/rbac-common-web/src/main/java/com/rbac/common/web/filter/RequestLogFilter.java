@@ -5,6 +5,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
@@ -38,6 +39,7 @@ import java.util.Map;
  */
 @Component
 @Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "rbac.web", name = "preamble-filter", havingValue = "false", matchIfMissing = true)
 @Slf4j
 public class RequestLogFilter extends OncePerRequestFilter {
 
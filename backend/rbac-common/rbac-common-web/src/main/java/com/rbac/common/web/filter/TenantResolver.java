@@ -0,0 +1,208 @@
+package com.rbac.common.web.filter;
+
+import com.rbac.common.core.config.RbacProperties;
+import com.rbac.common.core.exception.TenantException;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * 租戶解析器
+ *
+ * 依請求已讀取的值決定租戶 ID 並驗證，本身不讀取請求標頭，
+ * 由 TenantFilter 與合併式的請求前置過濾器共用，兩者的解析規則因此一致。
+ *
+ * 優先順序：
+ * 1. 已驗證 JWT token 中的 tenant_id 聲明；同時帶有不一致的租戶標頭時拒絕（TENANT_MISMATCH，403）
+ * 2. 請求標頭（rbac.tenant.header-name，預設 X-Tenant-Id），僅用於沒有 token 租戶的請求
+ * 3. 子網域（例如：tenant1.example.com -> tenant1）
+ *
+ * 已驗證的 token 不可被標頭覆寫，避免已登入的使用者以標頭切換到其他租戶。
+ *
+ * 格式驗證通過後交由 {@link TenantValidator}（若有）確認租戶存在且啟用，並將租戶編碼轉為標準租戶 ID；
+ * 過濾器以 {@link #validate(String)} 的返回值設定租戶上下文。
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+@Component
+@Slf4j
+public class TenantResolver {
+
+    /**
+     * 租戶 ID 格式：只允許字母、數字、底線和連字號，長度 1-50 個字符
+     */
+    private static final Pattern TENANT_ID_PATTERN = Pattern.compile("^[a-zA-Z0-9_-]{1,50}$");
+
+    /**
+     * 租戶標頭與已驗證 token 的 tenant_id 不一致
+     */
+    public static final String TENANT_MISMATCH = "TENANT_MISMATCH";
+
+    private final RbacProperties rbacProperties;
+
+    /**
+     * 租戶存在性驗證器，未提供時為 null
+     */
+    private final TenantValidator tenantValidator;
+
+    public TenantResolver(RbacProperties rbacProperties) {
+        this(rbacProperties, (TenantValidator) null);
+    }
+
+    @Autowired
+    public TenantResolver(RbacProperties rbacProperties, ObjectProvider<TenantValidator> tenantValidator) {
+        this(rbacProperties, tenantValidator.getIfAvailable());
+    }
+
+    public TenantResolver(RbacProperties rbacProperties, TenantValidator tenantValidator) {
+        this.rbacProperties = rbacProperties;
+        this.tenantValidator = tenantValidator;
+    }
+
+    /**
+     * 取得攜帶租戶 ID 的請求標頭名稱
+     *
+     * @return 標頭名稱
+     */
+    public String getHeaderName() {
+        return rbacProperties.getTenant().getHeaderName();
+    }
+
+    /**
+     * 解析租戶 ID
+     *
+     * @param headerValue 租戶標頭的值，可為 null
+     * @param tokenTenantId 已驗證 token 的 tenant_id 聲明，可為 null
+     * @param host 請求的主機名，可為 null
+     * @return 租戶 ID
+     * @throws TenantException 如果無法解析租戶 ID，或租戶標頭與 token 的 tenant_id 不一致
+     */
+    public String resolve(String headerValue, String tokenTenantId, String host) {
+        String headerTenantId = headerValue != null && !headerValue.trim().isEmpty() ? headerValue.trim() : null;
+
+        if (tokenTenantId != null && !tokenTenantId.trim().isEmpty()) {
+            String tenantId = tokenTenantId.trim();
+            if (headerTenantId != null && !headerTenantId.equals(tenantId)
+                    && !tenantId.equals(canonicalize(headerTenantId))) {
+                throw new TenantException(TENANT_MISMATCH, "Tenant header does not match the authenticated tenant");
+            }
+            log.debug("Extracted tenant ID from JWT token: {}", tenantId);
+            return tenantId;
+        }
+
+        if (headerTenantId != null) {
+            log.debug("Extracted tenant ID from header '{}': {}", getHeaderName(), headerTenantId);
+            return headerTenantId;
+        }
+
+        String tenantId = extractTenantFromSubdomain(host);
+        if (tenantId != null) {
+            log.debug("Extracted tenant ID from subdomain '{}': {}", host, tenantId);
+            return tenantId;
+        }
+
+        throw new TenantException("TENANT_NOT_FOUND", "Unable to extract tenant ID from request");
+    }
+
+    /**
+     * 驗證租戶 ID
+     *
+     * @param tenantId 租戶 ID 或租戶編碼
+     * @return 標準租戶 ID，應以此設定租戶上下文；未提供 {@link TenantValidator} 時返回傳入值
+     * @throws TenantException 如果租戶 ID 無效、不存在或已停用
+     */
+    public String validate(String tenantId) {
+        if (tenantId == null || tenantId.trim().isEmpty()) {
+            throw new TenantException("TENANT_INVALID", "Tenant ID cannot be null or empty");
+        }
+
+        if (!isValidTenantIdFormat(tenantId)) {
+            throw new TenantException("TENANT_INVALID_FORMAT",
+                "Tenant ID contains invalid characters or exceeds length limit");
+        }
+
+        // 存在性與狀態檢查由 Auth 模組實作，以避免循環依賴
+        return tenantValidator != null ? tenantValidator.validate(tenantId) : tenantId;
+    }
+
+    /**
+     * 將租戶異常寫為 JSON 響應，TENANT_MISMATCH 為 403，其餘為 400
+     *
+     * @param response HTTP 響應
+     * @param e 租戶異常
+     * @throws IOException 如果寫入響應失敗
+     */
+    public void writeError(HttpServletResponse response, TenantException e) throws IOException {
+        response.setStatus(TENANT_MISMATCH.equals(e.getCode())
+                ? HttpServletResponse.SC_FORBIDDEN : HttpServletResponse.SC_BAD_REQUEST);
+        response.setContentType("application/json;charset=UTF-8");
+
+        // 返回簡單的錯誤訊息
+        String errorJson = String.format(
+            "{\"code\":\"%s\",\"message\":\"%s\",\"timestamp\":%d}",
+            e.getCode(),
+            e.getMessage(),
+            System.currentTimeMillis()
+        );
+
+        response.getWriter().write(errorJson);
+    }
+
+    /**
+     * 將標頭中的租戶（可能是編碼）轉為標準租戶 ID，用於與 token 的 tenant_id 比對；無法轉換時返回 null
+     */
+    private String canonicalize(String tenantId) {
+        try {
+            return validate(tenantId);
+        } catch (TenantException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 從子網域提取租戶 ID
+     *
+     * 示例：
+     * - tenant1.example.com -> tenant1
+     * - sub.tenant2.example.com -> tenant2
+     *
+     * @param host 請求的主機名
+     * @return 租戶 ID 或 null
+     */
+    private String extractTenantFromSubdomain(String host) {
+        if (host == null || host.isEmpty()) {
+            return null;
+        }
+
+        // 假設租戶 ID 是第一個子網域，只有一個部分（例如：localhost）時不是子網域
+        // 注意：您可能需要調整此邏輯以適應您的網域結構
+        int dot = host.indexOf('.');
+        if (dot <= 0 || dot == host.length() - 1) {
+            return null;
+        }
+        String potentialTenantId = host.substring(0, dot);
+
+        // 驗證是否為有效的租戶 ID 格式
+        if (isValidTenantIdFormat(potentialTenantId)) {
+            return potentialTenantId;
+        }
+
+        return null;
+    }
+
+    /**
+     * 驗證租戶 ID 格式
+     *
+     * @param tenantId 租戶 ID
+     * @return true 如果格式有效
+     */
+    private boolean isValidTenantIdFormat(String tenantId) {
+        return tenantId != null && TENANT_ID_PATTERN.matcher(tenantId).matches();
+    }
+}
@@ -0,0 +1,28 @@
+package com.rbac.common.web.filter;
+
+import com.rbac.common.core.exception.TenantException;
+
+/**
+ * 租戶存在性驗證擴展點
+ *
+ * 由認證模組實作：確認格式正確的租戶 ID 確實存在且處於啟用狀態，並返回標準租戶 ID。
+ * 請求可用租戶編碼（標頭或子網域）指定租戶，過濾器一律將返回的數值租戶 ID 設定到租戶上下文，
+ * 快取鍵、頻率限制與資料庫租戶條件因此不會因編碼與 ID 而分成兩份。
+ * 實作在過濾器中逐請求呼叫，應只查詢本地狀態，不存取資料庫或 Redis。
+ *
+ * 未提供實作時 TenantResolver 只驗證格式。
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public interface TenantValidator {
+
+    /**
+     * 驗證租戶是否存在且可用
+     *
+     * @param tenantId 已通過格式驗證的租戶 ID 或租戶編碼
+     * @return 標準租戶 ID；無法確認時（例如尚未載入）返回傳入值
+     * @throws TenantException 如果租戶不存在或已停用
+     */
+    String validate(String tenantId);
+}
@@ -0,0 +1,27 @@
+package com.rbac.common.web.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Token 租戶解析擴展點
+ *
+ * 由認證模組實作：驗證 Bearer token 並返回其 tenant_id 聲明，TenantFilter 以此為已登入請求的租戶，
+ * 租戶標頭只能與之相同。
+ * 實作應將驗證結果保存在請求屬性中，讓後續的認證過濾器直接沿用，同一個 token 只驗證一次。
+ *
+ * 未提供實作時 TenantFilter 略過 token，改以子網域解析。
+ *
+ * @author CHANG SHOU-WEN, AI-Enhanced
+ * @since 2026/10/16
+ */
+public interface TokenTenantResolver {
+
+    /**
+     * 驗證 token 並取得租戶 ID
+     *
+     * @param request HTTP 請求，用於保存驗證結果
+     * @param token Bearer token（不含 "Bearer " 前綴）
+     * @return tenant_id 聲明；token 無效或沒有租戶時返回 null
+     */
+    String resolveTenantId(HttpServletRequest request, String token);
+}
@@ -4,15 +4,15 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import com.rbac.common.web.context.TraceContext;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
 
 /**
  * Trace ID Filter - 生成並傳遞 Trace ID 用於日誌串聯
@@ -26,11 +26,14 @@ import java.util.UUID;
  *
  * 執行順序：HIGHEST_PRECEDENCE + 10（在 TenantFilter 之後，確保 Trace ID 可用於後續所有日誌）
  *
+ * rbac.web.preamble-filter 啟用時改由合併式的請求前置過濾器處理，此過濾器不註冊。
+ *
  * @author RBAC System
  * @since 1.0.0
  */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "rbac.web", name = "preamble-filter", havingValue = "false", matchIfMissing = true)
 @Slf4j
 public class TraceIdFilter extends OncePerRequestFilter {
 
@@ -54,8 +57,8 @@ public class TraceIdFilter extends OncePerRequestFilter {
             // 1. 提取或生成 Trace ID
             traceId = extractOrGenerateTraceId(request);
 
-            // 2. 設定到 MDC（所有日誌會自動包含此值）
-            MDC.put(TRACE_ID_KEY, traceId);
+            // 2. 設定到請求上下文與 MDC（所有日誌會自動包含此值）
+            TraceContext.setTraceId(traceId);
 
             // 3. 將 Trace ID 添加到響應標頭（供客戶端追蹤）
             response.setHeader(TRACE_ID_HEADER, traceId);
@@ -79,7 +82,7 @@ public class TraceIdFilter extends OncePerRequestFilter {
         } finally {
             // 關鍵：清理 MDC，防止線程池污染
             // 如果不清理，下一個使用此線程的請求會看到舊的 Trace ID
-            MDC.remove(TRACE_ID_KEY);
+            TraceContext.clear();
         }
     }
 
@@ -99,7 +102,7 @@ public class TraceIdFilter extends OncePerRequestFilter {
 
         if (traceId != null && !traceId.trim().isEmpty()) {
             // 驗證格式（可選）
-            if (isValidTraceIdFormat(traceId)) {
+            if (TraceContext.isValidTraceId(traceId.trim())) {
                 log.debug("Extracted existing Trace ID from header: {}", traceId);
                 return traceId.trim();
             } else {
@@ -108,50 +111,8 @@ public class TraceIdFilter extends OncePerRequestFilter {
         }
 
         // 選項 2：生成新的 Trace ID
-        String newTraceId = generateTraceId();
+        String newTraceId = TraceContext.generateTraceId();
         log.debug("Generated new Trace ID: {}", newTraceId);
         return newTraceId;
     }
-
-    /**
-     * 生成新的 Trace ID
-     *
-     * 使用 UUID.randomUUID() 生成唯一的追蹤 ID
-     * 格式：8-4-4-4-12 十六進制字符（例如：550e8400-e29b-41d4-a716-446655440000）
-     *
-     * 注意：在分布式系統中，您可能想使用 Snowflake ID 或其他分布式 ID 生成策略
-     * 以確保更好的性能和有序性。
-     *
-     * @return 新的 Trace ID
-     */
-    private String generateTraceId() {
-        return UUID.randomUUID().toString();
-    }
-
-    /**
-     * 驗證 Trace ID 格式
-     *
-     * 基本驗證：
-     * - 不為空
-     * - 長度合理（1-100 個字符）
-     * - 只包含字母、數字和連字號
-     *
-     * 注意：UUID 格式為 8-4-4-4-12，總長度為 36 個字符
-     *
-     * @param traceId Trace ID
-     * @return true 如果格式有效
-     */
-    private boolean isValidTraceIdFormat(String traceId) {
-        if (traceId == null || traceId.trim().isEmpty()) {
-            return false;
-        }
-
-        // 長度限制：1-100 個字符
-        if (traceId.length() > 100) {
-            return false;
-        }
-
-        // 基本驗證：只允許字母、數字和連字號
-        return traceId.matches("^[a-zA-Z0-9-]+$");
-    }
 }
@@ -35,8 +35,13 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(RbacException.class)
     public ResponseEntity<Result<Void>> handleRbacException(RbacException e) {
-        log.error("RbacException: code={}, message={}", e.getCode(), e.getMessage());
         HttpStatus status = mapCodeToHttpStatus(e.getCode());
+        if (status.is4xxClientError()) {
+            // 客戶端錯誤（認證失敗、限流等）在攻擊期間量大，不以 error 記錄
+            log.warn("RbacException: code={}, message={}", e.getCode(), e.getMessage());
+        } else {
+            log.error("RbacException: code={}, message={}", e.getCode(), e.getMessage());
+        }
         return ResponseEntity.status(status)
                 .body(Result.error(status.value(), e.getCode(), e.getMessage()));
     }
@@ -113,8 +118,11 @@ public class GlobalExceptionHandler {
 
         return switch (code) {
             case "BUSINESS_ERROR", "VALIDATION_ERROR" -> 400;
-            case "TENANT_ERROR" -> 403;
+            case "401" -> 401;
+            case "TENANT_ERROR", "403" -> 403;
+            case "429" -> 429;
             case "SYSTEM_ERROR", "INTERNAL_ERROR" -> 500;
+            case "503" -> 503;
             default -> 500;
         };
     }
@@ -132,8 +140,11 @@ public class GlobalExceptionHandler {
 
         return switch (code) {
             case "BUSINESS_ERROR", "VALIDATION_ERROR" -> HttpStatus.BAD_REQUEST;
-            case "TENANT_ERROR" -> HttpStatus.FORBIDDEN;
+            case "401" -> HttpStatus.UNAUTHORIZED;
+            case "TENANT_ERROR", "403" -> HttpStatus.FORBIDDEN;
+            case "429" -> HttpStatus.TOO_MANY_REQUESTS;
             case "SYSTEM_ERROR", "INTERNAL_ERROR" -> HttpStatus.INTERNAL_SERVER_ERROR;
+            case "503" -> HttpStatus.SERVICE_UNAVAILABLE;
             default -> HttpStatus.INTERNAL_SERVER_ERROR;
         };
     }
@@ -1,6 +1,7 @@
 package com.rbac.common.web.filter;
 
 import com.rbac.common.core.config.RbacProperties;
+import com.rbac.common.core.exception.TenantException;
 import com.rbac.common.database.context.TenantContextHolder;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -51,7 +52,7 @@ class TenantFilterIntegrationTest {
 
         // 設定 MockMvc，包含 TenantFilter
         mockMvc = MockMvcBuilders.standaloneSetup(new TestController())
-                .addFilter(new TenantFilter(rbacProperties))
+                .addFilter(new TenantFilter(new TenantResolver(rbacProperties)))
                 .build();
     }
 
@@ -155,7 +156,7 @@ class TenantFilterIntegrationTest {
 
         // 重新設定 MockMvc 包含異常控制器
         mockMvc = MockMvcBuilders.standaloneSetup(new ExceptionController())
-                .addFilter(new TenantFilter(rbacProperties))
+                .addFilter(new TenantFilter(new TenantResolver(rbacProperties)))
                 .build();
 
         // 發送會拋出異常的請求
@@ -180,4 +181,117 @@ class TenantFilterIntegrationTest {
         // 驗證請求後 ThreadLocal 已清理
         assertNull(TenantContextHolder.getTenantId(), "ThreadLocal should be cleared after request");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTenantIdExtractionFromVerifiedToken() throws Exception {
+        // 測試沒有租戶標頭時，使用 TokenTenantResolver 驗證後的 tenant_id，且優先於子網域
+        TokenTenantResolver tokenTenantResolver = (request, token) -> "valid-token".equals(token) ? "tenant_jwt" : null;
+        mockMvc = MockMvcBuilders.standaloneSetup(new TestController())
+                .addFilter(new TenantFilter(new TenantResolver(rbacProperties), tokenTenantResolver))
+                .build();
+
+        mockMvc.perform(get("/test/tenant")
+                .header("Authorization", "Bearer valid-token")
+                .header("Host", "tenant_subdomain.example.com"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("tenant_jwt"));
+
+        // 無效 token 時退回子網域
+        mockMvc.perform(get("/test/tenant")
+                .header("Authorization", "Bearer forged-token")
+                .header("Host", "tenant_subdomain.example.com"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("tenant_subdomain"));
+
+        // 驗證請求後 ThreadLocal 已清理
+        assertNull(TenantContextHolder.getTenantId(), "ThreadLocal should be cleared after request");
+    }
+
+    @Test
+    void testVerifiedTokenTenantIsAuthoritative() throws Exception {
+        // 測試已驗證 token 的 tenant_id 不可被租戶標頭覆寫：一致時放行，不一致時返回 403 且不進入控制器
+        TokenTenantResolver tokenTenantResolver = (request, token) -> "valid-token".equals(token) ? "tenant_jwt" : null;
+        mockMvc = MockMvcBuilders.standaloneSetup(new TestController())
+                .addFilter(new TenantFilter(new TenantResolver(rbacProperties), tokenTenantResolver))
+                .build();
+
+        mockMvc.perform(get("/test/tenant")
+                .header("Authorization", "Bearer valid-token")
+                .header("X-Tenant-Id", "tenant_jwt"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("tenant_jwt"));
+
+        mockMvc.perform(get("/test/tenant")
+                .header("Authorization", "Bearer valid-token")
+                .header("X-Tenant-Id", "tenant_other"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value(TenantResolver.TENANT_MISMATCH));
+
+        // 沒有 token 租戶時仍使用標頭
+        mockMvc.perform(get("/test/tenant")
+                .header("Authorization", "Bearer forged-token")
+                .header("X-Tenant-Id", "tenant_header"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("tenant_header"));
+
+        // 驗證請求後 ThreadLocal 已清理
+        assertNull(TenantContextHolder.getTenantId(), "ThreadLocal should be cleared after request");
+    }
+
+    @Test
+    void testTenantCodeStoredAsCanonicalId() throws Exception {
+        // 測試以租戶編碼指定的請求以 TenantValidator 返回的標準租戶 ID 設定上下文，
+        // 且與 token 租戶相同的編碼標頭不視為不一致
+        TenantValidator tenantValidator = tenantId -> "acme".equals(tenantId) ? "42" : tenantId;
+        TokenTenantResolver tokenTenantResolver = (request, token) -> "valid-token".equals(token) ? "42" : null;
+        mockMvc = MockMvcBuilders.standaloneSetup(new TestController())
+                .addFilter(new TenantFilter(new TenantResolver(rbacProperties, tenantValidator), tokenTenantResolver))
+                .build();
+
+        mockMvc.perform(get("/test/tenant")
+                .header("Host", "acme.example.com"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("42"));
+
+        mockMvc.perform(get("/test/tenant")
+                .header("Authorization", "Bearer valid-token")
+                .header("X-Tenant-Id", "acme"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("42"));
+
+        mockMvc.perform(get("/test/tenant")
+                .header("Authorization", "Bearer valid-token")
+                .header("X-Tenant-Id", "other"))
+                .andExpect(status().isForbidden());
+
+        // 驗證請求後 ThreadLocal 已清理
+        assertNull(TenantContextHolder.getTenantId(), "ThreadLocal should be cleared after request");
+    }
+
+    @Test
+    void testUnknownTenantRejectedByValidator() throws Exception {
+        // 測試格式正確但 TenantValidator 判定不存在的租戶被拒絕，且不進入控制器
+        TenantValidator tenantValidator = tenantId -> {
+            if (!"tenant_known".equals(tenantId)) {
+                throw new TenantException("TENANT_UNKNOWN", "Tenant does not exist");
+            }
+            return tenantId;
+        };
+        mockMvc = MockMvcBuilders.standaloneSetup(new TestController())
+                .addFilter(new TenantFilter(new TenantResolver(rbacProperties, tenantValidator)))
+                .build();
+
+        mockMvc.perform(get("/test/tenant")
+                .header("X-Tenant-Id", "tenant_known"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("tenant_known"));
+
+        mockMvc.perform(get("/test/tenant")
+                .header("X-Tenant-Id", "tenant_unknown"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("TENANT_UNKNOWN"));
+
+        // 驗證請求後 ThreadLocal 已清理
+        assertNull(TenantContextHolder.getTenantId(), "ThreadLocal should be cleared after request");
+    }
+}